@@ -0,0 +1,75 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderState;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Measures the time from constructing a {@link Provider} to READY.
+ * <p>
+ * Each run constructs a provider against a {@link LocalStreamingServer} and calls {@code initialize}, which returns
+ * once the provider is READY. Runs are repeated for each payload size, over both streaming and polling. Options are
+ * read from system properties, which {@code ./gradlew coldStartBenchmark} passes through from project properties:
+ * <ul>
+ *     <li>{@code loadTest.flagCounts}: comma separated flag counts (default 10,1000,10000)</li>
+ *     <li>{@code loadTest.targetsPerFlag}: individual targets in each flag (default 20)</li>
+ *     <li>{@code loadTest.responseDelayMillis}: simulated service latency (default 0)</li>
+ *     <li>{@code loadTest.iterations}: measured runs per configuration (default 20)</li>
+ *     <li>{@code loadTest.warmupIterations}: unmeasured runs per configuration (default 5)</li>
+ * </ul>
+ */
+public final class ColdStartBenchmark {
+    private ColdStartBenchmark() {
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args unused; options are read from system properties
+     * @throws Exception if the local server cannot be started or a provider fails to initialize
+     */
+    public static void main(String[] args) throws Exception {
+        int[] flagCounts = Arrays.stream(System.getProperty("loadTest.flagCounts", "10,1000,10000").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        int targetsPerFlag = Integer.getInteger("loadTest.targetsPerFlag", 20);
+        Duration delay = Duration.ofMillis(Integer.getInteger("loadTest.responseDelayMillis", 0));
+        int iterations = Integer.getInteger("loadTest.iterations", 20);
+        int warmupIterations = Integer.getInteger("loadTest.warmupIterations", 5);
+
+        System.out.printf("%-10s %8s %12s %10s %10s %10s %10s%n",
+            "source", "flags", "payload KB", "min ms", "p50 ms", "p90 ms", "max ms");
+        for (int flagCount : flagCounts) {
+            String payload = LocalStreamingServer.flagsPayload(flagCount, targetsPerFlag);
+            try (LocalStreamingServer server = new LocalStreamingServer(payload, delay)) {
+                for (boolean streaming : new boolean[]{true, false}) {
+                    for (int i = 0; i < warmupIterations; i++) {
+                        timeToReady(server, streaming);
+                    }
+                    long[] samples = new long[iterations];
+                    for (int i = 0; i < iterations; i++) {
+                        samples[i] = timeToReady(server, streaming);
+                    }
+                    Arrays.sort(samples);
+                    System.out.printf("%-10s %8d %12d %10.1f %10.1f %10.1f %10.1f%n",
+                        streaming ? "streaming" : "polling", flagCount, payload.length() / 1024,
+                        samples[0] / 1e6, samples[iterations / 2] / 1e6, samples[iterations * 9 / 10] / 1e6,
+                        samples[iterations - 1] / 1e6);
+                }
+            }
+        }
+    }
+
+    private static long timeToReady(LocalStreamingServer server, boolean streaming) throws Exception {
+        long start = System.nanoTime();
+        Provider provider = new Provider("cold-start", server.configBuilder(streaming).startWait(Duration.ZERO).build());
+        provider.initialize(new ImmutableContext());
+        long elapsed = System.nanoTime() - start;
+        if (provider.getState() != ProviderState.READY) {
+            throw new IllegalStateException("Provider did not become READY: " + provider.getState());
+        }
+        provider.shutdown();
+        return elapsed;
+    }
+}
@@ -0,0 +1,107 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.LDValue;
+import dev.openfeature.sdk.ImmutableStructure;
+import dev.openfeature.sdk.Value;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Measures the time and allocation of converting values with {@link ValueConverter} and {@link LDValueConverter}.
+ * <p>
+ * Each shape is converted in both directions on a single thread. Options are read from system properties, which
+ * {@code ./gradlew converterBenchmark} passes through from project properties:
+ * <ul>
+ *     <li>{@code loadTest.iterations}: measured conversions per shape (default 200000)</li>
+ *     <li>{@code loadTest.warmupIterations}: unmeasured conversions per shape (default 50000)</li>
+ * </ul>
+ */
+public final class ConverterBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Written so that the conversions cannot be optimized away.
+    private static volatile Object sink;
+
+    private ConverterBenchmark() {
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args unused; options are read from system properties
+     */
+    public static void main(String[] args) {
+        int iterations = Integer.getInteger("loadTest.iterations", 200_000);
+        int warmupIterations = Integer.getInteger("loadTest.warmupIterations", 50_000);
+
+        Map<String, Value> shapes = new LinkedHashMap<>();
+        shapes.put("scalar", new Value("a string attribute"));
+        shapes.put("flat-10", flat(10));
+        shapes.put("list-1000", list(1000));
+        shapes.put("nested-8", nested(8));
+
+        ValueConverter valueConverter = new ValueConverter(LDLogger.none());
+        LDValueConverter ldValueConverter = new LDValueConverter(LDLogger.none());
+
+        System.out.printf("%-12s %-10s %12s %12s%n", "shape", "direction", "ns/op", "bytes/op");
+        for (Map.Entry<String, Value> shape : shapes.entrySet()) {
+            Value value = shape.getValue();
+            LDValue ldValue = valueConverter.toLdValue(value);
+            measure(shape.getKey(), "to LD", () -> valueConverter.toLdValue(value), iterations, warmupIterations);
+            measure(shape.getKey(), "from LD", () -> ldValueConverter.toValue(ldValue), iterations,
+                warmupIterations);
+        }
+    }
+
+    private static void measure(String shape, String direction, Supplier<Object> conversion, int iterations,
+                                int warmupIterations) {
+        for (int i = 0; i < warmupIterations; i++) {
+            sink = conversion.get();
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = conversion.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%-12s %-10s %12.1f %12d%n", shape, direction, (double) elapsed / iterations,
+            allocated / iterations);
+    }
+
+    private static Value flat(int size) {
+        Map<String, Value> attributes = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            attributes.put("attribute-" + i, i % 2 == 0 ? new Value("value-" + i) : new Value(i));
+        }
+        return new Value(new ImmutableStructure(attributes));
+    }
+
+    private static Value list(int size) {
+        List<Value> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new Value("item-" + i));
+        }
+        return new Value(items);
+    }
+
+    private static Value nested(int depth) {
+        Value value = flat(3);
+        for (int i = 0; i < depth - 1; i++) {
+            Map<String, Value> attributes = new HashMap<>();
+            attributes.put("child", value);
+            attributes.put("level", new Value(i));
+            value = new Value(new ImmutableStructure(attributes));
+        }
+        return value;
+    }
+}
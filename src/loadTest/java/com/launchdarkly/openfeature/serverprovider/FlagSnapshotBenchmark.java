@@ -0,0 +1,113 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.LDConfig;
+import dev.openfeature.sdk.ImmutableContext;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compares evaluating some flags for a context from a {@link FlagSnapshot} with evaluating them one at a time.
+ * <p>
+ * A snapshot, like evaluation inside {@link Provider#withoutEvents()}, evaluates every flag for the context and
+ * reads the requested flags from the result, so it pays off only when enough of the flags are evaluated. For each
+ * flag count and number of flags evaluated per context, this reports the cost per context of evaluating the flags
+ * directly, from a snapshot, and inside an event-free scope. Options are read from system properties, which
+ * {@code ./gradlew flagSnapshotBenchmark} passes through from project properties:
+ * <ul>
+ *     <li>{@code loadTest.flagCounts}: comma separated flag counts (default 100,1000,10000)</li>
+ *     <li>{@code loadTest.flagsPerContext}: comma separated numbers of flags evaluated per context
+ *     (default 1,10,100)</li>
+ *     <li>{@code loadTest.iterations}: measured contexts per configuration (default 2000)</li>
+ *     <li>{@code loadTest.warmupIterations}: unmeasured contexts per configuration (default 500)</li>
+ * </ul>
+ */
+public final class FlagSnapshotBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Written so that the evaluations cannot be optimized away.
+    private static volatile Object sink;
+
+    private FlagSnapshotBenchmark() {
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args unused; options are read from system properties
+     * @throws Exception if a provider fails to initialize
+     */
+    public static void main(String[] args) throws Exception {
+        int[] flagCounts = intList(System.getProperty("loadTest.flagCounts", "100,1000,10000"));
+        int[] flagsPerContext = intList(System.getProperty("loadTest.flagsPerContext", "1,10,100"));
+        int iterations = Integer.getInteger("loadTest.iterations", 2000);
+        int warmupIterations = Integer.getInteger("loadTest.warmupIterations", 500);
+
+        List<ImmutableContext> contexts = LoadTestFlags.contexts(iterations + warmupIterations, 42);
+        System.out.printf("%-14s %8s %10s %14s %12s%n", "method", "flags", "evaluated", "ns/context",
+            "bytes/context");
+        for (int flagCount : flagCounts) {
+            LoadTestFlags flags = new LoadTestFlags(flagCount, 10);
+            LDConfig config = new LDConfig.Builder()
+                .dataSource(flags.dataSource())
+                .events(Components.noEvents())
+                .diagnosticOptOut(true)
+                .build();
+            Provider provider = new Provider("flag-snapshot-benchmark", config);
+            provider.initialize(new ImmutableContext());
+            List<String> keys = flags.keys(LoadTestFlags.Type.BOOLEAN);
+
+            for (int evaluated : flagsPerContext) {
+                List<String> evaluatedKeys = keys.subList(0, Math.min(evaluated, keys.size()));
+                measure("direct", flagCount, evaluatedKeys, contexts, iterations, warmupIterations,
+                    context -> {
+                        for (String key : evaluatedKeys) {
+                            sink = provider.getBooleanEvaluation(key, false, context);
+                        }
+                    });
+                measure("snapshot", flagCount, evaluatedKeys, contexts, iterations, warmupIterations,
+                    context -> {
+                        FlagSnapshot snapshot = provider.snapshot(context);
+                        for (String key : evaluatedKeys) {
+                            sink = snapshot.getBooleanEvaluation(key, false);
+                        }
+                    });
+                measure("without events", flagCount, evaluatedKeys, contexts, iterations, warmupIterations,
+                    context -> {
+                        try (EventFreeScope ignored = provider.withoutEvents()) {
+                            for (String key : evaluatedKeys) {
+                                sink = provider.getBooleanEvaluation(key, false, context);
+                            }
+                        }
+                    });
+            }
+            provider.shutdown();
+        }
+    }
+
+    private static void measure(String method, int flagCount, List<String> keys, List<ImmutableContext> contexts,
+                                int iterations, int warmupIterations, Consumer<ImmutableContext> evaluation) {
+        // Each context is evaluated once, as an event-free scope reuses the flag state of the last context.
+        for (int i = 0; i < warmupIterations; i++) {
+            evaluation.accept(contexts.get(iterations + i));
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            evaluation.accept(contexts.get(i));
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%-14s %8d %10d %14.0f %12d%n", method, flagCount, keys.size(),
+            (double) elapsed / iterations, allocated / iterations);
+    }
+
+    private static int[] intList(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
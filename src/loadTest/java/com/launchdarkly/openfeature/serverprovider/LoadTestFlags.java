@@ -0,0 +1,136 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.ContextKind;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.ObjectBuilder;
+import com.launchdarkly.sdk.server.integrations.TestData;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a set of flags, with a mix of targeting, for load and performance harnesses.
+ * <p>
+ * Flags are spread evenly across the five evaluation types. A third of the flags target individual context keys,
+ * a third have attribute rules, and the rest only have a fallthrough variation.
+ */
+final class LoadTestFlags {
+    enum Type {
+        BOOLEAN, STRING, INTEGER, DOUBLE, OBJECT
+    }
+
+    static final String[] COUNTRIES = {"us", "gb", "de", "fr", "jp", "br", "in", "au"};
+    static final String[] PLANS = {"free", "starter", "team", "enterprise"};
+
+    private final TestData testData = TestData.dataSource();
+    private final Map<Type, List<String>> keysByType = new HashMap<>();
+    private final int targetsPerFlag;
+
+    LoadTestFlags(int flagCount, int targetsPerFlag) {
+        this.targetsPerFlag = targetsPerFlag;
+        for (Type type : Type.values()) {
+            keysByType.put(type, new ArrayList<>());
+        }
+        for (int i = 0; i < flagCount; i++) {
+            Type type = Type.values()[i % Type.values().length];
+            String key = type.name().toLowerCase() + "-flag-" + i;
+            keysByType.get(type).add(key);
+            testData.update(flag(key, type, i, 0));
+        }
+    }
+
+    TestData dataSource() {
+        return testData;
+    }
+
+    List<String> keys(Type type) {
+        return keysByType.get(type);
+    }
+
+    /**
+     * Replace a flag with a new version, changing its fallthrough variation.
+     */
+    void churn(Random random) {
+        Type type = Type.values()[random.nextInt(Type.values().length)];
+        List<String> keys = keysByType.get(type);
+        int index = random.nextInt(keys.size());
+        // The flag's seed is its position in the generation order, so that churn keeps its kind of targeting.
+        int seed = index * Type.values().length + type.ordinal();
+        testData.update(flag(keys.get(index), type, seed, random.nextInt(3)));
+    }
+
+    private TestData.FlagBuilder flag(String key, Type type, int seed, int fallthrough) {
+        TestData.FlagBuilder flag = testData.flag(key).variations(variations(type)).fallthroughVariation(fallthrough);
+        switch (seed % 3) {
+            case 0:
+                for (int target = 0; target < targetsPerFlag; target++) {
+                    flag.variationForKey(ContextKind.DEFAULT, "user-" + (seed + target * 97),
+                        (fallthrough + 1) % 3);
+                }
+                break;
+            case 1:
+                flag.ifMatch("country", LDValue.of(COUNTRIES[seed % COUNTRIES.length]), LDValue.of("zz"))
+                    .andMatch("plan", LDValue.of("enterprise"))
+                    .thenReturn((fallthrough + 1) % 3);
+                flag.ifMatch("plan", LDValue.of(PLANS[seed % PLANS.length]))
+                    .thenReturn((fallthrough + 2) % 3);
+                flag.ifNotMatch("beta", LDValue.of(true))
+                    .andMatch("country", LDValue.of("jp"))
+                    .thenReturn(fallthrough);
+                break;
+            default:
+                break;
+        }
+        return flag;
+    }
+
+    private static LDValue[] variations(Type type) {
+        LDValue[] variations = new LDValue[3];
+        for (int i = 0; i < variations.length; i++) {
+            switch (type) {
+                case BOOLEAN:
+                    variations[i] = LDValue.of(i % 2 == 0);
+                    break;
+                case STRING:
+                    variations[i] = LDValue.of("variation-" + i);
+                    break;
+                case INTEGER:
+                    variations[i] = LDValue.of(i * 10);
+                    break;
+                case DOUBLE:
+                    variations[i] = LDValue.of(i * 1.5);
+                    break;
+                default:
+                    ObjectBuilder object = LDValue.buildObject()
+                        .put("name", "variation-" + i)
+                        .put("limit", i * 100)
+                        .put("tags", LDValue.buildArray().add("a").add("b").build());
+                    variations[i] = object.build();
+                    break;
+            }
+        }
+        return variations;
+    }
+
+    /**
+     * Build a pool of user contexts with the attributes the generated rules refer to.
+     */
+    static List<ImmutableContext> contexts(int count, long seed) {
+        Random random = new Random(seed);
+        List<ImmutableContext> contexts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Value> attributes = new HashMap<>();
+            attributes.put("country", new Value(COUNTRIES[random.nextInt(COUNTRIES.length)]));
+            attributes.put("plan", new Value(PLANS[random.nextInt(PLANS.length)]));
+            attributes.put("beta", new Value(random.nextBoolean()));
+            attributes.put("email", new Value("user-" + i + "@example.com"));
+            contexts.add(new ImmutableContext("user-" + i, attributes));
+        }
+        return contexts;
+    }
+}
@@ -0,0 +1,87 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.integrations.TestData;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderState;
+import dev.openfeature.sdk.Value;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A smoke test for the provider built as a native executable.
+ * <p>
+ * Initializes a provider with a {@link TestData} source, evaluates each flag type, and checks the results. It then
+ * prints the time from process start to the first evaluation, and the resident set size, so that the same program
+ * can be compared when run as a native executable and on the JVM. Exits with a non-zero status on failure.
+ */
+public final class NativeSmokeTest {
+    private NativeSmokeTest() {
+    }
+
+    /**
+     * Run the smoke test.
+     *
+     * @param args unused
+     * @throws Exception if the provider cannot be initialized
+     */
+    public static void main(String[] args) throws Exception {
+        TestData testData = TestData.dataSource();
+        testData.update(testData.flag("bool-flag").booleanFlag()
+            .ifMatch("country", LDValue.of("gb")).thenReturn(true)
+            .fallthroughVariation(false));
+        testData.update(testData.flag("string-flag").variations(LDValue.of("a"), LDValue.of("b"))
+            .fallthroughVariation(1));
+        testData.update(testData.flag("int-flag").variations(LDValue.of(1), LDValue.of(2)).fallthroughVariation(1));
+        testData.update(testData.flag("double-flag").variations(LDValue.of(1.5)).fallthroughVariation(0));
+        testData.update(testData.flag("object-flag")
+            .variations(LDValue.buildObject().put("limit", 10).build()).fallthroughVariation(0));
+
+        Provider provider = new Provider("native-smoke", new LDConfig.Builder()
+            .dataSource(testData)
+            .events(Components.noEvents())
+            .diagnosticOptOut(true)
+            .build());
+        provider.initialize(new ImmutableContext());
+
+        ImmutableContext context = new ImmutableContext("user-key", Map.of("country", new Value("gb")));
+        boolean passed = provider.getState() == ProviderState.READY
+            && provider.getBooleanEvaluation("bool-flag", false, context).getValue()
+            && "b".equals(provider.getStringEvaluation("string-flag", "", context).getValue())
+            && provider.getIntegerEvaluation("int-flag", 0, context).getValue() == 2
+            && provider.getDoubleEvaluation("double-flag", 0.0, context).getValue() == 1.5
+            && provider.getObjectEvaluation("object-flag", new Value(), context).getValue()
+                .asStructure().getValue("limit").asInteger() == 10;
+        Instant firstEvaluation = Instant.now();
+        provider.shutdown();
+
+        String runtime = System.getProperty("org.graalvm.nativeimage.imagecode") != null ? "native" : "jvm";
+        Instant processStart = ProcessHandle.current().info().startInstant().orElse(null);
+        System.out.printf("runtime=%s passed=%b startToFirstEvaluationMs=%s rssKb=%s%n", runtime, passed,
+            processStart != null ? Duration.between(processStart, firstEvaluation).toMillis() : "unknown",
+            residentSetKb());
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static String residentSetKb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return line.substring("VmRSS:".length()).replace("kB", "").trim();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not available on this platform.
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,178 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.LDConfig;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.Value;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A multi-threaded load test of {@link Provider}.
+ * <p>
+ * Evaluates a generated set of flags from many threads while flags are updated in the background, then reports
+ * throughput and latency percentiles for each evaluation type. Run it with {@code ./gradlew loadTest}; the options
+ * below are read from system properties, which the Gradle task passes through from project properties of the same
+ * name.
+ * <ul>
+ *     <li>{@code loadTest.threads}: number of load generating threads (default 16)</li>
+ *     <li>{@code loadTest.virtualThreads}: use virtual threads, which requires Java 21 (default false)</li>
+ *     <li>{@code loadTest.durationSeconds}: length of the measured run (default 30)</li>
+ *     <li>{@code loadTest.warmupSeconds}: length of the unmeasured warm up (default 10)</li>
+ *     <li>{@code loadTest.flags}: number of flags (default 5000)</li>
+ *     <li>{@code loadTest.contexts}: number of distinct contexts (default 10000)</li>
+ *     <li>{@code loadTest.churnPerSecond}: flag updates per second during the run (default 20)</li>
+ * </ul>
+ */
+public final class ProviderLoadTest {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private ProviderLoadTest() {
+    }
+
+    /**
+     * Run the load test.
+     *
+     * @param args unused; options are read from system properties
+     * @throws Exception if the provider cannot be initialized or a load generating thread fails
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = Integer.getInteger("loadTest.threads", 16);
+        boolean virtualThreads = Boolean.parseBoolean(System.getProperty("loadTest.virtualThreads", "false"));
+        int durationSeconds = Integer.getInteger("loadTest.durationSeconds", 30);
+        int warmupSeconds = Integer.getInteger("loadTest.warmupSeconds", 10);
+        int flagCount = Integer.getInteger("loadTest.flags", 5000);
+        int contextCount = Integer.getInteger("loadTest.contexts", 10000);
+        int churnPerSecond = Integer.getInteger("loadTest.churnPerSecond", 20);
+
+        System.out.printf("threads=%d virtualThreads=%b duration=%ds warmup=%ds flags=%d contexts=%d churn=%d/s%n",
+            threads, virtualThreads, durationSeconds, warmupSeconds, flagCount, contextCount, churnPerSecond);
+
+        LoadTestFlags flags = new LoadTestFlags(flagCount, 10);
+        List<ImmutableContext> contexts = LoadTestFlags.contexts(contextCount, 42);
+        LDConfig config = new LDConfig.Builder()
+            .dataSource(flags.dataSource())
+            .events(Components.noEvents())
+            .diagnosticOptOut(true)
+            .build();
+        Provider provider = new Provider("load-test", config);
+        provider.initialize(new ImmutableContext());
+
+        ScheduledExecutorService churn = Executors.newSingleThreadScheduledExecutor(
+            new DaemonThreadFactory("LoadTest-Churn"));
+        if (churnPerSecond > 0) {
+            Random churnRandom = new Random(7);
+            churn.scheduleAtFixedRate(() -> flags.churn(churnRandom), 0, 1_000_000L / churnPerSecond,
+                TimeUnit.MICROSECONDS);
+        }
+
+        long measureStart = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long measureEnd = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = virtualThreads ? virtualThreadExecutor()
+            : Executors.newFixedThreadPool(threads, new DaemonThreadFactory("LoadTest-Worker"));
+        List<Future<Map<LoadTestFlags.Type, LatencyHistogram>>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(workers.submit(() -> {
+                start.await();
+                return generateLoad(provider, flags, contexts, measureStart, measureEnd);
+            }));
+        }
+        start.countDown();
+
+        Map<LoadTestFlags.Type, LatencyHistogram> merged = new EnumMap<>(LoadTestFlags.Type.class);
+        for (Future<Map<LoadTestFlags.Type, LatencyHistogram>> result : results) {
+            result.get().forEach((type, histogram) ->
+                merged.computeIfAbsent(type, ignored -> new LatencyHistogram()).merge(histogram));
+        }
+        workers.shutdown();
+        churn.shutdown();
+        provider.shutdown();
+
+        report(merged, durationSeconds);
+    }
+
+    private static Map<LoadTestFlags.Type, LatencyHistogram> generateLoad(
+        Provider provider, LoadTestFlags flags, List<ImmutableContext> contexts, long measureStart, long measureEnd) {
+        Map<LoadTestFlags.Type, LatencyHistogram> histograms = new EnumMap<>(LoadTestFlags.Type.class);
+        for (LoadTestFlags.Type type : LoadTestFlags.Type.values()) {
+            histograms.put(type, new LatencyHistogram());
+        }
+        LoadTestFlags.Type[] types = LoadTestFlags.Type.values();
+        Value defaultObject = new Value();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long now = System.nanoTime();
+        while (now < measureEnd) {
+            LoadTestFlags.Type type = types[random.nextInt(types.length)];
+            List<String> keys = flags.keys(type);
+            String key = keys.get(random.nextInt(keys.size()));
+            ImmutableContext context = contexts.get(random.nextInt(contexts.size()));
+
+            long begin = System.nanoTime();
+            switch (type) {
+                case BOOLEAN:
+                    provider.getBooleanEvaluation(key, false, context);
+                    break;
+                case STRING:
+                    provider.getStringEvaluation(key, "", context);
+                    break;
+                case INTEGER:
+                    provider.getIntegerEvaluation(key, 0, context);
+                    break;
+                case DOUBLE:
+                    provider.getDoubleEvaluation(key, 0.0, context);
+                    break;
+                default:
+                    provider.getObjectEvaluation(key, defaultObject, context);
+                    break;
+            }
+            now = System.nanoTime();
+            if (begin >= measureStart) {
+                histograms.get(type).record(now - begin);
+            }
+        }
+        return histograms;
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        // Looked up reflectively so that the harness still compiles for the library's Java 11 target.
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+        }
+    }
+
+    private static void report(Map<LoadTestFlags.Type, LatencyHistogram> histograms, int durationSeconds) {
+        System.out.printf("%-8s %12s %12s %10s %10s %10s %10s %10s%n",
+            "type", "evaluations", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+        LatencyHistogram all = new LatencyHistogram();
+        for (Map.Entry<LoadTestFlags.Type, LatencyHistogram> entry : histograms.entrySet()) {
+            printRow(entry.getKey().name().toLowerCase(), entry.getValue(), durationSeconds);
+            all.merge(entry.getValue());
+        }
+        printRow("all", all, durationSeconds);
+    }
+
+    private static void printRow(String label, LatencyHistogram histogram, int durationSeconds) {
+        StringBuilder row = new StringBuilder(String.format("%-8s %12d %12.0f", label, histogram.count(),
+            histogram.count() / (double) durationSeconds));
+        for (double percentile : PERCENTILES) {
+            row.append(String.format(" %10.2f", histogram.percentile(percentile) / 1000.0));
+        }
+        row.append(String.format(" %10.2f", histogram.max() / 1000.0));
+        System.out.println(row);
+    }
+}
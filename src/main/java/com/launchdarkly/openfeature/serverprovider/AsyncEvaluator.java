@@ -0,0 +1,97 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs evaluations on an executor, so that callers which cannot block are not blocked by data store I/O.
+ */
+class AsyncEvaluator {
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final CompletableFuture<Void> initialized;
+    private final boolean deferUntilInitialized;
+    private final Duration timeout;
+
+    /**
+     * @param options     options containing the executor, deferral, and timeout settings
+     * @param initialized a future which completes when the provider has finished initializing
+     */
+    AsyncEvaluator(ProviderOptions options, CompletableFuture<Void> initialized) {
+        if (options.asyncExecutor != null) {
+            this.executor = options.asyncExecutor;
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory("LaunchDarkly-OpenFeature-Async"));
+            this.executor = ownedExecutor;
+        }
+        this.initialized = initialized;
+        this.deferUntilInitialized = options.deferAsyncUntilReady;
+        this.timeout = options.asyncTimeout;
+    }
+
+    /**
+     * Run an evaluation asynchronously.
+     * <p>
+     * If the returned future is cancelled, or times out, before the evaluation has started, then the evaluation
+     * will not be performed.
+     *
+     * @param evaluation the evaluation to run
+     * @param <T>        the type of the evaluation result
+     * @return a future which completes with the result of the evaluation
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> evaluation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            // Cancelled, or past the deadline, before we got a chance to run.
+            if (result.isDone()) return;
+            try {
+                result.complete(evaluation.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+
+        if (deferUntilInitialized && !initialized.isDone()) {
+            initialized.whenComplete((ignored, error) -> execute(task, result));
+        } else {
+            execute(task, result);
+        }
+
+        if (timeout != null) {
+            result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    private void execute(Runnable task, CompletableFuture<?> result) {
+        if (result.isDone()) return;
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * @return the executor which runs evaluations
+     */
+    Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Stop the executor if it was created by the provider.
+     */
+    void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+}
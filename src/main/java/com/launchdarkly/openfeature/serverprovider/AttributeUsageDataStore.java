@@ -0,0 +1,76 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.server.interfaces.DataStoreStatusProvider;
+import com.launchdarkly.sdk.server.subsystems.DataStore;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.DataKind;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.FullDataSet;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.ItemDescriptor;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.KeyedItems;
+
+import java.io.IOException;
+
+/**
+ * A {@link DataStore} decorator which keeps an {@link AttributeUsageIndex} current with the flag and segment data
+ * written to the store. Reads are passed straight through.
+ * <p>
+ * The index is widened to cover new data before it is written, and narrowed once the write has finished, so an
+ * evaluation which reads the new data never has attributes pruned that the new data refers to.
+ */
+class AttributeUsageDataStore implements DataStore {
+    private final DataStore delegate;
+    private final AttributeUsageIndex index;
+    private final LDLogger logger;
+
+    AttributeUsageDataStore(DataStore delegate, AttributeUsageIndex index, LDLogger logger) {
+        this.delegate = delegate;
+        this.index = index;
+        this.logger = logger;
+    }
+
+    @Override
+    public void init(FullDataSet<ItemDescriptor> allData) {
+        index.widen(allData, logger);
+        delegate.init(allData);
+        index.init(allData, logger);
+    }
+
+    @Override
+    public ItemDescriptor get(DataKind kind, String key) {
+        return delegate.get(kind, key);
+    }
+
+    @Override
+    public KeyedItems<ItemDescriptor> getAll(DataKind kind) {
+        return delegate.getAll(kind);
+    }
+
+    @Override
+    public boolean upsert(DataKind kind, String key, ItemDescriptor item) {
+        index.widen(kind, key, item, logger);
+        boolean updated = delegate.upsert(kind, key, item);
+        // If the store kept a newer version, index that one instead.
+        index.update(kind, key, updated ? item : delegate.get(kind, key), logger);
+        return updated;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return delegate.isInitialized();
+    }
+
+    @Override
+    public boolean isStatusMonitoringEnabled() {
+        return delegate.isStatusMonitoringEnabled();
+    }
+
+    @Override
+    public DataStoreStatusProvider.CacheStats getCacheStats() {
+        return delegate.getCacheStats();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.subsystems.ClientContext;
+import com.launchdarkly.sdk.server.subsystems.ComponentConfigurer;
+import com.launchdarkly.sdk.server.subsystems.DataStore;
+
+/**
+ * Wraps the data store built by another configurer in an {@link AttributeUsageDataStore}.
+ */
+class AttributeUsageDataStoreConfigurer implements ComponentConfigurer<DataStore> {
+    private final ComponentConfigurer<DataStore> inner;
+    private final AttributeUsageIndex index;
+
+    AttributeUsageDataStoreConfigurer(ComponentConfigurer<DataStore> inner, AttributeUsageIndex index) {
+        this.inner = inner;
+        this.index = index;
+    }
+
+    @Override
+    public DataStore build(ClientContext clientContext) {
+        return new AttributeUsageDataStore(inner.build(clientContext), index, clientContext.getBaseLogger());
+    }
+}
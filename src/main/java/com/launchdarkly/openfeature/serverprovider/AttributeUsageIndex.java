@@ -0,0 +1,198 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.DataKind;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.FullDataSet;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.ItemDescriptor;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.KeyedItems;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the context attributes which flag and segment rules refer to, for each context kind.
+ * <p>
+ * The index is maintained by an {@link AttributeUsageDataStore} from the items written to the client's data store.
+ * Items are read through their serialized form, because the SDK's flag and segment model classes are internal.
+ * Attributes referenced by clauses, by rollout bucketing, and by segment rule bucketing are indexed. Keys, kinds,
+ * names and the anonymous flag are always kept by the converter, so they are not indexed.
+ * <p>
+ * Until the store has been initialized the index is not populated, and nothing should be pruned.
+ */
+class AttributeUsageIndex {
+    private static final String FEATURES = "features";
+    private static final String SEGMENTS = "segments";
+    private static final String DEFAULT_KIND = "user";
+
+    // Guarded by this. Item kind, then item key, then the attributes the item references by context kind.
+    private final Map<String, Map<String, Map<String, Set<String>>>> itemReferences = new HashMap<>();
+
+    // Rebuilt after every change, so that reads do not need a lock. Null until the store is initialized.
+    private volatile Map<String, Set<String>> attributesByKind;
+
+    // Guarded by this.
+    private boolean initialized;
+
+    /**
+     * Get the attributes referenced for a context kind.
+     *
+     * @param contextKind the context kind
+     * @return the referenced attributes, or null if the index is not populated, in which case every attribute
+     * must be kept
+     */
+    Set<String> attributesFor(String contextKind) {
+        Map<String, Set<String>> current = attributesByKind;
+        if (current == null) {
+            return null;
+        }
+        return current.getOrDefault(contextKind, Collections.emptySet());
+    }
+
+    synchronized void init(FullDataSet<ItemDescriptor> allData, LDLogger logger) {
+        itemReferences.clear();
+        for (Map.Entry<DataKind, KeyedItems<ItemDescriptor>> kindEntry : allData.getData()) {
+            for (Map.Entry<String, ItemDescriptor> item : kindEntry.getValue().getItems()) {
+                index(kindEntry.getKey(), item.getKey(), item.getValue(), false, logger);
+            }
+        }
+        initialized = true;
+        rebuild();
+    }
+
+    synchronized void update(DataKind kind, String key, ItemDescriptor item, LDLogger logger) {
+        index(kind, key, item, false, logger);
+        if (initialized) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Add the attributes referenced by a full data set, keeping those referenced by the current items. Call this
+     * before the data set is written to the store, and {@link #init} after, so that the index covers both the old
+     * and new data while evaluations may see either.
+     */
+    synchronized void widen(FullDataSet<ItemDescriptor> allData, LDLogger logger) {
+        for (Map.Entry<DataKind, KeyedItems<ItemDescriptor>> kindEntry : allData.getData()) {
+            for (Map.Entry<String, ItemDescriptor> item : kindEntry.getValue().getItems()) {
+                index(kindEntry.getKey(), item.getKey(), item.getValue(), true, logger);
+            }
+        }
+        if (initialized) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Add the attributes referenced by an item, keeping those referenced by its current version. Call this before
+     * the item is written to the store, and {@link #update} after.
+     */
+    synchronized void widen(DataKind kind, String key, ItemDescriptor item, LDLogger logger) {
+        index(kind, key, item, true, logger);
+        if (initialized) {
+            rebuild();
+        }
+    }
+
+    private void index(DataKind kind, String key, ItemDescriptor item, boolean widen, LDLogger logger) {
+        String kindName = kind.getName();
+        if (!FEATURES.equals(kindName) && !SEGMENTS.equals(kindName)) {
+            return;
+        }
+        Map<String, Map<String, Set<String>>> items = itemReferences.computeIfAbsent(kindName, k -> new HashMap<>());
+        if (item == null || item.getItem() == null) {
+            if (!widen) {
+                items.remove(key);
+            }
+            return;
+        }
+        Map<String, Set<String>> references = new HashMap<>();
+        try {
+            LDValue parsed = LDValue.parse(kind.serialize(item));
+            for (LDValue rule : parsed.get("rules").values()) {
+                for (LDValue clause : rule.get("clauses").values()) {
+                    addClause(references, clause);
+                }
+                if (FEATURES.equals(kindName)) {
+                    addRollout(references, rule.get("rollout"));
+                } else {
+                    addReference(references, rule.get("rolloutContextKind"), rule.get("bucketBy"));
+                }
+            }
+            if (FEATURES.equals(kindName)) {
+                addRollout(references, parsed.get("fallthrough").get("rollout"));
+            }
+        } catch (RuntimeException e) {
+            // The item could not be read, so keep every attribute rather than risk changing evaluation results.
+            logger.warn("Could not index the attributes used by {} {}, so attribute pruning is disabled: {}",
+                kindName, key, e.toString());
+            references = null;
+        }
+        if (widen && references != null && items.containsKey(key)) {
+            Map<String, Set<String>> previous = items.get(key);
+            if (previous == null) {
+                // The current version could not be read, so pruning stays disabled until it is replaced.
+                return;
+            }
+            Map<String, Set<String>> merged = references;
+            previous.forEach((contextKind, names) ->
+                merged.computeIfAbsent(contextKind, k -> new HashSet<>()).addAll(names));
+        }
+        items.put(key, references);
+    }
+
+    private static void addClause(Map<String, Set<String>> references, LDValue clause) {
+        if ("segmentMatch".equals(clause.get("op").stringValue())) {
+            // The values are segment keys, and the segment's own rules are indexed separately.
+            return;
+        }
+        addReference(references, clause.get("contextKind"), clause.get("attribute"));
+    }
+
+    private static void addRollout(Map<String, Set<String>> references, LDValue rollout) {
+        if (rollout.isNull()) {
+            return;
+        }
+        addReference(references, rollout.get("contextKind"), rollout.get("bucketBy"));
+    }
+
+    /**
+     * Index a reference to an attribute. With a context kind the attribute is an attribute reference, which may
+     * be a path such as {@code /address/city}; without one it is an old-style plain attribute name for a user.
+     */
+    private static void addReference(Map<String, Set<String>> references, LDValue contextKind, LDValue attribute) {
+        if (!attribute.isString()) {
+            return;
+        }
+        String name = attribute.stringValue();
+        if (contextKind.isString() && name.startsWith("/")) {
+            int end = name.indexOf('/', 1);
+            name = (end < 0 ? name.substring(1) : name.substring(1, end)).replace("~1", "/").replace("~0", "~");
+        }
+        if (name.isEmpty()) {
+            return;
+        }
+        String kind = contextKind.isString() ? contextKind.stringValue() : DEFAULT_KIND;
+        references.computeIfAbsent(kind, k -> new HashSet<>()).add(name);
+    }
+
+    private void rebuild() {
+        Map<String, Set<String>> merged = new HashMap<>();
+        for (Map<String, Map<String, Set<String>>> items : itemReferences.values()) {
+            for (Map<String, Set<String>> references : items.values()) {
+                if (references == null) {
+                    // An item could not be read, so the index cannot be trusted.
+                    attributesByKind = null;
+                    return;
+                }
+                references.forEach((kind, names) -> merged.computeIfAbsent(kind, k -> new HashSet<>()).addAll(names));
+            }
+        }
+        Map<String, Set<String>> frozen = new HashMap<>();
+        merged.forEach((kind, names) -> frozen.put(kind, Collections.unmodifiableSet(names)));
+        attributesByKind = Collections.unmodifiableMap(frozen);
+    }
+}
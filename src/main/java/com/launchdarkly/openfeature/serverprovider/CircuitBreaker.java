@@ -0,0 +1,57 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A consecutive-failure circuit breaker.
+ * <p>
+ * The breaker opens after a number of consecutive failures. While open, requests are rejected until the open
+ * duration elapses, after which a single trial request is allowed. The breaker closes if the trial succeeds, and
+ * opens again if it fails.
+ */
+class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openNanos;
+    private final ProviderMetrics metrics;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInProgress = new AtomicBoolean();
+    private volatile long openUntilNanos;
+    private volatile boolean open;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, ProviderMetrics metrics) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return true if the request may proceed, false if it should be rejected
+     */
+    boolean allowRequest() {
+        if (!open) return true;
+        if (System.nanoTime() - openUntilNanos < 0) return false;
+        // Only one request is allowed through to test whether the protected path has recovered.
+        return trialInProgress.compareAndSet(false, true);
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+        open = false;
+        trialInProgress.set(false);
+    }
+
+    void recordFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (trialInProgress.get() || failures >= failureThreshold) {
+            openUntilNanos = System.nanoTime() + openNanos;
+            if (!open) {
+                open = true;
+                metrics.circuitBreakerOpened.increment();
+            }
+            trialInProgress.set(false);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.interfaces.DataStoreStatusProvider;
+import com.launchdarkly.sdk.server.subsystems.DataStore;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.DataKind;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.FullDataSet;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.ItemDescriptor;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.KeyedItems;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A read-through {@link DataStore} decorator which caches individual items, collapses concurrent reads of the
+ * same item into a single read of the underlying store, and refreshes frequently read items before they expire.
+ * <p>
+ * Writes made through the decorator are applied to the cache as well as the underlying store. Items are only
+ * replaced in the cache by items with a higher version, so a read which completes after a newer write cannot
+ * overwrite it. Each {@link #init} starts a new generation, and a read which started in an earlier generation is
+ * not cached, so it cannot reintroduce data which the full data set replaced.
+ */
+class CoalescingDataStore implements DataStore {
+    /**
+     * An item is refreshed in the background when it is read after this fraction of its cache time has elapsed.
+     */
+    private static final double REFRESH_AHEAD_FRACTION = 0.8;
+
+    private final DataStore delegate;
+    private final long cacheNanos;
+    private final long refreshAheadNanos;
+    private final ProviderMetrics metrics;
+    private final ExecutorService refresher;
+
+    private final ConcurrentHashMap<ItemKey, CachedItem> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ItemKey, CompletableFuture<ItemDescriptor>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    CoalescingDataStore(DataStore delegate, Duration cacheTime, ProviderMetrics metrics) {
+        this.delegate = delegate;
+        this.cacheNanos = cacheTime.toNanos();
+        this.refreshAheadNanos = (long) (cacheNanos * REFRESH_AHEAD_FRACTION);
+        this.metrics = metrics;
+        this.refresher = Executors.newSingleThreadExecutor(new DaemonThreadFactory("LaunchDarkly-OpenFeature-StoreRefresh"));
+    }
+
+    @Override
+    public void init(FullDataSet<ItemDescriptor> allData) {
+        delegate.init(allData);
+        // Reads already in progress may have the previous data, so they must neither be cached nor joined.
+        generation.incrementAndGet();
+        inFlight.clear();
+        cache.clear();
+    }
+
+    @Override
+    public ItemDescriptor get(DataKind kind, String key) {
+        ItemKey itemKey = new ItemKey(kind, key);
+        CachedItem cached = cache.get(itemKey);
+        long now = System.nanoTime();
+        if (cached != null && now - cached.loadedAt < cacheNanos) {
+            metrics.storeHits.increment();
+            if (now - cached.loadedAt >= refreshAheadNanos && cached.refreshing.compareAndSet(false, true)) {
+                metrics.storeRefreshes.increment();
+                try {
+                    refresher.execute(() -> load(itemKey));
+                } catch (RejectedExecutionException e) {
+                    // The store has been closed, so there is no background refresh; read through instead.
+                    return load(itemKey);
+                }
+            }
+            return cached.item;
+        }
+
+        metrics.storeMisses.increment();
+        return load(itemKey);
+    }
+
+    private ItemDescriptor load(ItemKey itemKey) {
+        CompletableFuture<ItemDescriptor> pending = new CompletableFuture<>();
+        CompletableFuture<ItemDescriptor> existing = inFlight.putIfAbsent(itemKey, pending);
+        if (existing != null) {
+            metrics.storeCoalescedReads.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        try {
+            long readGeneration = generation.get();
+            ItemDescriptor item = delegate.get(itemKey.kind, itemKey.key);
+            cacheIfNewer(itemKey, item, readGeneration);
+            pending.complete(item);
+            return item;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(itemKey, pending);
+        }
+    }
+
+    private void cacheIfNewer(ItemKey itemKey, ItemDescriptor item, long itemGeneration) {
+        CachedItem loaded = new CachedItem(item, System.nanoTime());
+        // The generation is checked inside compute, so that it cannot change between the check and the update.
+        cache.compute(itemKey, (key, current) -> {
+            if (generation.get() != itemGeneration) return current;
+            return current == null || loaded.version() >= current.version() ? loaded : current;
+        });
+    }
+
+    @Override
+    public KeyedItems<ItemDescriptor> getAll(DataKind kind) {
+        return delegate.getAll(kind);
+    }
+
+    @Override
+    public boolean upsert(DataKind kind, String key, ItemDescriptor item) {
+        boolean updated = delegate.upsert(kind, key, item);
+        if (updated) {
+            cacheIfNewer(new ItemKey(kind, key), item, generation.get());
+        } else {
+            // The store had a newer version which we may not have seen, so read it again next time.
+            cache.remove(new ItemKey(kind, key));
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return delegate.isInitialized();
+    }
+
+    @Override
+    public boolean isStatusMonitoringEnabled() {
+        return delegate.isStatusMonitoringEnabled();
+    }
+
+    @Override
+    public DataStoreStatusProvider.CacheStats getCacheStats() {
+        return delegate.getCacheStats();
+    }
+
+    @Override
+    public void close() throws IOException {
+        refresher.shutdown();
+        delegate.close();
+    }
+
+    private static final class ItemKey {
+        final DataKind kind;
+        final String key;
+
+        ItemKey(DataKind kind, String key) {
+            this.kind = kind;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof ItemKey)) return false;
+            ItemKey itemKey = (ItemKey) other;
+            return kind == itemKey.kind && key.equals(itemKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, key);
+        }
+    }
+
+    private static final class CachedItem {
+        final ItemDescriptor item;
+        final long loadedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        CachedItem(ItemDescriptor item, long loadedAt) {
+            this.item = item;
+            this.loadedAt = loadedAt;
+        }
+
+        int version() {
+            // A missing item is older than any stored version, including a deletion.
+            return item != null ? item.getVersion() : -1;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.subsystems.ClientContext;
+import com.launchdarkly.sdk.server.subsystems.ComponentConfigurer;
+import com.launchdarkly.sdk.server.subsystems.DataStore;
+
+import java.time.Duration;
+
+/**
+ * Wraps the data store built by another configurer in a {@link CoalescingDataStore}.
+ */
+class CoalescingDataStoreConfigurer implements ComponentConfigurer<DataStore> {
+    private final ComponentConfigurer<DataStore> inner;
+    private final Duration cacheTime;
+    private final ProviderMetrics metrics;
+
+    CoalescingDataStoreConfigurer(ComponentConfigurer<DataStore> inner, Duration cacheTime, ProviderMetrics metrics) {
+        this.inner = inner;
+        this.cacheTime = cacheTime;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public DataStore build(ClientContext clientContext) {
+        return new CoalescingDataStore(inner.build(clientContext), cacheTime, metrics);
+    }
+}
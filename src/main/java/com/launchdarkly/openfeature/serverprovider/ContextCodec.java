@@ -0,0 +1,481 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.ArrayBuilder;
+import com.launchdarkly.sdk.ContextBuilder;
+import com.launchdarkly.sdk.ContextKind;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.ObjectBuilder;
+import dev.openfeature.sdk.EvaluationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary encoding of evaluation contexts, for propagating them between services.
+ * <p>
+ * Lengths and integers are varints, and attribute names and context kinds are interned: common names are encoded as
+ * a single byte, and any other name is written out once per message and referred to by index afterwards. Decoding
+ * builds an {@link LDContext} directly, without an intermediate tree of OpenFeature values.
+ * {@link #decodeEvaluationContext(byte[])} wraps the result in an {@link EvaluationContext} which the provider
+ * evaluates without converting it again.
+ * <p>
+ * To carry a context in an HTTP header use {@link #toHeaderValue(LDContext)} and
+ * {@link #fromHeaderValue(String)}. To carry it in gRPC metadata, use the encoded bytes with a binary metadata key,
+ * for example {@code Metadata.Key.of(ContextCodec.GRPC_METADATA_KEY, Metadata.BINARY_BYTE_MARSHALLER)}.
+ */
+public final class ContextCodec {
+    /**
+     * A suggested HTTP header name for an encoded context.
+     */
+    public static final String HEADER_NAME = "X-LD-Context";
+
+    /**
+     * A suggested gRPC metadata key for an encoded context. gRPC requires binary metadata keys to end in "-bin".
+     */
+    public static final String GRPC_METADATA_KEY = "ld-context-bin";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int MAX_DEPTH = 32;
+
+    // Names which are encoded as a single byte. Entries may be added to the end, but never removed or reordered,
+    // because the index is part of the format.
+    private static final String[] WELL_KNOWN_NAMES = {
+        "user", "organization", "device", "application", "service", "request",
+        "email", "country", "region", "plan", "tier", "groups", "ip", "avatar",
+        "firstName", "lastName", "locale", "platform", "version", "id", "environment", "tenant"
+    };
+
+    private static final Map<String, Integer> WELL_KNOWN_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < WELL_KNOWN_NAMES.length; i++) {
+            WELL_KNOWN_INDEX.put(WELL_KNOWN_NAMES[i], i);
+        }
+    }
+
+    private static final int FLAG_ANONYMOUS = 1;
+    private static final int FLAG_NAME = 2;
+
+    private static final int TYPE_NULL = 0;
+    private static final int TYPE_FALSE = 1;
+    private static final int TYPE_TRUE = 2;
+    private static final int TYPE_INT = 3;
+    private static final int TYPE_DOUBLE = 4;
+    private static final int TYPE_STRING = 5;
+    private static final int TYPE_ARRAY = 6;
+    private static final int TYPE_OBJECT = 7;
+
+    private static final EvaluationContextConverter CONVERTER = new EvaluationContextConverter(LDLogger.none());
+
+    private ContextCodec() {
+    }
+
+    /**
+     * Encode an LDContext.
+     *
+     * @param context the context
+     * @return the encoded context
+     * @throws IllegalArgumentException if the context is not valid
+     */
+    public static byte[] encode(LDContext context) {
+        if (context == null || !context.isValid()) {
+            throw new IllegalArgumentException("Cannot encode an invalid context: "
+                + (context == null ? "null" : context.getError()));
+        }
+        Writer writer = new Writer();
+        writer.writeByte(FORMAT_VERSION);
+        int count = context.getIndividualContextCount();
+        writer.writeVarint(count);
+        for (int i = 0; i < count; i++) {
+            writeSingle(writer, context.getIndividualContext(i));
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Encode an OpenFeature evaluation context, using the same conversion the provider uses for evaluations.
+     *
+     * @param context the evaluation context
+     * @return the encoded context
+     * @throws IllegalArgumentException if the context does not convert to a valid LaunchDarkly context
+     */
+    public static byte[] encode(EvaluationContext context) {
+        return encode(CONVERTER.toLdContext(context));
+    }
+
+    /**
+     * Decode a context.
+     *
+     * @param encoded the encoded context
+     * @return the context
+     * @throws IllegalArgumentException if the data is not a valid encoded context
+     */
+    public static LDContext decode(byte[] encoded) {
+        Reader reader = new Reader(encoded);
+        int version = reader.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported context encoding version " + version);
+        }
+        int count = reader.readLength();
+        if (count == 0) {
+            throw new IllegalArgumentException("An encoded context must contain at least one context");
+        }
+        LDContext[] contexts = new LDContext[count];
+        for (int i = 0; i < count; i++) {
+            contexts[i] = readSingle(reader);
+        }
+        if (!reader.atEnd()) {
+            throw new IllegalArgumentException("Unexpected data after the encoded context");
+        }
+        LDContext context = count == 1 ? contexts[0] : LDContext.createMulti(contexts);
+        if (!context.isValid()) {
+            throw new IllegalArgumentException("The encoded context is not valid: " + context.getError());
+        }
+        return context;
+    }
+
+    /**
+     * Decode a context for evaluation through OpenFeature.
+     * <p>
+     * When the returned context is passed directly to the provider, it is evaluated without further conversion. It
+     * can also be merged with other OpenFeature contexts, in which case it is converted as usual.
+     *
+     * @param encoded the encoded context
+     * @return the evaluation context
+     * @throws IllegalArgumentException if the data is not a valid encoded context
+     */
+    public static EvaluationContext decodeEvaluationContext(byte[] encoded) {
+        return new DecodedEvaluationContext(decode(encoded));
+    }
+
+    /**
+     * Encode a context as a URL-safe base64 string, for use in an HTTP header.
+     *
+     * @param context the context
+     * @return the header value
+     * @throws IllegalArgumentException if the context is not valid
+     */
+    public static String toHeaderValue(LDContext context) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encode(context));
+    }
+
+    /**
+     * Decode a context from a header value produced by {@link #toHeaderValue(LDContext)}.
+     *
+     * @param headerValue the header value
+     * @return the context
+     * @throws IllegalArgumentException if the header value is not a valid encoded context
+     */
+    public static LDContext fromHeaderValue(String headerValue) {
+        return decode(Base64.getUrlDecoder().decode(headerValue.trim()));
+    }
+
+    private static void writeSingle(Writer writer, LDContext context) {
+        writer.writeName(context.getKind().toString());
+        writer.writeString(context.getKey());
+        int flags = (context.isAnonymous() ? FLAG_ANONYMOUS : 0) | (context.getName() != null ? FLAG_NAME : 0);
+        writer.writeByte(flags);
+        if (context.getName() != null) {
+            writer.writeString(context.getName());
+        }
+
+        List<String> attributes = new ArrayList<>();
+        for (String attribute : context.getCustomAttributeNames()) {
+            attributes.add(attribute);
+        }
+        writer.writeVarint(attributes.size());
+        for (String attribute : attributes) {
+            writer.writeName(attribute);
+            writeValue(writer, context.getValue(attribute), 0);
+        }
+
+        int privateCount = context.getPrivateAttributeCount();
+        writer.writeVarint(privateCount);
+        for (int i = 0; i < privateCount; i++) {
+            writer.writeString(context.getPrivateAttribute(i).toString());
+        }
+    }
+
+    private static LDContext readSingle(Reader reader) {
+        String kind = reader.readName();
+        String key = reader.readString();
+        int flags = reader.readByte();
+        ContextBuilder builder = LDContext.builder(ContextKind.of(kind), key)
+            .anonymous((flags & FLAG_ANONYMOUS) != 0);
+        if ((flags & FLAG_NAME) != 0) {
+            builder.name(reader.readString());
+        }
+        int attributeCount = reader.readLength();
+        for (int i = 0; i < attributeCount; i++) {
+            String attribute = reader.readName();
+            builder.set(attribute, readValue(reader, 0));
+        }
+        int privateCount = reader.readLength();
+        if (privateCount > 0) {
+            String[] privateAttributes = new String[privateCount];
+            for (int i = 0; i < privateCount; i++) {
+                privateAttributes[i] = reader.readString();
+            }
+            builder.privateAttributes(privateAttributes);
+        }
+        return builder.build();
+    }
+
+    private static void writeValue(Writer writer, LDValue value, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Context attributes are nested more than " + MAX_DEPTH + " deep");
+        }
+        switch (value.getType()) {
+            case BOOLEAN:
+                writer.writeByte(value.booleanValue() ? TYPE_TRUE : TYPE_FALSE);
+                break;
+            case NUMBER:
+                if (value.isInt()) {
+                    writer.writeByte(TYPE_INT);
+                    writer.writeSignedVarint(value.longValue());
+                } else {
+                    writer.writeByte(TYPE_DOUBLE);
+                    writer.writeDouble(value.doubleValue());
+                }
+                break;
+            case STRING:
+                writer.writeByte(TYPE_STRING);
+                writer.writeString(value.stringValue());
+                break;
+            case ARRAY:
+                writer.writeByte(TYPE_ARRAY);
+                writer.writeVarint(value.size());
+                for (LDValue element : value.values()) {
+                    writeValue(writer, element, depth + 1);
+                }
+                break;
+            case OBJECT:
+                writer.writeByte(TYPE_OBJECT);
+                writer.writeVarint(value.size());
+                for (String name : value.keys()) {
+                    writer.writeName(name);
+                    writeValue(writer, value.get(name), depth + 1);
+                }
+                break;
+            default:
+                writer.writeByte(TYPE_NULL);
+                break;
+        }
+    }
+
+    private static LDValue readValue(Reader reader, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Encoded context attributes are nested more than " + MAX_DEPTH + " deep");
+        }
+        int type = reader.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return LDValue.ofNull();
+            case TYPE_FALSE:
+                return LDValue.of(false);
+            case TYPE_TRUE:
+                return LDValue.of(true);
+            case TYPE_INT: {
+                long number = reader.readSignedVarint();
+                return number == (int) number ? LDValue.of((int) number) : LDValue.of(number);
+            }
+            case TYPE_DOUBLE:
+                return LDValue.of(reader.readDouble());
+            case TYPE_STRING:
+                return LDValue.of(reader.readString());
+            case TYPE_ARRAY: {
+                int size = reader.readLength();
+                ArrayBuilder array = LDValue.buildArray();
+                for (int i = 0; i < size; i++) {
+                    array.add(readValue(reader, depth + 1));
+                }
+                return array.build();
+            }
+            case TYPE_OBJECT: {
+                int size = reader.readLength();
+                ObjectBuilder object = LDValue.buildObject();
+                for (int i = 0; i < size; i++) {
+                    String name = reader.readName();
+                    object.put(name, readValue(reader, depth + 1));
+                }
+                return object.build();
+            }
+            default:
+                throw new IllegalArgumentException("Unknown value type " + type + " in encoded context");
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[128];
+        private int length;
+        private Map<String, Integer> names;
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[length++] = (byte) value;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        void writeSignedVarint(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[length++] = (byte) (bits >>> (8 * i));
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        /**
+         * Write a name as a reference: zero followed by the literal for a name seen for the first time, otherwise
+         * one more than its index in the well known names followed by the names defined so far in this message.
+         */
+        void writeName(String name) {
+            Integer wellKnown = WELL_KNOWN_INDEX.get(name);
+            if (wellKnown != null) {
+                writeVarint(wellKnown + 1);
+                return;
+            }
+            if (names == null) {
+                names = new HashMap<>();
+            }
+            Integer defined = names.get(name);
+            if (defined != null) {
+                writeVarint(WELL_KNOWN_NAMES.length + defined + 1);
+                return;
+            }
+            names.put(name, names.size());
+            writeVarint(0);
+            writeString(name);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+        private List<String> names;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        boolean atEnd() {
+            return position == buffer.length;
+        }
+
+        int readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Encoded context is truncated");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in encoded context");
+        }
+
+        long readSignedVarint() {
+            long raw = readVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        /**
+         * Read a length or count. It cannot exceed the remaining data, since every element takes at least one byte,
+         * which stops corrupt input from causing large allocations.
+         */
+        int readLength() {
+            long value = readVarint();
+            if (value < 0 || value > buffer.length - position) {
+                throw new IllegalArgumentException("Invalid length in encoded context");
+            }
+            return (int) value;
+        }
+
+        double readDouble() {
+            if (buffer.length - position < 8) {
+                throw new IllegalArgumentException("Encoded context is truncated");
+            }
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits |= (long) (buffer[position++] & 0xFF) << (8 * i);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString() {
+            int size = readLength();
+            String value = new String(buffer, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        String readName() {
+            long reference = readVarint();
+            if (reference == 0) {
+                String name = readString();
+                if (names == null) {
+                    names = new ArrayList<>();
+                }
+                names.add(name);
+                return name;
+            }
+            if (reference < 0) {
+                // A ten byte varint can set the sign bit.
+                throw new IllegalArgumentException("Invalid name reference in encoded context");
+            }
+            long index = reference - 1;
+            if (index < WELL_KNOWN_NAMES.length) {
+                return WELL_KNOWN_NAMES[(int) index];
+            }
+            index -= WELL_KNOWN_NAMES.length;
+            if (names == null || index >= names.size()) {
+                throw new IllegalArgumentException("Invalid name reference in encoded context");
+            }
+            return names.get((int) index);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+/**
+ * Bounds on the size of a single value converted between OpenFeature and LaunchDarkly representations.
+ * <p>
+ * Without bounds a deeply nested or very large context attribute, whether hostile or the result of a bug, could
+ * occupy the request thread converting it. Size is measured approximately: strings and object keys count their
+ * length, and other values count eight.
+ */
+final class ConversionLimits {
+    /**
+     * The limits applied to context attributes unless others are configured.
+     */
+    static final ConversionLimits DEFAULT = new ConversionLimits(32, 10_000, 1024 * 1024);
+
+    /**
+     * No limits, which is the default for flag values, as they come from the application's own flag configuration.
+     */
+    static final ConversionLimits NONE = new ConversionLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    final int maxDepth;
+    final int maxElements;
+    final long maxBytes;
+
+    ConversionLimits(int maxDepth, int maxElements, long maxBytes) {
+        this.maxDepth = maxDepth;
+        this.maxElements = maxElements;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Tracks the size of one conversion. Only allocated for lists and structures, so converting a scalar is free.
+     */
+    final class Budget {
+        private int elements;
+        private long bytes;
+
+        void checkDepth(int depth) {
+            if (depth > maxDepth) {
+                throw new LimitExceeded("the value is nested more than " + maxDepth + " levels deep");
+            }
+        }
+
+        void addElement(long size) {
+            if (++elements > maxElements) {
+                throw new LimitExceeded("the value has more than " + maxElements + " elements");
+            }
+            bytes += size;
+            if (bytes > maxBytes) {
+                throw new LimitExceeded("the value is larger than " + maxBytes + " bytes");
+            }
+        }
+    }
+
+    Budget newBudget() {
+        return new Budget();
+    }
+
+    void checkString(String value) {
+        if (value.length() > maxBytes) {
+            throw new LimitExceeded("the value is larger than " + maxBytes + " bytes");
+        }
+    }
+
+    /**
+     * Thrown inside a conversion when a limit is exceeded, and caught at the top of the conversion.
+     */
+    static final class LimitExceeded extends RuntimeException {
+        LimitExceeded(String message) {
+            // The stack trace is never used, so skip the cost of capturing it.
+            super(message, null, false, false);
+        }
+    }
+}
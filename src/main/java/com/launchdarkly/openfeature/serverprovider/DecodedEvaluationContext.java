@@ -0,0 +1,123 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.LDContext;
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ImmutableStructure;
+import dev.openfeature.sdk.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An evaluation context which carries an already built {@link LDContext}.
+ * <p>
+ * {@link EvaluationContextConverter} uses the LDContext directly. The OpenFeature view of the attributes is only
+ * built if something asks for it, such as the OpenFeature SDK merging this context with others.
+ */
+final class DecodedEvaluationContext implements EvaluationContext {
+    private static final LDValueConverter LD_VALUE_CONVERTER = new LDValueConverter(LDLogger.none());
+
+    final LDContext ldContext;
+    private volatile ImmutableContext expanded;
+
+    DecodedEvaluationContext(LDContext ldContext) {
+        this.ldContext = ldContext;
+    }
+
+    private ImmutableContext expanded() {
+        ImmutableContext result = expanded;
+        if (result == null) {
+            result = expand();
+            expanded = result;
+        }
+        return result;
+    }
+
+    /**
+     * Build the OpenFeature representation, in the form {@link EvaluationContextConverter} converts back to the
+     * same LDContext.
+     */
+    private ImmutableContext expand() {
+        if (!ldContext.isMultiple()) {
+            return new ImmutableContext(ldContext.getKey(), attributesOf(ldContext, false));
+        }
+        Map<String, Value> attributes = new HashMap<>();
+        attributes.put("kind", new Value("multi"));
+        for (int i = 0; i < ldContext.getIndividualContextCount(); i++) {
+            LDContext individual = ldContext.getIndividualContext(i);
+            attributes.put(individual.getKind().toString(),
+                new Value(new ImmutableStructure(attributesOf(individual, true))));
+        }
+        return new ImmutableContext(attributes);
+    }
+
+    private static Map<String, Value> attributesOf(LDContext context, boolean includeKey) {
+        Map<String, Value> attributes = new HashMap<>();
+        if (includeKey) {
+            attributes.put("targetingKey", new Value(context.getKey()));
+        } else {
+            attributes.put("kind", new Value(context.getKind().toString()));
+        }
+        if (context.getName() != null) {
+            attributes.put("name", new Value(context.getName()));
+        }
+        if (context.isAnonymous()) {
+            attributes.put("anonymous", new Value(true));
+        }
+        for (String attribute : context.getCustomAttributeNames()) {
+            attributes.put(attribute, LD_VALUE_CONVERTER.toValue(context.getValue(attribute)));
+        }
+        if (context.getPrivateAttributeCount() > 0) {
+            List<Value> privateAttributes = new ArrayList<>();
+            for (int i = 0; i < context.getPrivateAttributeCount(); i++) {
+                privateAttributes.add(new Value(context.getPrivateAttribute(i).toString()));
+            }
+            attributes.put("privateAttributes", new Value(privateAttributes));
+        }
+        return attributes;
+    }
+
+    @Override
+    public String getTargetingKey() {
+        return ldContext.isMultiple() ? null : ldContext.getKey();
+    }
+
+    @Override
+    public EvaluationContext merge(EvaluationContext overridingContext) {
+        return expanded().merge(overridingContext);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return expanded().keySet();
+    }
+
+    @Override
+    public Value getValue(String key) {
+        return expanded().getValue(key);
+    }
+
+    @Override
+    public Map<String, Value> asMap() {
+        return expanded().asMap();
+    }
+
+    public Map<String, Value> asUnmodifiableMap() {
+        return expanded().asUnmodifiableMap();
+    }
+
+    @Override
+    public Map<String, Object> asObjectMap() {
+        return expanded().asObjectMap();
+    }
+}
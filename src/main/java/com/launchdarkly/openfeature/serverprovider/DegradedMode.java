@@ -0,0 +1,59 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.ProviderState;
+import dev.openfeature.sdk.Reason;
+
+/**
+ * Implements the {@link DegradedModePolicy} fast path.
+ */
+class DegradedMode {
+    private static final String NOT_READY_MESSAGE = "The provider has not finished initializing.";
+    private static final String ERROR_MESSAGE = "The provider is in an error state and cannot evaluate flags.";
+
+    private final DegradedModePolicy policy;
+    private final ProviderMetrics metrics;
+
+    DegradedMode(DegradedModePolicy policy, ProviderMetrics metrics) {
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Produce a default result for the current state, if the policy requires one.
+     *
+     * @param state        the current provider state
+     * @param defaultValue the default value of the evaluation
+     * @param <T>          the type of the evaluation result
+     * @return a default result, or null if the evaluation should proceed normally
+     */
+    <T> ProviderEvaluation<T> evaluate(ProviderState state, T defaultValue) {
+        switch (policy) {
+            case SHORT_CIRCUIT_UNTIL_READY:
+                if (state == ProviderState.NOT_READY) {
+                    return shortCircuit(defaultValue, ErrorCode.PROVIDER_NOT_READY, NOT_READY_MESSAGE);
+                }
+                // Intentional fallthrough
+            case SHORT_CIRCUIT_ON_ERROR:
+                if (state == ProviderState.ERROR) {
+                    return shortCircuit(defaultValue, ErrorCode.GENERAL, ERROR_MESSAGE);
+                }
+                return null;
+            case EVALUATE:
+                // Intentional fallthrough
+            default:
+                return null;
+        }
+    }
+
+    private <T> ProviderEvaluation<T> shortCircuit(T defaultValue, ErrorCode errorCode, String message) {
+        metrics.degradedShortCircuits.increment();
+        return ProviderEvaluation.<T>builder()
+            .value(defaultValue)
+            .reason(Reason.ERROR.toString())
+            .errorCode(errorCode)
+            .errorMessage(message)
+            .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+/**
+ * Controls whether the {@link Provider} passes evaluations to the LaunchDarkly client while the provider is not
+ * able to serve flag data.
+ * <p>
+ * When an evaluation is short-circuited the context is not converted, the client is not called, and the default
+ * value is returned with an error code describing the state of the provider.
+ */
+public enum DegradedModePolicy {
+    /**
+     * Always pass evaluations to the LaunchDarkly client. This is the default.
+     * <p>
+     * Use this policy when the client may still be able to evaluate from a persistent data store while the data
+     * source is unavailable.
+     */
+    EVALUATE,
+
+    /**
+     * Short-circuit evaluations while the provider is in the ERROR state, which happens when the data source has
+     * permanently stopped.
+     */
+    SHORT_CIRCUIT_ON_ERROR,
+
+    /**
+     * Short-circuit evaluations while the provider is either NOT_READY or in the ERROR state.
+     */
+    SHORT_CIRCUIT_UNTIL_READY
+}
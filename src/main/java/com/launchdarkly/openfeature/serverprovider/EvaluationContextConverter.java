@@ -11,6 +11,7 @@ import dev.openfeature.sdk.Value;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Converts an OpenFeature EvaluationContext into a LDContext.
@@ -19,9 +20,19 @@ class EvaluationContextConverter {
     private final LDLogger logger;
     private final ValueConverter valueConverter;
 
+    /**
+     * The attributes flag rules refer to, or null to keep every attribute.
+     */
+    private final AttributeUsageIndex attributeUsage;
+
     public EvaluationContextConverter(LDLogger logger) {
+        this(logger, ConversionLimits.DEFAULT, null);
+    }
+
+    EvaluationContextConverter(LDLogger logger, ConversionLimits limits, AttributeUsageIndex attributeUsage) {
         this.logger = logger;
-        this.valueConverter = new ValueConverter(logger);
+        this.valueConverter = new ValueConverter(logger, limits);
+        this.attributeUsage = attributeUsage;
     }
 
     /**
@@ -34,6 +45,11 @@ class EvaluationContextConverter {
      * @return An LDContext containing information from the evaluation context.
      */
     public LDContext toLdContext(EvaluationContext evaluationContext) {
+        if (evaluationContext instanceof DecodedEvaluationContext) {
+            // Decoded from the binary encoding, so the LDContext has already been built.
+            return ((DecodedEvaluationContext) evaluationContext).ldContext;
+        }
+
         // Using the kind as a map here because getting a value from an immutable context that doesn't exist
         // throws. https://github.com/open-feature/java-sdk/pull/300
         Map<String, Value> attributes = evaluationContext.asMap();
@@ -141,6 +157,8 @@ class EvaluationContextConverter {
      */
     private LDContext BuildSingleContext(Map<String, Value> attributes, String kind, String key) {
         ContextBuilder builder = LDContext.builder(ContextKind.of(kind), key);
+        // Null if every attribute should be kept.
+        Set<String> usedAttributes = attributeUsage != null ? attributeUsage.attributesFor(kind) : null;
 
         attributes.forEach((attrKey, attrValue) -> {
             // Key has been processed, so we can skip it.
@@ -178,6 +196,11 @@ class EvaluationContextConverter {
                 return;
             }
 
+            if (usedAttributes != null && !usedAttributes.contains(attrKey) && !Objects.equals(attrKey, "kind")) {
+                // No flag or segment refers to the attribute, so skip converting it.
+                return;
+            }
+
             builder.set(attrKey, valueConverter.toLdValue(attrValue));
         });
 
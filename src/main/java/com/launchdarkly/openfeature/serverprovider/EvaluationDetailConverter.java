@@ -17,8 +17,12 @@ class EvaluationDetailConverter {
     LDValueConverter ldValueConverter;
 
     public EvaluationDetailConverter(LDLogger logger) {
+        this(logger, ConversionLimits.NONE);
+    }
+
+    EvaluationDetailConverter(LDLogger logger, ConversionLimits limits) {
         this.logger = logger;
-        this.ldValueConverter = new LDValueConverter(logger);
+        this.ldValueConverter = new LDValueConverter(logger, limits);
     }
 
     /**
@@ -53,6 +57,31 @@ class EvaluationDetailConverter {
         return getProviderEvaluation(value, reason, isDefault, variationIndex);
     }
 
+    /**
+     * Convert Array and Structure type results, returning the default value with an error if the flag value exceeds
+     * the conversion limits.
+     *
+     * @param detail       The detail to convert.
+     * @param defaultValue The value to return if the flag value cannot be converted.
+     * @return The converted detail.
+     */
+    ProviderEvaluation<Value> toEvaluationDetailsLdValue(EvaluationDetail<LDValue> detail, Value defaultValue) {
+        Value value;
+        try {
+            value = ldValueConverter.toValueWithinLimits(detail.getValue());
+        } catch (ConversionLimits.LimitExceeded e) {
+            logger.error("Could not convert the flag value, because {}. Returning the default value.",
+                e.getMessage());
+            return ProviderEvaluation.<Value>builder()
+                .value(defaultValue)
+                .reason(Reason.ERROR.toString())
+                .errorCode(ErrorCode.GENERAL)
+                .errorMessage("The flag value exceeds the conversion limits: " + e.getMessage())
+                .build();
+        }
+        return getProviderEvaluation(value, detail.getReason(), detail.isDefaultValue(), detail.getVariationIndex());
+    }
+
     private static <T> ProviderEvaluation<T> getProviderEvaluation(T value, EvaluationReason reason, boolean isDefault, int variationIndex) {
         var builder = ProviderEvaluation.<T>builder()
                 .value(value)
@@ -0,0 +1,148 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A point in time view of the cost of flag evaluations made by a {@link Provider}.
+ * <p>
+ * Costs are cumulative from the creation of the provider, and only cover the LaunchDarkly evaluation itself, not
+ * conversion of the evaluation context.
+ */
+public final class EvaluationProfile {
+    /**
+     * The accumulated cost of evaluating a single flag.
+     */
+    public static final class FlagCost {
+        private final String flagKey;
+        private final long evaluations;
+        private final long totalNanos;
+        private final long allocatedBytes;
+        private final long maxNanos;
+
+        FlagCost(String flagKey, long evaluations, long totalNanos, long allocatedBytes, long maxNanos) {
+            this.flagKey = flagKey;
+            this.evaluations = evaluations;
+            this.totalNanos = totalNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * @return the flag key
+         */
+        public String getFlagKey() {
+            return flagKey;
+        }
+
+        /**
+         * @return the number of evaluations
+         */
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        /**
+         * @return the total wall time spent evaluating the flag, in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return the total bytes allocated while evaluating the flag, or -1 if the JVM cannot measure allocation
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * @return the longest single evaluation of the flag, in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+
+    /**
+     * A single slow evaluation.
+     */
+    public static final class SlowEvaluation {
+        private final String flagKey;
+        private final long durationNanos;
+        private final long allocatedBytes;
+        private final Instant timestamp;
+        private final Map<String, List<String>> contextShape;
+
+        SlowEvaluation(String flagKey, long durationNanos, long allocatedBytes, Instant timestamp,
+                       Map<String, List<String>> contextShape) {
+            this.flagKey = flagKey;
+            this.durationNanos = durationNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.timestamp = timestamp;
+            this.contextShape = Collections.unmodifiableMap(contextShape);
+        }
+
+        /**
+         * @return the flag key
+         */
+        public String getFlagKey() {
+            return flagKey;
+        }
+
+        /**
+         * @return the wall time of the evaluation, in nanoseconds
+         */
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * @return the bytes allocated by the evaluation, or -1 if the JVM cannot measure allocation
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * @return when the evaluation finished
+         */
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * The shape of the evaluation context: a map from each context kind to the names of its attributes.
+         * Attribute values are not retained.
+         *
+         * @return the context shape
+         */
+        public Map<String, List<String>> getContextShape() {
+            return contextShape;
+        }
+    }
+
+    private final List<FlagCost> flags;
+    private final List<SlowEvaluation> slowestEvaluations;
+
+    EvaluationProfile(List<FlagCost> flags, List<SlowEvaluation> slowestEvaluations) {
+        this.flags = Collections.unmodifiableList(flags);
+        this.slowestEvaluations = Collections.unmodifiableList(slowestEvaluations);
+    }
+
+    /**
+     * @return the cost of each evaluated flag, most expensive in total first
+     */
+    public List<FlagCost> getFlags() {
+        return flags;
+    }
+
+    /**
+     * @return the slowest evaluations retained, slowest first
+     */
+    public List<SlowEvaluation> getSlowestEvaluations() {
+        return slowestEvaluations;
+    }
+}
@@ -0,0 +1,143 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.LDContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Attributes evaluation time and allocation to flag keys, and keeps the slowest evaluations.
+ * <p>
+ * Allocation is measured with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} when the JVM
+ * supports it, otherwise it is reported as -1. The slowest evaluations are kept in a bounded min-heap; an
+ * evaluation faster than the fastest one retained is rejected without taking the lock once the heap is full.
+ */
+class EvaluationProfiler {
+    private static final class FlagCost {
+        final LongAdder evaluations = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    private final int slowSampleCount;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final ConcurrentHashMap<String, FlagCost> costs = new ConcurrentHashMap<>();
+    private final PriorityQueue<EvaluationProfile.SlowEvaluation> slowest =
+        new PriorityQueue<>((a, b) -> Long.compare(a.getDurationNanos(), b.getDurationNanos()));
+    private volatile long slowThresholdNanos;
+
+    EvaluationProfiler(int slowSampleCount) {
+        this.slowSampleCount = slowSampleCount;
+        this.threadBean = allocationMeasuringBean();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMeasuringBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        if (!sunBean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return sunBean;
+    }
+
+    <T> ProviderEvaluation<T> profile(String flagKey, LDContext context,
+                                      Function<LDContext, ProviderEvaluation<T>> evaluation) {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean != null ? threadBean.getThreadAllocatedBytes(threadId) : -1;
+        long start = System.nanoTime();
+        try {
+            return evaluation.apply(context);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedBefore >= 0 ? threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore : -1;
+            record(flagKey, context, elapsed, allocated);
+        }
+    }
+
+    private void record(String flagKey, LDContext context, long elapsedNanos, long allocatedBytes) {
+        FlagCost cost = costs.get(flagKey);
+        if (cost == null) {
+            cost = costs.computeIfAbsent(flagKey, ignored -> new FlagCost());
+        }
+        cost.evaluations.increment();
+        cost.nanos.add(elapsedNanos);
+        if (allocatedBytes > 0) {
+            cost.allocatedBytes.add(allocatedBytes);
+        }
+        cost.maxNanos.accumulate(elapsedNanos);
+
+        if (slowSampleCount <= 0 || elapsedNanos <= slowThresholdNanos) {
+            return;
+        }
+        EvaluationProfile.SlowEvaluation sample = new EvaluationProfile.SlowEvaluation(flagKey, elapsedNanos,
+            allocatedBytes, Instant.now(), shapeOf(context));
+        synchronized (slowest) {
+            slowest.add(sample);
+            if (slowest.size() > slowSampleCount) {
+                slowest.poll();
+            }
+            if (slowest.size() == slowSampleCount) {
+                slowThresholdNanos = slowest.peek().getDurationNanos();
+            }
+        }
+    }
+
+    /**
+     * Describe a context by its kinds and attribute names, leaving out attribute values.
+     */
+    static Map<String, List<String>> shapeOf(LDContext context) {
+        Map<String, List<String>> shape = new LinkedHashMap<>();
+        if (context == null || !context.isValid()) {
+            return shape;
+        }
+        int count = context.getIndividualContextCount();
+        for (int i = 0; i < count; i++) {
+            LDContext individual = context.getIndividualContext(i);
+            List<String> attributes = new ArrayList<>();
+            attributes.add("key");
+            if (individual.getName() != null) {
+                attributes.add("name");
+            }
+            if (individual.isAnonymous()) {
+                attributes.add("anonymous");
+            }
+            for (String attribute : individual.getCustomAttributeNames()) {
+                attributes.add(attribute);
+            }
+            shape.put(individual.getKind().toString(), Collections.unmodifiableList(attributes));
+        }
+        return shape;
+    }
+
+    EvaluationProfile snapshot() {
+        List<EvaluationProfile.FlagCost> flags = new ArrayList<>(costs.size());
+        costs.forEach((flagKey, cost) -> flags.add(new EvaluationProfile.FlagCost(flagKey, cost.evaluations.sum(),
+            cost.nanos.sum(), threadBean != null ? cost.allocatedBytes.sum() : -1, cost.maxNanos.get())));
+        flags.sort((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()));
+
+        List<EvaluationProfile.SlowEvaluation> samples;
+        synchronized (slowest) {
+            samples = new ArrayList<>(slowest);
+        }
+        samples.sort((a, b) -> Long.compare(b.getDurationNanos(), a.getDurationNanos()));
+        return new EvaluationProfile(flags, samples);
+    }
+}
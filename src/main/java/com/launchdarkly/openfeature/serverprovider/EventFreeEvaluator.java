@@ -0,0 +1,123 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.FeatureFlagsState;
+import com.launchdarkly.sdk.server.FlagsStateOption;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates flags without generating analytics events, for threads inside an {@link EventFreeScope}.
+ * <p>
+ * The SDK has no per-call option to suppress events, but {@link LDClientInterface#allFlagsState} evaluates without
+ * recording any. Evaluations are served from an all-flags state, which is computed once per context and reused for
+ * the rest of the scope, so bulk work which evaluates many flags for one context pays for a single all-flags
+ * evaluation and sees a consistent set of flag values. The states of the most recently evaluated contexts are kept,
+ * so work which alternates between a few contexts does not evaluate every flag again for each switch.
+ */
+class EventFreeEvaluator {
+    /**
+     * The number of contexts whose all-flags state is kept for a scope. Each state holds a result for every flag, so
+     * this is kept small.
+     */
+    static final int MAX_CACHED_CONTEXTS = 8;
+
+    private static final class Scope {
+        int depth;
+        // Least recently used first.
+        final LinkedHashMap<LDContext, FlagsStateView> views = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LDContext, FlagsStateView> eldest) {
+                return size() > MAX_CACHED_CONTEXTS;
+            }
+        };
+    }
+
+    // A supplier, because the provider's client can be replaced.
+    private final Supplier<LDClientInterface> client;
+    private final LDLogger logger;
+    private final ThreadLocal<Scope> scopes = new ThreadLocal<>();
+
+    EventFreeEvaluator(Supplier<LDClientInterface> client, LDLogger logger) {
+        this.client = client;
+        this.logger = logger;
+    }
+
+    EventFreeScope enter() {
+        Scope scope = scopes.get();
+        if (scope == null) {
+            scope = new Scope();
+            scopes.set(scope);
+        }
+        scope.depth++;
+        return new EventFreeScope(this::leave);
+    }
+
+    private void leave() {
+        Scope scope = scopes.get();
+        if (scope != null && --scope.depth == 0) {
+            scopes.remove();
+        }
+    }
+
+    boolean isActive() {
+        return scopes.get() != null;
+    }
+
+    /**
+     * Carry the current thread's scope, if any, over to work which will run on another thread.
+     */
+    <T> Supplier<T> propagate(Supplier<T> work) {
+        if (!isActive()) {
+            return work;
+        }
+        return () -> {
+            try (EventFreeScope ignored = enter()) {
+                return work.get();
+            }
+        };
+    }
+
+    EvaluationDetail<Boolean> boolVariationDetail(String key, LDContext context, boolean defaultValue) {
+        return viewFor(context).boolVariationDetail(key, defaultValue);
+    }
+
+    EvaluationDetail<String> stringVariationDetail(String key, LDContext context, String defaultValue) {
+        return viewFor(context).stringVariationDetail(key, defaultValue);
+    }
+
+    EvaluationDetail<Integer> intVariationDetail(String key, LDContext context, int defaultValue) {
+        return viewFor(context).intVariationDetail(key, defaultValue);
+    }
+
+    EvaluationDetail<Double> doubleVariationDetail(String key, LDContext context, double defaultValue) {
+        return viewFor(context).doubleVariationDetail(key, defaultValue);
+    }
+
+    EvaluationDetail<LDValue> jsonValueVariationDetail(String key, LDContext context, LDValue defaultValue) {
+        return viewFor(context).jsonValueVariationDetail(key, defaultValue);
+    }
+
+    private FlagsStateView viewFor(LDContext context) {
+        Scope scope = scopes.get();
+        FlagsStateView view = scope != null ? scope.views.get(context) : null;
+        if (view != null) {
+            return view;
+        }
+        FeatureFlagsState state = client.get().allFlagsState(context, FlagsStateOption.WITH_REASONS);
+        if (!state.isValid()) {
+            logger.warn("Flags could not be evaluated without events, because the flag state was not available");
+        }
+        view = new FlagsStateView(context, state);
+        if (scope != null) {
+            scope.views.put(context, view);
+        }
+        return view;
+    }
+}
@@ -0,0 +1,27 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+/**
+ * While open, evaluations made through a {@link Provider} on the current thread do not generate analytics events.
+ * <p>
+ * Obtain a scope with {@link Provider#withoutEvents()} and close it when the work is done, normally with
+ * try-with-resources. Scopes can be nested. Closing a scope more than once has no further effect.
+ */
+public final class EventFreeScope implements AutoCloseable {
+    private final Runnable onClose;
+    private boolean closed;
+
+    EventFreeScope(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    /**
+     * Leave the scope, so that evaluations on the current thread generate events again.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            onClose.run();
+        }
+    }
+}
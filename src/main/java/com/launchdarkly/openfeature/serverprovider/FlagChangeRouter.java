@@ -0,0 +1,116 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Routes flag changes to the listeners subscribed to them.
+ * <p>
+ * Exact key subscriptions are held in a hash map, and prefix subscriptions in a trie keyed by character. Routing a
+ * change looks up the key in the map and walks the trie along the key, so its cost depends on the length of the key
+ * and the number of interested listeners, not on the total number of subscriptions.
+ * <p>
+ * Subscribing and unsubscribing are synchronized on the router, so that a subscription cannot be added to a list
+ * which is being removed, or to a router which has been closed. Routing a change does not lock.
+ */
+class FlagChangeRouter {
+    private static final class Node {
+        final ConcurrentHashMap<Character, Node> children = new ConcurrentHashMap<>();
+        final List<FlagKeyListener> listeners = new CopyOnWriteArrayList<>();
+    }
+
+    private final LDLogger logger;
+    private final ConcurrentHashMap<String, List<FlagKeyListener>> exact = new ConcurrentHashMap<>();
+    private final Node prefixRoot = new Node();
+
+    // Guarded by this.
+    private boolean closed;
+
+    FlagChangeRouter(LDLogger logger) {
+        this.logger = logger;
+    }
+
+    synchronized FlagSubscription subscribe(String flagKey, FlagKeyListener listener) {
+        checkOpen();
+        exact.computeIfAbsent(flagKey, ignored -> new CopyOnWriteArrayList<>()).add(listener);
+        return onClose(() -> exact.computeIfPresent(flagKey, (key, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        }));
+    }
+
+    synchronized FlagSubscription subscribePrefix(String prefix, FlagKeyListener listener) {
+        checkOpen();
+        Node node = prefixRoot;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), ignored -> new Node());
+        }
+        Node target = node;
+        target.listeners.add(listener);
+        // Empty nodes are left in place; the trie only grows with the set of distinct prefixes used.
+        return onClose(() -> target.listeners.remove(listener));
+    }
+
+    /**
+     * Remove every subscription, and reject new ones.
+     */
+    synchronized void close() {
+        closed = true;
+        exact.clear();
+        clear(prefixRoot);
+    }
+
+    private static void clear(Node node) {
+        node.listeners.clear();
+        node.children.values().forEach(FlagChangeRouter::clear);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The provider has been shut down, so flag changes cannot be subscribed to");
+        }
+    }
+
+    private FlagSubscription onClose(Runnable unsubscribe) {
+        return new FlagSubscription() {
+            private boolean closed;
+
+            @Override
+            public void close() {
+                synchronized (FlagChangeRouter.this) {
+                    if (!closed) {
+                        closed = true;
+                        unsubscribe.run();
+                    }
+                }
+            }
+        };
+    }
+
+    void flagChanged(String flagKey) {
+        List<FlagKeyListener> listeners = exact.get(flagKey);
+        if (listeners != null) {
+            for (FlagKeyListener listener : listeners) {
+                notify(listener, flagKey);
+            }
+        }
+        Node node = prefixRoot;
+        for (int i = 0; node != null; i++) {
+            for (FlagKeyListener listener : node.listeners) {
+                notify(listener, flagKey);
+            }
+            node = i < flagKey.length() ? node.children.get(flagKey.charAt(i)) : null;
+        }
+    }
+
+    private void notify(FlagKeyListener listener, String flagKey) {
+        try {
+            listener.flagChanged(flagKey);
+        } catch (RuntimeException e) {
+            logger.error("A flag change listener threw an exception: {}", e.toString());
+        }
+    }
+}
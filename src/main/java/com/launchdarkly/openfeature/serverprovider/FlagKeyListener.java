@@ -0,0 +1,19 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+/**
+ * Receives notifications of changes to particular flags.
+ *
+ * @see Provider#subscribe(String, FlagKeyListener)
+ * @see Provider#subscribePrefix(String, FlagKeyListener)
+ */
+@FunctionalInterface
+public interface FlagKeyListener {
+    /**
+     * Called when the configuration of a flag the listener is subscribed to has changed.
+     * <p>
+     * This is called on the SDK's event thread, so it should return quickly.
+     *
+     * @param flagKey the key of the flag which changed
+     */
+    void flagChanged(String flagKey);
+}
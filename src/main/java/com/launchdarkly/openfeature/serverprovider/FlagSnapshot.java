@@ -0,0 +1,115 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.Reason;
+import dev.openfeature.sdk.Value;
+
+import java.util.Set;
+
+/**
+ * The results of evaluating every flag for one context, taken from a single consistent view of the flag data.
+ * <p>
+ * Obtain a snapshot with {@link Provider#snapshot(dev.openfeature.sdk.EvaluationContext)}. All evaluations from a
+ * snapshot reflect the same version of the flag data, even if flags are updated while it is in use, so a request
+ * which evaluates several related flags cannot observe a mix of old and new configurations. Evaluations from a
+ * snapshot do not generate analytics events. A snapshot is immutable and can be shared between threads.
+ */
+public final class FlagSnapshot {
+    private final FlagsStateView view;
+    private final EvaluationDetailConverter evaluationDetailConverter;
+    private final ValueConverter valueConverter;
+
+    FlagSnapshot(FlagsStateView view, EvaluationDetailConverter evaluationDetailConverter,
+                 ValueConverter valueConverter) {
+        this.view = view;
+        this.evaluationDetailConverter = evaluationDetailConverter;
+        this.valueConverter = valueConverter;
+    }
+
+    /**
+     * @return true if the snapshot contains flag data, or false if the client was not ready when it was taken, in
+     * which case every evaluation returns its default value
+     */
+    public boolean isValid() {
+        return view.isValid();
+    }
+
+    /**
+     * @return the keys of the flags in the snapshot
+     */
+    public Set<String> getFlagKeys() {
+        return view.flagKeys();
+    }
+
+    /**
+     * Get the result of a boolean flag.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag is missing or is not a boolean
+     * @return the evaluation result
+     */
+    public ProviderEvaluation<Boolean> getBooleanEvaluation(String key, Boolean defaultValue) {
+        if (defaultValue == null) return nullDefault(key);
+        return evaluationDetailConverter.toEvaluationDetails(view.boolVariationDetail(key, defaultValue));
+    }
+
+    /**
+     * Get the result of a string flag.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag is missing or is not a string
+     * @return the evaluation result
+     */
+    public ProviderEvaluation<String> getStringEvaluation(String key, String defaultValue) {
+        if (defaultValue == null) return nullDefault(key);
+        return evaluationDetailConverter.toEvaluationDetails(view.stringVariationDetail(key, defaultValue));
+    }
+
+    /**
+     * Get the result of a numeric flag as an integer.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag is missing or is not a number
+     * @return the evaluation result
+     */
+    public ProviderEvaluation<Integer> getIntegerEvaluation(String key, Integer defaultValue) {
+        if (defaultValue == null) return nullDefault(key);
+        return evaluationDetailConverter.toEvaluationDetails(view.intVariationDetail(key, defaultValue));
+    }
+
+    /**
+     * Get the result of a numeric flag as a double.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag is missing or is not a number
+     * @return the evaluation result
+     */
+    public ProviderEvaluation<Double> getDoubleEvaluation(String key, Double defaultValue) {
+        if (defaultValue == null) return nullDefault(key);
+        return evaluationDetailConverter.toEvaluationDetails(view.doubleVariationDetail(key, defaultValue));
+    }
+
+    /**
+     * Get the result of a flag as an OpenFeature value.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag is missing
+     * @return the evaluation result
+     */
+    public ProviderEvaluation<Value> getObjectEvaluation(String key, Value defaultValue) {
+        return evaluationDetailConverter.toEvaluationDetailsLdValue(
+            view.jsonValueVariationDetail(key, valueConverter.toLdValue(defaultValue)), defaultValue);
+    }
+
+    private static <T> ProviderEvaluation<T> nullDefault(String key) {
+        // Most typed evaluations take primitive defaults, so a null default cannot be passed through; a null string
+        // default is rejected in the same way, so that every typed evaluation treats a null default alike.
+        return ProviderEvaluation.<T>builder()
+            .value(null)
+            .reason(Reason.ERROR.toString())
+            .errorCode(ErrorCode.TYPE_MISMATCH)
+            .errorMessage("The default value for flag " + key + " was null")
+            .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+/**
+ * A registration of a {@link FlagKeyListener}. Closing it stops further notifications.
+ */
+public interface FlagSubscription extends AutoCloseable {
+    /**
+     * Unsubscribe the listener. Closing a subscription more than once has no further effect.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,138 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import dev.openfeature.sdk.ProviderEvaluation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts evaluations by flag key, variant, and reason.
+ * <p>
+ * Counters are {@link LongAdder}s, which stripe their updates across cells under contention. The number of distinct
+ * (flag, variant, reason) combinations is bounded, so memory use is fixed; evaluations of combinations beyond the
+ * bound are only counted in total.
+ */
+class FlagUsageAggregator {
+    private static final class UsageKey {
+        final String flagKey;
+        final String variant;
+        final String reason;
+        private final int hash;
+
+        UsageKey(String flagKey, String variant, String reason) {
+            this.flagKey = flagKey;
+            this.variant = variant;
+            this.reason = reason;
+            this.hash = Objects.hash(flagKey, variant, reason);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof UsageKey)) return false;
+            UsageKey usageKey = (UsageKey) other;
+            return flagKey.equals(usageKey.flagKey)
+                && Objects.equals(variant, usageKey.variant)
+                && Objects.equals(reason, usageKey.reason);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class FlagActivity {
+        /**
+         * Whole seconds, so that the field is only written once a second however often the flag is evaluated.
+         */
+        volatile long lastEvaluatedSeconds;
+    }
+
+    private final int maxEntries;
+    private final LDLogger logger;
+    private final ConcurrentHashMap<UsageKey, LongAdder> counts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, FlagActivity> activity = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+
+    private final FlagUsageSink sink;
+    private final ScheduledExecutorService exporter;
+
+    FlagUsageAggregator(int maxEntries, FlagUsageSink sink, Duration exportInterval, LDLogger logger) {
+        this.maxEntries = maxEntries;
+        this.sink = sink;
+        this.logger = logger;
+        if (sink != null && exportInterval != null) {
+            exporter = Executors.newSingleThreadScheduledExecutor(
+                new DaemonThreadFactory("LaunchDarkly-OpenFeature-FlagUsage"));
+            long intervalMillis = exportInterval.toMillis();
+            exporter.scheduleAtFixedRate(this::export, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            exporter = null;
+        }
+    }
+
+    void record(String flagKey, ProviderEvaluation<?> result) {
+        UsageKey key = new UsageKey(flagKey, result.getVariant(), result.getReason());
+        LongAdder count = counts.get(key);
+        if (count == null) {
+            if (counts.size() >= maxEntries) {
+                untracked.increment();
+                return;
+            }
+            count = counts.computeIfAbsent(key, ignored -> new LongAdder());
+        }
+        count.increment();
+
+        FlagActivity flagActivity = activity.get(flagKey);
+        if (flagActivity == null) {
+            flagActivity = activity.computeIfAbsent(flagKey, ignored -> new FlagActivity());
+        }
+        long nowSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        if (flagActivity.lastEvaluatedSeconds != nowSeconds) {
+            flagActivity.lastEvaluatedSeconds = nowSeconds;
+        }
+    }
+
+    FlagUsageSnapshot snapshot() {
+        List<FlagUsageSnapshot.Entry> entries = new ArrayList<>(counts.size());
+        counts.forEach((key, count) ->
+            entries.add(new FlagUsageSnapshot.Entry(key.flagKey, key.variant, key.reason, count.sum())));
+        Map<String, Instant> lastEvaluated = new HashMap<>();
+        activity.forEach((flagKey, flagActivity) ->
+            lastEvaluated.put(flagKey, Instant.ofEpochSecond(flagActivity.lastEvaluatedSeconds)));
+        return new FlagUsageSnapshot(Instant.now(), entries, lastEvaluated, untracked.sum());
+    }
+
+    private void export() {
+        try {
+            sink.export(snapshot());
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled export, so log it and carry on.
+            logger.error("Flag usage sink failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Stop periodic export, delivering a final snapshot to the sink on the export thread. This does not wait for the
+     * sink, so a slow sink does not hold up shutdown.
+     */
+    void close() {
+        if (exporter != null) {
+            // Tasks submitted before shutdown still run; only the periodic export is cancelled.
+            exporter.execute(this::export);
+            exporter.shutdown();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+/**
+ * Receives periodic snapshots of flag usage from a {@link Provider}.
+ * <p>
+ * Configure a sink with {@link ProviderOptions.Builder#flagUsageExport(FlagUsageSink, java.time.Duration)}. The
+ * sink is called on a provider owned background thread, so it may perform I/O, but a slow sink delays the next
+ * export.
+ */
+public interface FlagUsageSink {
+    /**
+     * Export a snapshot of flag usage.
+     *
+     * @param snapshot the usage counted since the provider was created
+     */
+    void export(FlagUsageSnapshot snapshot);
+}
@@ -0,0 +1,123 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A point in time view of the flags a {@link Provider} has evaluated.
+ * <p>
+ * Counts are cumulative from the creation of the provider.
+ */
+public final class FlagUsageSnapshot {
+    /**
+     * The number of evaluations of a flag which produced a particular variant and reason.
+     */
+    public static final class Entry {
+        private final String flagKey;
+        private final String variant;
+        private final String reason;
+        private final long count;
+
+        Entry(String flagKey, String variant, String reason, long count) {
+            this.flagKey = flagKey;
+            this.variant = variant;
+            this.reason = reason;
+            this.count = count;
+        }
+
+        /**
+         * @return the flag key
+         */
+        public String getFlagKey() {
+            return flagKey;
+        }
+
+        /**
+         * @return the variant, which is the variation index, or null if the default value was used
+         */
+        public String getVariant() {
+            return variant;
+        }
+
+        /**
+         * @return the evaluation reason
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * @return the number of evaluations
+         */
+        public long getCount() {
+            return count;
+        }
+    }
+
+    private final Instant timestamp;
+    private final List<Entry> entries;
+    private final Map<String, Instant> lastEvaluated;
+    private final long untrackedEvaluations;
+
+    FlagUsageSnapshot(Instant timestamp, List<Entry> entries, Map<String, Instant> lastEvaluated,
+                      long untrackedEvaluations) {
+        this.timestamp = timestamp;
+        this.entries = Collections.unmodifiableList(entries);
+        this.lastEvaluated = Collections.unmodifiableMap(lastEvaluated);
+        this.untrackedEvaluations = untrackedEvaluations;
+    }
+
+    /**
+     * @return when the snapshot was taken
+     */
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return evaluation counts by flag key, variant, and reason
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return the time of the most recent evaluation of each evaluated flag, truncated to the second
+     */
+    public Map<String, Instant> getLastEvaluated() {
+        return lastEvaluated;
+    }
+
+    /**
+     * @return the number of evaluations which were not counted because the maximum number of entries was reached
+     */
+    public long getUntrackedEvaluations() {
+        return untrackedEvaluations;
+    }
+
+    /**
+     * Find flags which have not been evaluated since a point in time.
+     * <p>
+     * Flags which have never been evaluated are only known to the snapshot if they are included in
+     * {@code allFlagKeys}, which can be obtained from
+     * {@link com.launchdarkly.sdk.server.interfaces.LDClientInterface#allFlagsState}.
+     *
+     * @param cutoff      flags last evaluated before this time are included
+     * @param allFlagKeys the keys of every flag in the environment
+     * @return the keys of flags which were not evaluated since the cutoff
+     */
+    public List<String> getFlagsNotEvaluatedSince(Instant cutoff, Collection<String> allFlagKeys) {
+        List<String> unused = new ArrayList<>();
+        for (String flagKey : allFlagKeys) {
+            Instant last = lastEvaluated.get(flagKey);
+            if (last == null || last.isBefore(cutoff)) {
+                unused.add(flagKey);
+            }
+        }
+        return unused;
+    }
+}
@@ -0,0 +1,211 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.json.JsonSerialization;
+import com.launchdarkly.sdk.server.FeatureFlagsState;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the variation index of each flag in an all-flags state.
+ * <p>
+ * {@link FeatureFlagsState} only exposes variation indexes in its JSON form. Parsing that form would build a tree of
+ * every flag value, so instead the JSON is scanned: flag values and all other metadata are skipped over without
+ * being decoded, and the only allocations are the flag keys and the resulting map.
+ */
+final class FlagsStateVariations {
+    private static final String METADATA_PROPERTY = "$flagsState";
+    private static final String VARIATION_PROPERTY = "variation";
+
+    private final String json;
+    private int position;
+
+    private FlagsStateVariations(String json) {
+        this.json = json;
+    }
+
+    /**
+     * @param state a valid all-flags state
+     * @return the variation index of each flag, or {@link EvaluationDetail#NO_VARIATION} if it has none
+     */
+    static Map<String, Integer> read(FeatureFlagsState state) {
+        return read(JsonSerialization.serialize(state));
+    }
+
+    static Map<String, Integer> read(String json) {
+        Map<String, Integer> variations = new HashMap<>();
+        new FlagsStateVariations(json).readState(variations);
+        return variations;
+    }
+
+    private void readState(Map<String, Integer> variations) {
+        expect('{');
+        if (!endOf('}')) {
+            do {
+                String name = readString();
+                expect(':');
+                if (name.equals(METADATA_PROPERTY)) {
+                    readMetadata(variations);
+                } else {
+                    skipValue();
+                }
+            } while (next(','));
+            expect('}');
+        }
+    }
+
+    private void readMetadata(Map<String, Integer> variations) {
+        expect('{');
+        if (!endOf('}')) {
+            do {
+                String flagKey = readString();
+                expect(':');
+                variations.put(flagKey, readFlagVariation());
+            } while (next(','));
+            expect('}');
+        }
+    }
+
+    private int readFlagVariation() {
+        int variation = EvaluationDetail.NO_VARIATION;
+        expect('{');
+        if (!endOf('}')) {
+            do {
+                String name = readString();
+                expect(':');
+                if (name.equals(VARIATION_PROPERTY)) {
+                    String literal = readLiteral();
+                    if (!literal.equals("null")) {
+                        variation = Integer.parseInt(literal);
+                    }
+                } else {
+                    skipValue();
+                }
+            } while (next(','));
+            expect('}');
+        }
+        return variation;
+    }
+
+    private void skipValue() {
+        char c = peek();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = json.charAt(position);
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+                position++;
+            } while (depth > 0);
+        } else {
+            readLiteral();
+        }
+    }
+
+    private String readLiteral() {
+        skipWhitespace();
+        int start = position;
+        while (position < json.length() && ",}] \t\r\n".indexOf(json.charAt(position)) < 0) {
+            position++;
+        }
+        return json.substring(start, position);
+    }
+
+    private void skipString() {
+        expect('"');
+        while (true) {
+            char c = json.charAt(position++);
+            if (c == '\\') {
+                position++;
+            } else if (c == '"') {
+                return;
+            }
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        int start = position;
+        StringBuilder unescaped = null;
+        while (true) {
+            char c = json.charAt(position++);
+            if (c == '"') {
+                return unescaped == null
+                    ? json.substring(start, position - 1)
+                    : unescaped.append(json, start, position - 1).toString();
+            }
+            if (c == '\\') {
+                if (unescaped == null) {
+                    unescaped = new StringBuilder();
+                }
+                unescaped.append(json, start, position - 1);
+                char escaped = json.charAt(position++);
+                switch (escaped) {
+                    case 'b':
+                        unescaped.append('\b');
+                        break;
+                    case 'f':
+                        unescaped.append('\f');
+                        break;
+                    case 'n':
+                        unescaped.append('\n');
+                        break;
+                    case 'r':
+                        unescaped.append('\r');
+                        break;
+                    case 't':
+                        unescaped.append('\t');
+                        break;
+                    case 'u':
+                        unescaped.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default:
+                        unescaped.append(escaped);
+                        break;
+                }
+                start = position;
+            }
+        }
+    }
+
+    private char peek() {
+        skipWhitespace();
+        return json.charAt(position);
+    }
+
+    private boolean endOf(char close) {
+        return peek() == close;
+    }
+
+    private boolean next(char separator) {
+        if (peek() == separator) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw new IllegalStateException("Unexpected character in the flag state at " + position);
+        }
+        position++;
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+}
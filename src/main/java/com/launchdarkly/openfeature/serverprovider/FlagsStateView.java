@@ -0,0 +1,97 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.LDValueType;
+import com.launchdarkly.sdk.server.FeatureFlagsState;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Typed evaluation results for one context, read from an all-flags state.
+ * <p>
+ * The methods mirror the client's variation detail methods, including their handling of missing flags and
+ * mismatched types, so results can be passed to the same converters.
+ * <p>
+ * Values and reasons are read directly from the state. The state does not expose variation indexes, only including
+ * them in its JSON form, so the first result which needs a variation reads all of them with
+ * {@link FlagsStateVariations}, once for the view.
+ */
+class FlagsStateView {
+    final LDContext context;
+    private final FeatureFlagsState state;
+    private final Map<String, LDValue> values;
+    // Null until a result first needs a variation index.
+    private volatile Map<String, Integer> variations;
+
+    FlagsStateView(LDContext context, FeatureFlagsState state) {
+        this.context = context;
+        this.state = state;
+        this.values = state.isValid() ? state.toValuesMap() : Collections.emptyMap();
+    }
+
+    boolean isValid() {
+        return state.isValid();
+    }
+
+    Set<String> flagKeys() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    EvaluationDetail<Boolean> boolVariationDetail(String key, boolean defaultValue) {
+        return detail(key, defaultValue, LDValueType.BOOLEAN, LDValue::booleanValue);
+    }
+
+    EvaluationDetail<String> stringVariationDetail(String key, String defaultValue) {
+        return detail(key, defaultValue, LDValueType.STRING, LDValue::stringValue);
+    }
+
+    EvaluationDetail<Integer> intVariationDetail(String key, int defaultValue) {
+        return detail(key, defaultValue, LDValueType.NUMBER, LDValue::intValue);
+    }
+
+    EvaluationDetail<Double> doubleVariationDetail(String key, double defaultValue) {
+        return detail(key, defaultValue, LDValueType.NUMBER, LDValue::doubleValue);
+    }
+
+    EvaluationDetail<LDValue> jsonValueVariationDetail(String key, LDValue defaultValue) {
+        return detail(key, defaultValue, null, value -> value);
+    }
+
+    private <T> EvaluationDetail<T> detail(String key, T defaultValue, LDValueType requiredType,
+                                           Function<LDValue, T> convert) {
+        if (!state.isValid()) {
+            return EvaluationDetail.fromValue(defaultValue, EvaluationDetail.NO_VARIATION,
+                EvaluationReason.error(EvaluationReason.ErrorKind.CLIENT_NOT_READY));
+        }
+        if (!values.containsKey(key)) {
+            return EvaluationDetail.fromValue(defaultValue, EvaluationDetail.NO_VARIATION,
+                EvaluationReason.error(EvaluationReason.ErrorKind.FLAG_NOT_FOUND));
+        }
+        LDValue value = LDValue.normalize(values.get(key));
+        EvaluationReason reason = state.getFlagReason(key);
+        if (value.isNull() && requiredType != null) {
+            return EvaluationDetail.fromValue(defaultValue, EvaluationDetail.NO_VARIATION, reason);
+        }
+        if (requiredType != null && value.getType() != requiredType) {
+            return EvaluationDetail.fromValue(defaultValue, EvaluationDetail.NO_VARIATION,
+                EvaluationReason.error(EvaluationReason.ErrorKind.WRONG_TYPE));
+        }
+        return EvaluationDetail.fromValue(convert.apply(value), variationOf(key), reason);
+    }
+
+    private int variationOf(String key) {
+        Map<String, Integer> current = variations;
+        if (current == null) {
+            // Concurrent first uses may both read the state, which is harmless as the result is the same.
+            current = FlagsStateVariations.read(state);
+            variations = current;
+        }
+        return current.getOrDefault(key, EvaluationDetail.NO_VARIATION);
+    }
+}
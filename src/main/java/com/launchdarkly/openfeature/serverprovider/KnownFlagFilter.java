@@ -0,0 +1,180 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.server.FeatureFlagsState;
+import com.launchdarkly.sdk.server.interfaces.DataStoreStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the set of flag keys which exist in the environment, so that evaluations of unknown keys can be rejected
+ * without converting the context or evaluating the flag.
+ * <p>
+ * The set is populated from the client when the provider becomes ready, and then kept current using flag change
+ * notifications. Until it has been populated, every key is treated as known.
+ * <p>
+ * A persistent data store may be updated without change notifications, for instance by another process writing a
+ * shared flag store, or by a relay in daemon mode. With a persistent store, a key which is not in the set is
+ * confirmed with the client before it is rejected, and a confirmed miss is remembered for a second, so that repeated evaluations of an unknown key do not each read the store. The
+ * in-memory store is only updated by the client's data source, which sends notifications, so misses are rejected
+ * without confirmation.
+ */
+class KnownFlagFilter {
+    /**
+     * Context used to list the flags in the environment. No events are generated for it.
+     */
+    static final LDContext LISTING_CONTEXT = LDContext.create("launchdarkly-openfeature-known-flags");
+
+    /**
+     * An unknown key is logged the first time it is seen, and then once per this many evaluations.
+     */
+    private static final long LOG_INTERVAL = 1000;
+
+    /**
+     * The maximum number of distinct unknown keys that are counted individually.
+     */
+    private static final int MAX_TRACKED_UNKNOWN_KEYS = 1000;
+
+    /**
+     * How long a key confirmed to be missing from a persistent store is rejected without reading the store again.
+     * This matches the time in which a shared flag store reader picks up changes.
+     */
+    static final long CONFIRMED_MISS_TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LDLogger logger;
+    private final ProviderMetrics metrics;
+
+    private volatile Set<String> knownKeys;
+
+    /**
+     * True if misses must be confirmed with the client, because its data store may change without notifications.
+     */
+    private volatile boolean confirmMisses;
+
+    /**
+     * When each recently confirmed miss expires, in {@link System#nanoTime()} terms. Bounded by clearing it when it
+     * is full.
+     */
+    private final ConcurrentHashMap<String, Long> confirmedMisses = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+
+    /**
+     * Keys changed while {@link #populate} was listing flags, which must be applied to the listed keys. Null when
+     * no listing is in progress. Guarded by {@link #lock}.
+     */
+    private Set<String> changedWhilePopulating;
+
+    KnownFlagFilter(LDLogger logger, ProviderMetrics metrics) {
+        this.logger = logger;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Replace the set of known keys with the flags currently in the client.
+     *
+     * @param client the client to list flags from
+     */
+    void populate(LDClientInterface client) {
+        synchronized (lock) {
+            changedWhilePopulating = new HashSet<>();
+        }
+        DataStoreStatusProvider storeStatus = client.getDataStoreStatusProvider();
+        // Status monitoring is supported by persistent stores, and not by the in-memory store. When it is not known,
+        // assume the store may change without notifications.
+        confirmMisses = storeStatus == null || storeStatus.isStatusMonitoringEnabled();
+        confirmedMisses.clear();
+        FeatureFlagsState state = client.allFlagsState(LISTING_CONTEXT);
+        synchronized (lock) {
+            Set<String> changed = changedWhilePopulating;
+            changedWhilePopulating = null;
+            if (state == null || !state.isValid()) {
+                // The client cannot list its flags, for instance because it is offline. Do not filter anything.
+                knownKeys = null;
+                return;
+            }
+            Set<String> keys = ConcurrentHashMap.newKeySet();
+            keys.addAll(state.toValuesMap().keySet());
+            if (changed != null) {
+                // The listing may predate these changes.
+                for (String flagKey : changed) {
+                    apply(keys, flagKey, client);
+                }
+            }
+            knownKeys = keys;
+        }
+    }
+
+    /**
+     * Update the set of known keys in response to a flag change, which may be an addition or a deletion.
+     *
+     * @param flagKey the key of the changed flag
+     * @param client  the client, used to determine if the flag still exists
+     */
+    void flagChanged(String flagKey, LDClientInterface client) {
+        confirmedMisses.remove(flagKey);
+        synchronized (lock) {
+            if (changedWhilePopulating != null) {
+                changedWhilePopulating.add(flagKey);
+            }
+            Set<String> keys = knownKeys;
+            if (keys != null) {
+                apply(keys, flagKey, client);
+            }
+        }
+    }
+
+    private static void apply(Set<String> keys, String flagKey, LDClientInterface client) {
+        if (client.isFlagKnown(flagKey)) {
+            keys.add(flagKey);
+        } else {
+            keys.remove(flagKey);
+        }
+    }
+
+    /**
+     * @param flagKey the key to check
+     * @param client  the client, used to confirm a key which is not in the set
+     * @return false if the key is definitely not a flag in the environment
+     */
+    boolean isKnown(String flagKey, LDClientInterface client) {
+        Set<String> keys = knownKeys;
+        if (keys == null || keys.contains(flagKey)) return true;
+        if (confirmMisses && !isConfirmedMiss(flagKey)) {
+            if (client.isFlagKnown(flagKey)) {
+                // The flag was added without a change notification.
+                keys.add(flagKey);
+                return true;
+            }
+            if (confirmedMisses.size() >= MAX_TRACKED_UNKNOWN_KEYS) {
+                confirmedMisses.clear();
+            }
+            confirmedMisses.put(flagKey, System.nanoTime() + CONFIRMED_MISS_TTL_NANOS);
+        }
+
+        metrics.unknownFlagEvaluations.increment();
+        LongAdder count = metrics.unknownFlagKeys.get(flagKey);
+        if (count == null && metrics.unknownFlagKeys.size() < MAX_TRACKED_UNKNOWN_KEYS) {
+            count = metrics.unknownFlagKeys.computeIfAbsent(flagKey, ignored -> new LongAdder());
+        }
+        if (count == null) return false;
+
+        count.increment();
+        long seen = count.sum();
+        if (seen == 1 || seen % LOG_INTERVAL == 0) {
+            logger.warn("Evaluation of unknown flag key \"{}\" (seen {} times)", flagKey, seen);
+        }
+        return false;
+    }
+
+    private boolean isConfirmedMiss(String flagKey) {
+        Long expiresAt = confirmedMisses.get(flagKey);
+        return expiresAt != null && System.nanoTime() - expiresAt < 0;
+    }
+}
@@ -1,29 +1,75 @@
 package com.launchdarkly.openfeature.serverprovider;
 
 import com.launchdarkly.logging.LDLogger;
-import com.launchdarkly.sdk.ArrayBuilder;
 import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.LDValueType;
 import dev.openfeature.sdk.ImmutableStructure;
 import dev.openfeature.sdk.Value;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.Map;
 
 /**
  * Provides methods for converting an LDValue into an OpenFeature Value.
+ * <p>
+ * Conversion is a single pass, and values which exceed the {@link ConversionLimits} are converted to null with an
+ * error logged, rather than converted in full.
  */
 public class LDValueConverter {
     private final LDLogger logger;
+    private final ConversionLimits limits;
 
+    /**
+     * Create a converter with the default limits.
+     *
+     * @param logger the logger to report conversion errors to
+     */
     public LDValueConverter(LDLogger logger) {
+        this(logger, ConversionLimits.NONE);
+    }
+
+    LDValueConverter(LDLogger logger, ConversionLimits limits) {
         this.logger = logger;
+        this.limits = limits;
     }
 
+    /**
+     * Convert an LDValue into an OpenFeature Value.
+     *
+     * @param value the value to convert
+     * @return the converted value, or a null value if it could not be converted
+     */
     public Value toValue(LDValue value) {
-        switch(value.getType()) {
+        try {
+            return toValueWithinLimits(value);
+        } catch (ConversionLimits.LimitExceeded e) {
+            logger.error("Could not convert LDValue to a Value, because {}. Returning a new Value(null).",
+                e.getMessage());
+            return new Value();
+        }
+    }
+
+    /**
+     * Convert an LDValue into an OpenFeature Value, failing if it exceeds the limits.
+     *
+     * @param value the value to convert
+     * @return the converted value
+     * @throws ConversionLimits.LimitExceeded if the value exceeds the limits
+     */
+    Value toValueWithinLimits(LDValue value) {
+        switch (value.getType()) {
+            case ARRAY:
+            case OBJECT:
+                return convert(value, 0, limits.newBudget());
+            default:
+                return convertScalar(value);
+        }
+    }
+
+    private Value convertScalar(LDValue value) {
+        switch (value.getType()) {
             case NULL:
                 return new Value();
             case BOOLEAN:
@@ -31,34 +77,43 @@ public class LDValueConverter {
             case NUMBER:
                 return new Value(value.doubleValue());
             case STRING:
+                limits.checkString(value.stringValue());
                 return new Value(value.stringValue());
-            case ARRAY:
-                return new Value(StreamSupport.stream(value.values().spliterator(), false)
-                        .map(this::toValue)
-                        .collect(Collectors.toList()));
-            case OBJECT:
-                List<String> keys = new ArrayList();
-                value.keys().forEach(keys::add);
-
-                List<LDValue> values = new ArrayList();
-                value.values().forEach(values::add);
+            default:
+                logger.error("Unrecognized type converting result. Returning a new Value(null).");
+                // Will only happen if new types are added.
+                return new Value();
+        }
+    }
 
-                if(keys.size() != values.size()) {
-                    logger.error("Could not get Object representation from LDValue. Returning a new Value(null).");
-                    return new Value();
+    private Value convert(LDValue value, int depth, ConversionLimits.Budget budget) {
+        switch (value.getType()) {
+            case ARRAY: {
+                budget.checkDepth(depth + 1);
+                List<Value> items = new ArrayList<>(value.size());
+                for (LDValue item : value.values()) {
+                    budget.addElement(sizeOf(item));
+                    items.add(convert(item, depth + 1, budget));
                 }
-
-                HashMap<String, Value> converted = new HashMap();
-                for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
-                    String key = keys.get(keyIndex);
-                    LDValue itemValue = values.get(keyIndex);
-                    converted.put(key, toValue(itemValue));
+                return new Value(items);
+            }
+            case OBJECT: {
+                budget.checkDepth(depth + 1);
+                // Sized so that the map does not resize while it is filled.
+                Map<String, Value> converted = new HashMap<>((int) (value.size() / 0.75f) + 1);
+                for (String key : value.keys()) {
+                    LDValue item = value.get(key);
+                    budget.addElement(key.length() + sizeOf(item));
+                    converted.put(key, convert(item, depth + 1, budget));
                 }
                 return new Value(new ImmutableStructure(converted));
+            }
             default:
-                logger.error("Unrecognized type converting result. Returning a new Value(null).");
-                // Will only happen if new types are added.
-                return new Value();
+                return convertScalar(value);
         }
     }
+
+    private static long sizeOf(LDValue value) {
+        return value.getType() == LDValueType.STRING ? value.stringValue().length() : 8;
+    }
 }
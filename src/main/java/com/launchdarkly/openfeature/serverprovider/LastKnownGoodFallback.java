@@ -0,0 +1,167 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.LDContext;
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.Reason;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the time spent in an evaluation, and answers evaluations which cannot be performed in time from a cache
+ * of the last known good result for each flag, requested type and context.
+ * <p>
+ * Contexts are compared with all of their attributes, so contexts which share a key but differ in other attributes
+ * have separate results.
+ */
+class LastKnownGoodFallback {
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final Duration deadline;
+    private final int maxEntries;
+    private final Executor executor;
+    private final CircuitBreaker circuitBreaker;
+    private final ProviderMetrics metrics;
+
+    private final ConcurrentHashMap<CacheKey, ProviderEvaluation<?>> lastKnownGood = new ConcurrentHashMap<>();
+
+    LastKnownGoodFallback(ProviderOptions options, Executor executor, ProviderMetrics metrics) {
+        this.deadline = options.evaluationDeadline;
+        this.maxEntries = options.lastKnownGoodCacheSize > 0 ? options.lastKnownGoodCacheSize : DEFAULT_CACHE_SIZE;
+        this.executor = executor;
+        this.metrics = metrics;
+        this.circuitBreaker = new CircuitBreaker(options.circuitBreakerFailureThreshold,
+            options.circuitBreakerOpenDuration, metrics);
+    }
+
+    /**
+     * Perform an evaluation, falling back to the last known good result when required.
+     *
+     * @param flagKey      the flag key
+     * @param type         the type of value requested, which is part of the cache key
+     * @param context      the converted context, which is part of the cache key
+     * @param defaultValue the default value, used when there is no last known good result
+     * @param stale        true if the provider is currently STALE
+     * @param evaluation   performs the evaluation using the LaunchDarkly client
+     * @param <T>          the type of the evaluation result
+     * @return the evaluation result
+     */
+    <T> ProviderEvaluation<T> evaluate(String flagKey, Class<T> type, LDContext context, T defaultValue,
+                                       boolean stale, Supplier<ProviderEvaluation<T>> evaluation) {
+        CacheKey cacheKey = new CacheKey(flagKey, type, context);
+
+        if (stale) {
+            ProviderEvaluation<T> cached = getCached(cacheKey, type);
+            if (cached != null) return cached;
+        }
+
+        if (!circuitBreaker.allowRequest()) {
+            metrics.circuitBreakerRejected.increment();
+            ProviderEvaluation<T> cached = getCached(cacheKey, type);
+            return cached != null ? cached : errorResult(defaultValue,
+                "The evaluation was not attempted because recent evaluations exceeded their deadline.");
+        }
+
+        if (deadline == null) {
+            ProviderEvaluation<T> result = evaluation.get();
+            remember(cacheKey, result);
+            return result;
+        }
+
+        CompletableFuture<ProviderEvaluation<T>> pending = CompletableFuture.supplyAsync(evaluation, executor);
+        try {
+            ProviderEvaluation<T> result = pending.get(deadline.toNanos(), TimeUnit.NANOSECONDS);
+            circuitBreaker.recordSuccess();
+            remember(cacheKey, result);
+            return result;
+        } catch (TimeoutException e) {
+            metrics.deadlinesExceeded.increment();
+            circuitBreaker.recordFailure();
+            // Let the evaluation finish in the background, so that its result is available next time.
+            pending.thenAccept(result -> remember(cacheKey, result));
+            ProviderEvaluation<T> cached = getCached(cacheKey, type);
+            return cached != null ? cached : errorResult(defaultValue,
+                "The evaluation did not complete within " + deadline.toMillis() + "ms.");
+        } catch (InterruptedException e) {
+            // This may have been the breaker's trial evaluation, which must be released. The evaluation did not show
+            // that the client has recovered, so it counts as a failure.
+            circuitBreaker.recordFailure();
+            Thread.currentThread().interrupt();
+            return errorResult(defaultValue, "The evaluation was interrupted.");
+        } catch (ExecutionException e) {
+            circuitBreaker.recordSuccess();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private <T> void remember(CacheKey cacheKey, ProviderEvaluation<T> result) {
+        if (result.getErrorCode() != null) return;
+
+        if (lastKnownGood.size() >= maxEntries && !lastKnownGood.containsKey(cacheKey)) {
+            // Approximate bound: evict whichever entry the iterator yields first.
+            Iterator<CacheKey> keys = lastKnownGood.keySet().iterator();
+            if (keys.hasNext()) {
+                lastKnownGood.remove(keys.next());
+            }
+        }
+        lastKnownGood.put(cacheKey, result);
+    }
+
+    private <T> ProviderEvaluation<T> getCached(CacheKey cacheKey, Class<T> type) {
+        ProviderEvaluation<?> cached = lastKnownGood.get(cacheKey);
+        // The type is part of the key, so this only fails if a result had an unexpected value, such as null.
+        if (cached == null || !type.isInstance(cached.getValue())) return null;
+
+        metrics.lastKnownGoodServed.increment();
+        return ProviderEvaluation.<T>builder()
+            .value(type.cast(cached.getValue()))
+            .variant(cached.getVariant())
+            .reason(Reason.STALE.toString())
+            .build();
+    }
+
+    private static <T> ProviderEvaluation<T> errorResult(T defaultValue, String message) {
+        return ProviderEvaluation.<T>builder()
+            .value(defaultValue)
+            .reason(Reason.ERROR.toString())
+            .errorCode(ErrorCode.GENERAL)
+            .errorMessage(message)
+            .build();
+    }
+
+    private static final class CacheKey {
+        final String flagKey;
+        final Class<?> type;
+        final LDContext context;
+
+        CacheKey(String flagKey, Class<?> type, LDContext context) {
+            this.flagKey = flagKey;
+            this.type = type;
+            this.context = context;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof CacheKey)) return false;
+            CacheKey key = (CacheKey) other;
+            return flagKey.equals(key.flagKey) && type == key.type && context.equals(key.context);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(flagKey, type, context);
+        }
+    }
+}
@@ -0,0 +1,668 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.DataKind;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.FullDataSet;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.KeyedItems;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.SerializedItemDescriptor;
+import com.launchdarkly.sdk.server.subsystems.PersistentDataStore;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * A {@link PersistentDataStore} which shares flag data between processes on a single host through a memory-mapped
+ * file.
+ * <p>
+ * One process opens the file as the writer, and stores the data it receives from LaunchDarkly. Any number of
+ * processes open it as readers. Items are read in place from the mapping, through an index of their offsets, so the
+ * only copy of the data on the host is the file itself, apart from the SDK's own caches.
+ * <p>
+ * Readers never lock: the writer publishes each change using a sequence number in the file header, which is odd
+ * while a write is in progress, and readers retry a read which overlapped a write. The writer holds an exclusive
+ * lock on the file for as long as it is open. A reader which finds a write in progress for longer than it takes to
+ * spin briefly checks that lock; if the writer has gone, or has not finished the write within a second, the reader
+ * stops waiting for that write and reads the data as it was left, logging this once.
+ * <p>
+ * File layout, in native byte order:
+ * <pre>
+ * offset 0   int   magic number
+ * offset 8   long  sequence number
+ * offset 16  int   1 if the store has been initialized
+ * offset 20  int   number of index slots, a power of two
+ * offset 24  long  offset of the end of the records
+ * offset 32  long  index slots, each the offset of a record, or 0 if empty
+ * ...        ...   records
+ * </pre>
+ * Each record is an item's kind, key, version, deleted flag, and serialized form. Strings are length-prefixed UTF-8,
+ * with a length of -1 for null. The index is an open-addressed hash table on the kind and key, probed linearly.
+ * <p>
+ * An upsert appends a record, then points the item's index slot at it, so it costs the size of the item rather than
+ * the size of the data set, and a writer which stops part way through an upsert leaves consistent data. Replaced
+ * records are garbage; once the garbage outgrows the live records, or the index is half full, the writer rewrites
+ * the records and the index, which keeps the cost of upserts amortized to the size of the item. A full data set
+ * from {@code init} is written the same way, and the store is marked uninitialized until that rewrite completes.
+ */
+class MappedFileDataStore implements PersistentDataStore {
+    private static final int MAGIC = 0x4C444F32; // "LDO2"
+    private static final int MAGIC_OFFSET = 0;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int INITIALIZED_OFFSET = 16;
+    private static final int SLOT_COUNT_OFFSET = 20;
+    private static final int DATA_END_OFFSET = 24;
+    private static final int INDEX_OFFSET = 32;
+    private static final int INITIAL_SIZE = 1024 * 1024;
+    private static final int MIN_SLOT_COUNT = 256;
+    private static final long MIN_COMPACTION_GARBAGE = 64 * 1024;
+
+    /**
+     * How many times a reader spins on a write in progress before it checks whether the writer is still there.
+     */
+    private static final int SPIN_ATTEMPTS = 1000;
+
+    /**
+     * How long a reader waits for a live writer to finish a write before it reads the data as it is.
+     */
+    private static final long WRITE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long WRITE_WAIT_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * A reader briefly holds a shared lock while it checks for the writer, so the writer retries its lock a few
+     * times before concluding that another writer has the file.
+     */
+    private static final int WRITER_LOCK_ATTEMPTS = 10;
+
+    private static final VarHandle LONG_VIEW =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path path;
+    private final boolean writer;
+    private final LDLogger logger;
+    private final FileLock writerLock;
+
+    // Readers open the file lazily, because the writer may not have created it yet.
+    private volatile FileChannel channel;
+
+    private volatile MappedByteBuffer mapped;
+
+    // The writer's state. Only accessed while synchronized on this store.
+    private long sequence;
+    private boolean writerInitialized;
+    private int itemCount;
+    private long liveBytes;
+
+    /**
+     * The odd sequence number of a write which readers have stopped waiting for, because the writer has gone or
+     * stalled, or -1.
+     */
+    private volatile long abandonedSequence = -1;
+
+    /**
+     * The sequence number of the last data which a reader found to be corrupt, so that it is only reported once.
+     */
+    private volatile long corruptSequence = -1;
+
+    MappedFileDataStore(Path path, boolean writer, LDLogger logger) throws IOException {
+        this.path = path;
+        this.writer = writer;
+        this.logger = logger;
+        if (writer) {
+            this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.writerLock = lockForWriting(channel);
+            if (writerLock == null) {
+                channel.close();
+                throw new IOException("Another process is already writing the shared flag store at " + path);
+            }
+            this.mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_SIZE, channel.size()));
+            this.mapped.order(ByteOrder.nativeOrder());
+            // Start from whatever sequence a previous writer left, so that readers notice the first write.
+            sequence = ((long) LONG_VIEW.getVolatile(mapped, SEQUENCE_OFFSET) + 1) & ~1L;
+            if (mapped.getInt(MAGIC_OFFSET) != MAGIC || !countExisting()) {
+                reset();
+            }
+        } else {
+            this.writerLock = null;
+            remapForRead();
+        }
+    }
+
+    private static FileLock lockForWriting(FileChannel channel) throws IOException {
+        for (int attempt = 0; attempt < WRITER_LOCK_ATTEMPTS; attempt++) {
+            FileLock lock = channel.tryLock();
+            if (lock != null) return lock;
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void init(FullDataSet<SerializedItemDescriptor> allData) {
+        if (!writer) return;
+
+        List<Record> records = new ArrayList<>();
+        for (Map.Entry<DataKind, KeyedItems<SerializedItemDescriptor>> kindData : allData.getData()) {
+            String kind = kindData.getKey().getName();
+            for (Map.Entry<String, SerializedItemDescriptor> item : kindData.getValue().getItems()) {
+                records.add(new Record(kind, item.getKey(), item.getValue()));
+            }
+        }
+        writerInitialized = true;
+        rewrite(records, true);
+    }
+
+    @Override
+    public SerializedItemDescriptor get(DataKind kind, String key) {
+        ItemKey itemKey = new ItemKey(kind.getName(), key);
+        if (writer) {
+            synchronized (this) {
+                return find(mapped, itemKey);
+            }
+        }
+        return readConsistently(buffer -> find(buffer, itemKey), null);
+    }
+
+    @Override
+    public KeyedItems<SerializedItemDescriptor> getAll(DataKind kind) {
+        List<Record> records;
+        if (writer) {
+            synchronized (this) {
+                records = readRecords(mapped);
+            }
+        } else {
+            records = readConsistently(MappedFileDataStore::readRecords, Collections.emptyList());
+        }
+        List<Map.Entry<String, SerializedItemDescriptor>> items = new ArrayList<>();
+        for (Record record : records) {
+            if (record.kind.equals(kind.getName())) {
+                items.add(new AbstractMap.SimpleEntry<>(record.key, record.item));
+            }
+        }
+        return new KeyedItems<>(items);
+    }
+
+    @Override
+    public synchronized boolean upsert(DataKind kind, String key, SerializedItemDescriptor item) {
+        if (!writer) return false;
+
+        ItemKey itemKey = new ItemKey(kind.getName(), key);
+        int slot = findSlot(mapped, itemKey);
+        long existing = slot >= 0 ? mapped.getLong(slotOffset(slot)) : 0;
+        if (existing != 0 && readRecord(mapped, (int) existing).item.getVersion() >= item.getVersion()) {
+            return false;
+        }
+
+        byte[] record = encode(itemKey, item);
+        int slotCount = mapped.getInt(SLOT_COUNT_OFFSET);
+        long dataEnd = mapped.getLong(DATA_END_OFFSET);
+        long replacedBytes = existing != 0 ? recordSize(mapped, (int) existing) : 0;
+        long updatedLiveBytes = liveBytes - replacedBytes + record.length;
+        long garbage = dataEnd - dataStart(slotCount) - liveBytes + replacedBytes;
+        if (slot < 0 || (existing == 0 && (itemCount + 1) * 2L > slotCount)
+            || garbage > updatedLiveBytes + MIN_COMPACTION_GARBAGE) {
+            List<Record> records = readRecords(mapped);
+            records.removeIf(current -> current.kind.equals(itemKey.kind) && current.key.equals(itemKey.key));
+            records.add(new Record(itemKey.kind, itemKey.key, item));
+            rewrite(records, mapped.getInt(INITIALIZED_OFFSET) == 1);
+            return true;
+        }
+        if (!ensureCapacity(dataEnd + record.length)) {
+            return false;
+        }
+
+        beginWrite();
+        ByteBuffer target = mapped.duplicate();
+        target.position((int) dataEnd);
+        target.put(record);
+        // Extend the records before pointing the index at the new one, so that a writer which stops between the two
+        // leaves only garbage.
+        mapped.putLong(DATA_END_OFFSET, dataEnd + record.length);
+        mapped.putLong(slotOffset(slot), dataEnd);
+        endWrite();
+
+        if (existing == 0) {
+            itemCount++;
+        }
+        liveBytes = updatedLiveBytes;
+        return true;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        if (writer) {
+            // Data left in the file by a previous writer is still served to readers, but this writer does not have
+            // it until it receives a full data set.
+            synchronized (this) {
+                return writerInitialized;
+            }
+        }
+        return readConsistently(buffer -> buffer.getInt(INITIALIZED_OFFSET) == 1, false);
+    }
+
+    @Override
+    public boolean isStoreAvailable() {
+        return writer || channel != null || Files.exists(path);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writerLock != null) {
+            writerLock.release();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Mark a write as in progress. Must be called while synchronized on this store.
+     */
+    private void beginWrite() {
+        // An odd sequence number tells readers that a write is in progress.
+        LONG_VIEW.setVolatile(mapped, SEQUENCE_OFFSET, ++sequence);
+        // The writes which follow are plain stores, which must not become visible before the odd sequence number.
+        VarHandle.storeStoreFence();
+    }
+
+    private void endWrite() {
+        LONG_VIEW.setVolatile(mapped, SEQUENCE_OFFSET, ++sequence);
+    }
+
+    /**
+     * Empty the file, for a writer which finds no usable data in it.
+     */
+    private void reset() {
+        beginWrite();
+        mapped.putInt(INITIALIZED_OFFSET, 0);
+        mapped.putInt(SLOT_COUNT_OFFSET, 0);
+        mapped.putLong(DATA_END_OFFSET, INDEX_OFFSET);
+        mapped.putInt(MAGIC_OFFSET, MAGIC);
+        endWrite();
+        itemCount = 0;
+        liveBytes = 0;
+    }
+
+    /**
+     * Count the items left in the file by a previous writer, so that this writer knows when to compact it.
+     *
+     * @return false if the data cannot be read
+     */
+    private boolean countExisting() {
+        try {
+            List<Record> records = readRecords(mapped);
+            long bytes = 0;
+            for (Record record : records) {
+                bytes += encode(new ItemKey(record.kind, record.key), record.item).length;
+            }
+            itemCount = records.size();
+            liveBytes = bytes;
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Write a complete set of records, with a new index. Must be called while synchronized on this store.
+     */
+    private void rewrite(List<Record> records, boolean initialized) {
+        int slotCount = MIN_SLOT_COUNT;
+        while (slotCount < records.size() * 2L) {
+            slotCount *= 2;
+        }
+        List<byte[]> encoded = new ArrayList<>(records.size());
+        long total = 0;
+        for (Record record : records) {
+            byte[] bytes = encode(new ItemKey(record.kind, record.key), record.item);
+            encoded.add(bytes);
+            total += bytes.length;
+        }
+        if (!ensureCapacity(dataStart(slotCount) + total)) {
+            return;
+        }
+
+        beginWrite();
+        // Readers which find the writer gone part way through a rewrite treat the store as uninitialized.
+        mapped.putInt(INITIALIZED_OFFSET, 0);
+        for (int slot = 0; slot < slotCount; slot++) {
+            mapped.putLong(slotOffset(slot), 0);
+        }
+        mapped.putInt(SLOT_COUNT_OFFSET, slotCount);
+        // Set the end first, so that probing the index accepts the offsets of the records written below.
+        mapped.putLong(DATA_END_OFFSET, dataStart(slotCount) + total);
+        ByteBuffer target = mapped.duplicate();
+        long end = dataStart(slotCount);
+        target.position((int) end);
+        for (int i = 0; i < records.size(); i++) {
+            Record record = records.get(i);
+            int slot = findSlot(mapped, new ItemKey(record.kind, record.key));
+            target.put(encoded.get(i));
+            mapped.putLong(slotOffset(slot), end);
+            end += encoded.get(i).length;
+        }
+        mapped.putInt(INITIALIZED_OFFSET, initialized ? 1 : 0);
+        endWrite();
+
+        itemCount = records.size();
+        liveBytes = total;
+    }
+
+    private boolean ensureCapacity(long required) {
+        if (required <= mapped.capacity()) return true;
+        if (required > Integer.MAX_VALUE) {
+            logger.error("The shared flag store at {} cannot grow beyond 2GB", path);
+            return false;
+        }
+        try {
+            long size = mapped.capacity();
+            while (size < required) {
+                size *= 2;
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, Integer.MAX_VALUE));
+            mapped.order(ByteOrder.nativeOrder());
+            return true;
+        } catch (IOException e) {
+            logger.error("Unable to grow the shared flag store at {}: {}", path, e);
+            return false;
+        }
+    }
+
+    /**
+     * Read from the file as a reader, retrying reads which overlap a write.
+     *
+     * @param read     reads from the mapping; it may fail if it overlaps a write
+     * @param fallback the result if the file cannot be read
+     */
+    private <T> T readConsistently(Function<MappedByteBuffer, T> read, T fallback) {
+        MappedByteBuffer buffer = mapped;
+        if (buffer == null) {
+            buffer = remapForRead();
+            if (buffer == null) return fallback;
+        }
+
+        int spins = 0;
+        long waitStarted = 0;
+        boolean waiting = false;
+        while (true) {
+            long before = (long) LONG_VIEW.getVolatile(buffer, SEQUENCE_OFFSET);
+            if ((before & 1) != 0) {
+                if (before != abandonedSequence) {
+                    if (spins++ < SPIN_ATTEMPTS) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    if (!waiting) {
+                        waiting = true;
+                        waitStarted = System.nanoTime();
+                    }
+                    boolean writerGone = !isWriterAlive();
+                    if (!writerGone && System.nanoTime() - waitStarted < WRITE_WAIT_NANOS) {
+                        LockSupport.parkNanos(WRITE_WAIT_PARK_NANOS);
+                        continue;
+                    }
+                    abandonedSequence = before;
+                    logger.warn(writerGone
+                        ? "The writer of the shared flag store at {} stopped part way through a write; using the data "
+                            + "as it was left"
+                        : "A write to the shared flag store at {} has not finished within a second; using the data "
+                            + "as it is", path);
+                }
+                // No write is making progress, so there is nothing to retry for.
+                try {
+                    return fits(buffer) ? read.apply(buffer) : fallback;
+                } catch (RuntimeException e) {
+                    return fallback;
+                }
+            }
+
+            if (!fits(buffer)) {
+                // The writer has grown the file since we mapped it, or we read a torn header.
+                buffer = remapForRead();
+                if (buffer == null) return fallback;
+                continue;
+            }
+            T result;
+            boolean failed = false;
+            try {
+                result = read.apply(buffer);
+            } catch (RuntimeException e) {
+                // A read which overlaps a write can follow a torn offset; if it did, the sequence has changed.
+                result = fallback;
+                failed = true;
+            }
+
+            // The reads above are plain loads, which must complete before the sequence number is read again.
+            VarHandle.loadLoadFence();
+            long after = (long) LONG_VIEW.getVolatile(buffer, SEQUENCE_OFFSET);
+            if (before == after) {
+                if (failed && corruptSequence != after) {
+                    corruptSequence = after;
+                    logger.error("The shared flag store at {} is corrupt", path);
+                }
+                return result;
+            }
+        }
+    }
+
+    /**
+     * @return true if the writer still holds its lock on the file
+     */
+    private boolean isWriterAlive() {
+        try (FileLock lock = channel.tryLock(0, Long.MAX_VALUE, true)) {
+            return lock == null;
+        } catch (OverlappingFileLockException e) {
+            // The lock is held within this process, by the writer or by another reader checking for it.
+            return true;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * @return true if the index and records described by the header are within the mapping
+     */
+    private static boolean fits(MappedByteBuffer buffer) {
+        int slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+        long dataEnd = buffer.getLong(DATA_END_OFFSET);
+        return slotCount >= 0 && dataEnd >= dataStart(slotCount) && dataEnd <= buffer.capacity();
+    }
+
+    private synchronized MappedByteBuffer remapForRead() {
+        try {
+            if (channel == null) {
+                if (!Files.exists(path)) return null;
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            long size = channel.size();
+            if (size < INDEX_OFFSET) return null;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+            buffer.order(ByteOrder.nativeOrder());
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+                logger.error("The file at {} is not a shared flag store", path);
+                return null;
+            }
+            mapped = buffer;
+            return buffer;
+        } catch (IOException e) {
+            logger.error("Unable to map the shared flag store at {}: {}", path, e);
+            return null;
+        }
+    }
+
+    private static long dataStart(int slotCount) {
+        return INDEX_OFFSET + (long) slotCount * Long.BYTES;
+    }
+
+    private static int slotOffset(int slot) {
+        return INDEX_OFFSET + slot * Long.BYTES;
+    }
+
+    /**
+     * Find the index slot which holds an item, or the empty slot where it would be added.
+     *
+     * @return the slot, or -1 if the index is full or has no slots
+     */
+    private static int findSlot(ByteBuffer buffer, ItemKey itemKey) {
+        int slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1) return -1;
+        int mask = slotCount - 1;
+        int slot = itemKey.hash & mask;
+        for (int probe = 0; probe < slotCount; probe++) {
+            long offset = buffer.getLong(slotOffset(slot));
+            if (offset == 0 || matches(buffer, checkedOffset(buffer, offset, slotCount), itemKey)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static SerializedItemDescriptor find(ByteBuffer buffer, ItemKey itemKey) {
+        int slot = findSlot(buffer, itemKey);
+        if (slot < 0) return null;
+        long offset = buffer.getLong(slotOffset(slot));
+        return offset != 0 ? readRecord(buffer, (int) offset).item : null;
+    }
+
+    private static List<Record> readRecords(ByteBuffer buffer) {
+        int slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+        List<Record> records = new ArrayList<>();
+        for (int slot = 0; slot < slotCount; slot++) {
+            long offset = buffer.getLong(slotOffset(slot));
+            if (offset != 0) {
+                records.add(readRecord(buffer, checkedOffset(buffer, offset, slotCount)));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Check that a record offset read from the index lies within the records.
+     */
+    private static int checkedOffset(ByteBuffer buffer, long offset, int slotCount) {
+        if (offset < dataStart(slotCount) || offset >= buffer.getLong(DATA_END_OFFSET)) {
+            throw new IllegalStateException("Record offset " + offset + " is outside the records");
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Compare a record's kind and key with an item key, without decoding them.
+     */
+    private static boolean matches(ByteBuffer buffer, int offset, ItemKey itemKey) {
+        int kindLength = buffer.getInt(offset);
+        if (kindLength != itemKey.kindBytes.length) return false;
+        int keyOffset = offset + Integer.BYTES + kindLength;
+        int keyLength = buffer.getInt(keyOffset);
+        if (keyLength != itemKey.keyBytes.length) return false;
+        return equalBytes(buffer, offset + Integer.BYTES, itemKey.kindBytes)
+            && equalBytes(buffer, keyOffset + Integer.BYTES, itemKey.keyBytes);
+    }
+
+    private static boolean equalBytes(ByteBuffer buffer, int offset, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(offset + i) != expected[i]) return false;
+        }
+        return true;
+    }
+
+    private static Record readRecord(ByteBuffer buffer, int offset) {
+        // A duplicate is big-endian whatever the order of the original.
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.nativeOrder());
+        in.position(offset);
+        String kind = readString(in);
+        String key = readString(in);
+        int version = in.getInt();
+        boolean deleted = in.get() != 0;
+        String serialized = readString(in);
+        return new Record(kind, key, new SerializedItemDescriptor(version, deleted, serialized));
+    }
+
+    private static int recordSize(ByteBuffer buffer, int offset) {
+        int kindLength = buffer.getInt(offset);
+        int keyOffset = offset + Integer.BYTES + kindLength;
+        int keyLength = buffer.getInt(keyOffset);
+        int serializedOffset = keyOffset + Integer.BYTES + keyLength + Integer.BYTES + 1;
+        int serializedLength = buffer.getInt(serializedOffset);
+        return serializedOffset + Integer.BYTES + Math.max(0, serializedLength) - offset;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        if (length > in.remaining()) {
+            throw new IllegalStateException("String length " + length + " is outside the records");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(ItemKey itemKey, SerializedItemDescriptor item) {
+        byte[] serialized = item.getSerializedItem() != null
+            ? item.getSerializedItem().getBytes(StandardCharsets.UTF_8)
+            : null;
+        ByteBuffer out = ByteBuffer.allocate(Integer.BYTES * 4 + 1 + itemKey.kindBytes.length
+            + itemKey.keyBytes.length + (serialized != null ? serialized.length : 0));
+        out.order(ByteOrder.nativeOrder());
+        out.putInt(itemKey.kindBytes.length).put(itemKey.kindBytes);
+        out.putInt(itemKey.keyBytes.length).put(itemKey.keyBytes);
+        out.putInt(item.getVersion());
+        out.put((byte) (item.isDeleted() ? 1 : 0));
+        if (serialized != null) {
+            out.putInt(serialized.length).put(serialized);
+        } else {
+            out.putInt(-1);
+        }
+        return out.array();
+    }
+
+    private static final class ItemKey {
+        final String kind;
+        final String key;
+        final byte[] kindBytes;
+        final byte[] keyBytes;
+        final int hash;
+
+        ItemKey(String kind, String key) {
+            this.kind = kind;
+            this.key = key;
+            this.kindBytes = kind.getBytes(StandardCharsets.UTF_8);
+            this.keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            // String.hashCode is specified, so every process computes the same slot.
+            int h = 31 * kind.hashCode() + key.hashCode();
+            this.hash = h ^ (h >>> 16);
+        }
+    }
+
+    private static final class Record {
+        final String kind;
+        final String key;
+        final SerializedItemDescriptor item;
+
+        Record(String kind, String key, SerializedItemDescriptor item) {
+            this.kind = kind;
+            this.key = key;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.subsystems.ClientContext;
+import com.launchdarkly.sdk.server.subsystems.ComponentConfigurer;
+import com.launchdarkly.sdk.server.subsystems.PersistentDataStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Builds a {@link MappedFileDataStore} for a client.
+ */
+class MappedFileDataStoreConfigurer implements ComponentConfigurer<PersistentDataStore> {
+    private final Path path;
+    private final boolean writer;
+
+    MappedFileDataStoreConfigurer(Path path, boolean writer) {
+        this.path = path;
+        this.writer = writer;
+    }
+
+    @Override
+    public PersistentDataStore build(ClientContext clientContext) {
+        try {
+            return new MappedFileDataStore(path, writer, clientContext.getBaseLogger());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.EventProvider;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.Metadata;
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.ProviderEventDetails;
+import dev.openfeature.sdk.ProviderState;
+import dev.openfeature.sdk.Reason;
+import dev.openfeature.sdk.Value;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * An OpenFeature {@link dev.openfeature.sdk.FeatureProvider} which routes each evaluation to one of many
+ * LaunchDarkly environments, selected by an attribute of the evaluation context.
+ * <p>
+ * A {@link Provider} is created for an environment the first time the environment is evaluated, and it is shut down
+ * when it has not been used for the idle timeout, or when the maximum number of environments is exceeded, in which
+ * case the least recently used environment is evicted. Evaluations for an environment which is still initializing
+ * return a PROVIDER_NOT_READY error. An environment which does not finish initializing within the initialization
+ * timeout is shut down, and created again by its next evaluation.
+ * <pre><code>
+ * MultiEnvironmentProvider provider = new MultiEnvironmentProvider.Builder(
+ *         environment -&gt; sdkKeys.get(environment))
+ *     .environmentAttribute("tenant")
+ *     .maxEnvironments(100)
+ *     .build();
+ * OpenFeatureAPI.getInstance().setProvider(provider);
+ * </code></pre>
+ * <p>
+ * The provider is READY once it has been initialized. It is STALE while any environment's data source is
+ * interrupted, and returns to READY when all of them have recovered. Configuration change, stale, and error
+ * events are emitted for every environment, and their message names the environment.
+ */
+public class MultiEnvironmentProvider extends EventProvider {
+    private static final class MultiEnvironmentMetadata implements Metadata {
+        @Override
+        public String getName() {
+            return "LaunchDarkly.OpenFeature.ServerProvider.MultiEnvironment";
+        }
+    }
+
+    private static final class Environment {
+        final String name;
+        final Provider provider;
+        volatile long lastUsedNanos = System.nanoTime();
+
+        Environment(String name, Provider provider) {
+            this.name = name;
+            this.provider = provider;
+        }
+    }
+
+    private final Metadata metadata = new MultiEnvironmentMetadata();
+    private final String environmentAttribute;
+    private final Function<String, Provider> providerFactory;
+    private final int maxEnvironments;
+    private final long idleNanos;
+    private final Duration initializationTimeout;
+
+    private final ExecutorService lifecycleExecutor =
+        Executors.newCachedThreadPool(new DaemonThreadFactory("LaunchDarkly-OpenFeature-Environments"));
+    private final ScheduledExecutorService idleSweeper =
+        Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("LaunchDarkly-OpenFeature-IdleSweep"));
+
+    /**
+     * Environments in least recently used order. Guarded by itself.
+     */
+    private final LinkedHashMap<String, Environment> environments = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Environments whose data source is currently interrupted. Guarded by {@link #environments}.
+     */
+    private final List<String> staleEnvironments = new ArrayList<>();
+
+    private volatile ProviderState state = ProviderState.NOT_READY;
+
+    /**
+     * Set once the provider has been shut down, after which no environments are created. Guarded by
+     * {@link #environments} for writes.
+     */
+    private volatile boolean closed;
+
+    /**
+     * @param providerFactory creates the provider for an environment, or returns null if there is no SDK key for it
+     */
+    MultiEnvironmentProvider(String environmentAttribute, Function<String, Provider> providerFactory,
+                             int maxEnvironments, Duration idleTimeout, Duration initializationTimeout) {
+        this.environmentAttribute = environmentAttribute;
+        this.providerFactory = providerFactory;
+        this.maxEnvironments = maxEnvironments;
+        this.idleNanos = idleTimeout.toNanos();
+        this.initializationTimeout = initializationTimeout;
+        long sweepMillis = Math.max(1, idleTimeout.toMillis() / 2);
+        idleSweeper.scheduleWithFixedDelay(this::evictIdleEnvironments, sweepMillis, sweepMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public ProviderState getState() {
+        return state;
+    }
+
+    /**
+     * Get the state of an individual environment.
+     *
+     * @param environment the environment name
+     * @return the state of the environment's provider, or NOT_READY if the environment is not currently loaded
+     */
+    public ProviderState getEnvironmentState(String environment) {
+        Environment loaded;
+        synchronized (environments) {
+            loaded = environments.get(environment);
+        }
+        return loaded != null ? loaded.provider.getState() : ProviderState.NOT_READY;
+    }
+
+    /**
+     * @return the names of the environments which currently have a client
+     */
+    public List<String> getLoadedEnvironments() {
+        synchronized (environments) {
+            return Collections.unmodifiableList(new ArrayList<>(environments.keySet()));
+        }
+    }
+
+    @Override
+    public void initialize(EvaluationContext evaluationContext) throws Exception {
+        // Environments are created lazily, so there is nothing to wait for.
+        state = ProviderState.READY;
+    }
+
+    @Override
+    public ProviderEvaluation<Boolean> getBooleanEvaluation(String key, Boolean defaultValue, EvaluationContext ctx) {
+        return route(ctx, defaultValue, (provider, context) -> provider.getBooleanEvaluation(key, defaultValue, context));
+    }
+
+    @Override
+    public ProviderEvaluation<String> getStringEvaluation(String key, String defaultValue, EvaluationContext ctx) {
+        return route(ctx, defaultValue, (provider, context) -> provider.getStringEvaluation(key, defaultValue, context));
+    }
+
+    @Override
+    public ProviderEvaluation<Integer> getIntegerEvaluation(String key, Integer defaultValue, EvaluationContext ctx) {
+        return route(ctx, defaultValue, (provider, context) -> provider.getIntegerEvaluation(key, defaultValue, context));
+    }
+
+    @Override
+    public ProviderEvaluation<Double> getDoubleEvaluation(String key, Double defaultValue, EvaluationContext ctx) {
+        return route(ctx, defaultValue, (provider, context) -> provider.getDoubleEvaluation(key, defaultValue, context));
+    }
+
+    @Override
+    public ProviderEvaluation<Value> getObjectEvaluation(String key, Value defaultValue, EvaluationContext ctx) {
+        return route(ctx, defaultValue, (provider, context) -> provider.getObjectEvaluation(key, defaultValue, context));
+    }
+
+    private <T> ProviderEvaluation<T> route(EvaluationContext ctx, T defaultValue,
+                                           BiFunction<Provider, EvaluationContext, ProviderEvaluation<T>> evaluation) {
+        if (closed) {
+            return error(defaultValue, ErrorCode.PROVIDER_NOT_READY, "The provider has been shut down.");
+        }
+        Value environmentValue = ctx.getValue(environmentAttribute);
+        if (environmentValue == null || !environmentValue.isString()) {
+            return error(defaultValue, ErrorCode.INVALID_CONTEXT, "The evaluation context must contain a string '"
+                + environmentAttribute + "' attribute to select an environment.");
+        }
+
+        String name = environmentValue.asString();
+        Environment environment = getOrCreate(name);
+        if (environment == null) {
+            return closed
+                ? error(defaultValue, ErrorCode.PROVIDER_NOT_READY, "The provider has been shut down.")
+                : error(defaultValue, ErrorCode.GENERAL, "There is no SDK key for the environment '" + name + "'.");
+        }
+        environment.lastUsedNanos = System.nanoTime();
+        return evaluation.apply(environment.provider, ctx);
+    }
+
+    private static <T> ProviderEvaluation<T> error(T defaultValue, ErrorCode errorCode, String message) {
+        return ProviderEvaluation.<T>builder()
+            .value(defaultValue)
+            .reason(Reason.ERROR.toString())
+            .errorCode(errorCode)
+            .errorMessage(message)
+            .build();
+    }
+
+    /**
+     * @return the environment, or null if it has no SDK key or the provider has been shut down
+     */
+    private Environment getOrCreate(String name) {
+        synchronized (environments) {
+            Environment existing = environments.get(name);
+            if (existing != null) return existing;
+        }
+
+        // Creating a provider creates its client, which must not hold up evaluations of other environments.
+        Provider provider = providerFactory.apply(name);
+        if (provider == null) return null;
+        Environment created = new Environment(name, provider);
+        List<Environment> evicted = new ArrayList<>();
+        boolean open;
+        Environment existing = null;
+        synchronized (environments) {
+            open = !closed;
+            if (open) {
+                existing = environments.putIfAbsent(name, created);
+            }
+            if (open && existing == null) {
+                Iterator<Environment> leastRecentlyUsed = environments.values().iterator();
+                while (environments.size() > maxEnvironments && leastRecentlyUsed.hasNext()) {
+                    Environment eldest = leastRecentlyUsed.next();
+                    leastRecentlyUsed.remove();
+                    staleEnvironments.remove(eldest.name);
+                    evicted.add(eldest);
+                }
+            }
+        }
+        if (!open) {
+            // Shutdown has already stopped the other environments, and would never stop this one.
+            provider.shutdown();
+            return null;
+        }
+        if (existing != null) {
+            // Another thread created the environment first.
+            stopInBackground(created);
+            return existing;
+        }
+
+        try {
+            lifecycleExecutor.execute(() -> start(created));
+        } catch (RejectedExecutionException e) {
+            // The provider was shut down after the environment was added, and shutdown has stopped it.
+        }
+        evicted.forEach(this::stopInBackground);
+        return created;
+    }
+
+    private void start(Environment environment) {
+        var client = environment.provider.getLdClient();
+        client.getFlagTracker().addFlagChangeListener(change -> emitProviderConfigurationChanged(
+            ProviderEventDetails.builder()
+                .flagsChanged(Collections.singletonList(change.getKey()))
+                .message("environment: " + environment.name)
+                .build()));
+        var statusProvider = client.getDataSourceStatusProvider();
+        statusProvider.addStatusListener(status -> handleEnvironmentStatus(environment, status));
+
+        // Initializing the provider waits for as long as the data source is initializing, which would hold this
+        // thread forever if the data source never starts, so wait here with a bound first.
+        try {
+            statusProvider.waitFor(DataSourceStatusProvider.State.VALID, initializationTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (statusProvider.getStatus().getState() == DataSourceStatusProvider.State.INITIALIZING) {
+            boolean removed;
+            synchronized (environments) {
+                removed = environments.remove(environment.name, environment);
+                if (removed) {
+                    staleEnvironments.remove(environment.name);
+                }
+            }
+            if (removed) {
+                environment.provider.shutdown();
+            }
+            emitProviderError(ProviderEventDetails.builder()
+                .message("environment: " + environment.name + " did not initialize within " + initializationTimeout)
+                .build());
+            return;
+        }
+
+        try {
+            environment.provider.initialize(new ImmutableContext());
+        } catch (Exception e) {
+            emitProviderError(ProviderEventDetails.builder()
+                .message("environment: " + environment.name + " failed to initialize: " + e.getMessage())
+                .build());
+        }
+    }
+
+    private void handleEnvironmentStatus(Environment environment, DataSourceStatusProvider.Status status) {
+        boolean emitStale = false;
+        boolean emitReady = false;
+        synchronized (environments) {
+            if (environments.get(environment.name) != environment) return;
+
+            switch (status.getState()) {
+                case INTERRUPTED:
+                    if (!staleEnvironments.contains(environment.name)) {
+                        staleEnvironments.add(environment.name);
+                    }
+                    emitStale = true;
+                    break;
+                case VALID:
+                    emitReady = staleEnvironments.remove(environment.name) && staleEnvironments.isEmpty();
+                    break;
+                default:
+                    break;
+            }
+            if (state != ProviderState.NOT_READY) {
+                state = staleEnvironments.isEmpty() ? ProviderState.READY : ProviderState.STALE;
+            }
+        }
+
+        String message = "environment: " + environment.name;
+        if (emitStale) {
+            emitProviderStale(ProviderEventDetails.builder().message(message).build());
+        } else if (emitReady) {
+            emitProviderReady(ProviderEventDetails.builder().message(message).build());
+        } else if (status.getState() == DataSourceStatusProvider.State.OFF) {
+            emitProviderError(ProviderEventDetails.builder().message(message + " is off").build());
+        }
+    }
+
+    private void evictIdleEnvironments() {
+        long now = System.nanoTime();
+        List<Environment> evicted = new ArrayList<>();
+        synchronized (environments) {
+            Iterator<Map.Entry<String, Environment>> entries = environments.entrySet().iterator();
+            while (entries.hasNext()) {
+                Environment environment = entries.next().getValue();
+                if (now - environment.lastUsedNanos >= idleNanos) {
+                    entries.remove();
+                    staleEnvironments.remove(environment.name);
+                    evicted.add(environment);
+                }
+            }
+        }
+        evicted.forEach(this::stopInBackground);
+    }
+
+    private void stopInBackground(Environment environment) {
+        try {
+            lifecycleExecutor.execute(environment.provider::shutdown);
+        } catch (RejectedExecutionException e) {
+            // The provider has been shut down, so there is no background thread left to do this.
+            environment.provider.shutdown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        idleSweeper.shutdownNow();
+        List<Environment> all;
+        synchronized (environments) {
+            closed = true;
+            all = new ArrayList<>(environments.values());
+            environments.clear();
+            staleEnvironments.clear();
+        }
+        all.forEach(environment -> environment.provider.shutdown());
+        lifecycleExecutor.shutdown();
+    }
+
+    /**
+     * A builder for {@link MultiEnvironmentProvider}.
+     */
+    public static final class Builder {
+        private final Function<String, String> sdkKeyForEnvironment;
+        private String environmentAttribute = "environment";
+        private LDConfig config = new LDConfig.Builder().build();
+        private ProviderOptions options = new ProviderOptions.Builder().build();
+        private int maxEnvironments = 50;
+        private Duration idleTimeout = Duration.ofMinutes(30);
+        private Duration initializationTimeout = Duration.ofMinutes(1);
+
+        /**
+         * Create a builder.
+         * <p>
+         * Evaluations for an environment whose SDK key is null return a GENERAL error, and no client is created for
+         * the environment.
+         *
+         * @param sdkKeyForEnvironment returns the SDK key for an environment name, or null if there is none
+         */
+        public Builder(Function<String, String> sdkKeyForEnvironment) {
+            this.sdkKeyForEnvironment = sdkKeyForEnvironment;
+        }
+
+        /**
+         * Set the evaluation context attribute which names the environment. The default is "environment".
+         *
+         * @param attribute the attribute name
+         * @return the builder
+         */
+        public Builder environmentAttribute(String attribute) {
+            this.environmentAttribute = attribute;
+            return this;
+        }
+
+        /**
+         * Set the client configuration used for every environment.
+         *
+         * @param config a client configuration object
+         * @return the builder
+         */
+        public Builder config(LDConfig config) {
+            this.config = config;
+            return this;
+        }
+
+        /**
+         * Set the provider options used for every environment.
+         *
+         * @param options options for each environment's provider
+         * @return the builder
+         */
+        public Builder options(ProviderOptions options) {
+            this.options = options;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of environments which have a client at the same time. When it is exceeded, the
+         * least recently used environment is shut down. The default is 50.
+         *
+         * @param maxEnvironments the maximum number of environments
+         * @return the builder
+         */
+        public Builder maxEnvironments(int maxEnvironments) {
+            this.maxEnvironments = Math.max(1, maxEnvironments);
+            return this;
+        }
+
+        /**
+         * Set how long an environment may go without evaluations before it is shut down. The default is 30
+         * minutes.
+         *
+         * @param idleTimeout the idle timeout
+         * @return the builder
+         */
+        public Builder idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        /**
+         * Set how long an environment's data source may take to start. An environment which has not started
+         * within this time is shut down, an error event naming it is emitted, and its next evaluation creates it
+         * again. The default is one minute.
+         *
+         * @param initializationTimeout the initialization timeout
+         * @return the builder
+         */
+        public Builder initializationTimeout(Duration initializationTimeout) {
+            this.initializationTimeout = initializationTimeout;
+            return this;
+        }
+
+        /**
+         * Build the provider.
+         *
+         * @return the provider
+         */
+        public MultiEnvironmentProvider build() {
+            // Clients are created on the evaluation path, so they must not wait for their data source to start;
+            // each environment's provider is initialized in the background instead.
+            LDConfig environmentConfig = LDConfig.Builder.fromConfig(config).startWait(Duration.ZERO).build();
+            ProviderOptions environmentOptions = options;
+            Function<String, String> sdkKeys = sdkKeyForEnvironment;
+            return new MultiEnvironmentProvider(environmentAttribute, environment -> {
+                String sdkKey = sdkKeys.apply(environment);
+                return sdkKey != null ? new Provider(sdkKey, environmentConfig, environmentOptions) : null;
+            }, maxEnvironments, idleTimeout, initializationTimeout);
+        }
+    }
+}
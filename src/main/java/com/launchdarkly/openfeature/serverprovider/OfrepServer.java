@@ -0,0 +1,403 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.ArrayBuilder;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.LDValueType;
+import com.launchdarkly.sdk.ObjectBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.EvaluationContext;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.Value;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An embedded HTTP server which serves evaluations from a {@link Provider} using the OpenFeature Remote Evaluation
+ * Protocol (OFREP), so that other processes on the host can share one provider.
+ * <p>
+ * Two endpoints are served:
+ * <ul>
+ *     <li>{@code POST /ofrep/v1/evaluate/flags/{key}} evaluates a single flag. It is evaluated like any other
+ *     evaluation of the provider, so it generates analytics events.</li>
+ *     <li>{@code POST /ofrep/v1/evaluate/flags} evaluates every flag for the context in one request, from a
+ *     consistent {@link FlagSnapshot}, which does not generate analytics events. The response has an
+ *     {@code ETag}; a request whose {@code If-None-Match} header lists a matching tag, or {@code *}, receives
+ *     304 Not Modified without the flags being evaluated. The tag changes whenever a flag changes, or the
+ *     provider's state changes.</li>
+ * </ul>
+ * The request body is a JSON object with a {@code context} property holding the evaluation context. A body larger
+ * than {@link Builder#maxRequestBodySize(int)} is rejected with 413 Payload Too Large. The server is
+ * built on the JDK's HTTP server, which supports HTTP/1.1 with persistent connections, but not HTTP/2.
+ * <pre><code>
+ * OfrepServer server = new OfrepServer.Builder(provider)
+ *     .address(new InetSocketAddress(InetAddress.getLoopbackAddress(), 8016))
+ *     .start();
+ * </code></pre>
+ */
+public final class OfrepServer implements AutoCloseable {
+    private static final String BULK_PATH = "/ofrep/v1/evaluate/flags";
+    private static final String SINGLE_PATH_PREFIX = BULK_PATH + "/";
+    private static final String INVALID_REQUEST = "The request body is not a valid OFREP request";
+    private static final int DEFAULT_MAX_REQUEST_BODY_SIZE = 1024 * 1024;
+
+    private final Provider provider;
+    private final LDLogger logger;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final FlagSubscription subscription;
+    private final ValueConverter valueConverter;
+    private final LDValueConverter ldValueConverter;
+    private final int maxRequestBodySize;
+
+    /**
+     * Incremented on every flag change, so that bulk responses from before the change no longer match.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private OfrepServer(Builder builder) throws IOException {
+        this.provider = builder.provider;
+        this.logger = provider.getLdClient().getLogger();
+        this.valueConverter = new ValueConverter(logger);
+        this.ldValueConverter = new LDValueConverter(logger);
+        this.maxRequestBodySize = builder.maxRequestBodySize;
+        this.subscription = provider.subscribePrefix("", flagKey -> generation.incrementAndGet());
+        this.executor = Executors.newFixedThreadPool(builder.threads,
+            new DaemonThreadFactory("LaunchDarkly-OpenFeature-Ofrep"));
+        this.server = HttpServer.create(builder.address, 0);
+        server.setExecutor(executor);
+        server.createContext(BULK_PATH, this::handle);
+        server.start();
+    }
+
+    /**
+     * @return the address the server is listening on, including the port chosen if it was started on port 0
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stop the server. Requests in progress are abandoned.
+     */
+    @Override
+    public void close() {
+        subscription.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, null);
+                return;
+            }
+            String path = exchange.getRequestURI().getRawPath();
+            if (path.equals(BULK_PATH)) {
+                handleBulk(exchange);
+            } else if (path.startsWith(SINGLE_PATH_PREFIX) && path.length() > SINGLE_PATH_PREFIX.length()) {
+                handleSingle(exchange,
+                    URLDecoder.decode(path.substring(SINGLE_PATH_PREFIX.length()), StandardCharsets.UTF_8));
+            } else {
+                send(exchange, 404, null);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error handling OFREP request: {}", e.toString());
+            // A response code of -1 means the headers have not been sent, so the client can still be told.
+            if (exchange.getResponseCode() == -1) {
+                exchange.getResponseHeaders().remove("ETag");
+                send(exchange, 500, error(null, ErrorCode.GENERAL, "The request could not be handled"));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleSingle(HttpExchange exchange, String flagKey) throws IOException {
+        byte[] body = readBody(exchange);
+        if (body == null) {
+            send(exchange, 413, error(flagKey, ErrorCode.GENERAL, tooLarge()));
+            return;
+        }
+        LDValue context = parseContext(body);
+        if (context == null) {
+            send(exchange, 400, error(flagKey, ErrorCode.PARSE_ERROR, INVALID_REQUEST));
+            return;
+        }
+        ProviderEvaluation<Value> result = provider.getObjectEvaluation(flagKey, new Value(),
+            toEvaluationContext(context));
+        if (result.getErrorCode() != null) {
+            send(exchange, statusFor(result.getErrorCode()), error(flagKey, result.getErrorCode(),
+                result.getErrorMessage()));
+            return;
+        }
+        send(exchange, 200, success(flagKey, result).build());
+    }
+
+    private void handleBulk(HttpExchange exchange) throws IOException {
+        byte[] body = readBody(exchange);
+        if (body == null) {
+            send(exchange, 413, error(null, ErrorCode.GENERAL, tooLarge()));
+            return;
+        }
+        LDValue context = parseContext(body);
+        if (context == null) {
+            send(exchange, 400, error(null, ErrorCode.PARSE_ERROR, INVALID_REQUEST));
+            return;
+        }
+        String etag = etagFor(context);
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (matchesAny(exchange.getRequestHeaders().get("If-None-Match"), etag)) {
+            send(exchange, 304, null);
+            return;
+        }
+
+        FlagSnapshot snapshot = provider.snapshot(toEvaluationContext(context));
+        if (!snapshot.isValid()) {
+            exchange.getResponseHeaders().remove("ETag");
+            send(exchange, 500, error(null, ErrorCode.PROVIDER_NOT_READY, "Flags are not available"));
+            return;
+        }
+        ArrayBuilder flags = LDValue.buildArray();
+        for (String flagKey : snapshot.getFlagKeys()) {
+            ProviderEvaluation<Value> result = snapshot.getObjectEvaluation(flagKey, new Value());
+            flags.add(result.getErrorCode() != null
+                ? error(flagKey, result.getErrorCode(), result.getErrorMessage())
+                : success(flagKey, result).build());
+        }
+        send(exchange, 200, LDValue.buildObject().put("flags", flags.build()).build());
+    }
+
+    /**
+     * Read a request body, reading no more than one byte past the limit.
+     *
+     * @return the body, or null if it is larger than the limit
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            byte[] body = input.readNBytes(maxRequestBodySize + 1);
+            return body.length > maxRequestBodySize ? null : body;
+        }
+    }
+
+    private String tooLarge() {
+        return "The request body is larger than " + maxRequestBodySize + " bytes";
+    }
+
+    /**
+     * Parse the context from a request body.
+     *
+     * @return the context, which is an empty object if the request did not include one, or null if the body could
+     * not be parsed
+     */
+    private static LDValue parseContext(byte[] bytes) {
+        String body = new String(bytes, StandardCharsets.UTF_8);
+        LDValue request;
+        try {
+            request = body.isBlank() ? LDValue.buildObject().build() : LDValue.parse(body);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        if (request.getType() != LDValueType.OBJECT) {
+            return null;
+        }
+        LDValue context = request.get("context");
+        if (context.isNull()) {
+            return LDValue.buildObject().build();
+        }
+        return context.getType() == LDValueType.OBJECT ? context : null;
+    }
+
+    private EvaluationContext toEvaluationContext(LDValue context) {
+        Map<String, Value> attributes = new HashMap<>();
+        String targetingKey = null;
+        for (String name : context.keys()) {
+            LDValue value = context.get(name);
+            if ("targetingKey".equals(name) && value.isString()) {
+                targetingKey = value.stringValue();
+            } else {
+                attributes.put(name, ldValueConverter.toValue(value));
+            }
+        }
+        return new ImmutableContext(targetingKey, attributes);
+    }
+
+    /**
+     * Tag a bulk response with the flag generation, the provider's state and a digest of the context, so that the
+     * tag changes if any of them do.
+     */
+    private String etagFor(LDValue context) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(context.toJsonString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder tag = new StringBuilder("\"")
+                .append(generation.get()).append('-')
+                .append(provider.getState().ordinal()).append('-');
+            for (int i = 0; i < 12; i++) {
+                tag.append(Character.forDigit((hash[i] >> 4) & 0xf, 16))
+                    .append(Character.forDigit(hash[i] & 0xf, 16));
+            }
+            return tag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Check an {@code If-None-Match} header against a tag. Each header may list several tags, and {@code *} matches
+     * any tag. The comparison is weak, as the header requires, so a {@code W/} prefix is ignored.
+     */
+    static boolean matchesAny(List<String> headers, String etag) {
+        if (headers == null) {
+            return false;
+        }
+        for (String header : headers) {
+            for (String tag : header.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private ObjectBuilder success(String flagKey, ProviderEvaluation<Value> result) {
+        ObjectBuilder body = LDValue.buildObject()
+            .put("key", flagKey)
+            .put("value", valueConverter.toLdValue(result.getValue()))
+            .put("reason", result.getReason());
+        if (result.getVariant() != null) {
+            body.put("variant", result.getVariant());
+        }
+        return body.put("metadata", LDValue.buildObject().build());
+    }
+
+    private static LDValue error(String flagKey, ErrorCode errorCode, String details) {
+        ObjectBuilder body = LDValue.buildObject();
+        if (flagKey != null) {
+            body.put("key", flagKey);
+        }
+        body.put("errorCode", errorCode.name());
+        if (details != null) {
+            body.put("errorDetails", details);
+        }
+        return body.build();
+    }
+
+    private static int statusFor(ErrorCode errorCode) {
+        switch (errorCode) {
+            case FLAG_NOT_FOUND:
+                return 404;
+            case PARSE_ERROR:
+            case INVALID_CONTEXT:
+            case TARGETING_KEY_MISSING:
+            case TYPE_MISMATCH:
+                return 400;
+            default:
+                return 500;
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, LDValue body) throws IOException {
+        if (body == null) {
+            // A length of -1 sends no body, which keeps the connection usable for the next request.
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.toJsonString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * A builder for {@link OfrepServer}.
+     */
+    public static final class Builder {
+        private final Provider provider;
+        private InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 8016);
+        private int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        private int maxRequestBodySize = DEFAULT_MAX_REQUEST_BODY_SIZE;
+
+        /**
+         * Create a builder for a server which serves evaluations from a provider.
+         *
+         * @param provider the provider to evaluate flags with
+         */
+        public Builder(Provider provider) {
+            this.provider = provider;
+        }
+
+        /**
+         * Set the address to listen on. The default is port 8016 on the loopback address, so that only processes
+         * on the same host can connect. Use port 0 to listen on any free port.
+         *
+         * @param address the address to listen on
+         * @return the builder
+         */
+        public Builder address(InetSocketAddress address) {
+            this.address = address;
+            return this;
+        }
+
+        /**
+         * Set the number of threads which handle requests. The default is the number of processors, and at
+         * least two.
+         *
+         * @param threads the number of request threads
+         * @return the builder
+         */
+        public Builder threads(int threads) {
+            this.threads = Math.max(1, threads);
+            return this;
+        }
+
+        /**
+         * Set the largest request body which is accepted, in bytes. Larger requests are rejected with 413 Payload
+         * Too Large, without the rest of the body being read. The default is 1 MiB.
+         *
+         * @param maxRequestBodySize the largest request body, in bytes
+         * @return the builder
+         */
+        public Builder maxRequestBodySize(int maxRequestBodySize) {
+            this.maxRequestBodySize = Math.max(0, Math.min(maxRequestBodySize, Integer.MAX_VALUE - 1));
+            return this;
+        }
+
+        /**
+         * Start the server.
+         *
+         * @return the running server
+         * @throws IOException if the server cannot listen on the address
+         */
+        public OfrepServer start() throws IOException {
+            return new OfrepServer(this);
+        }
+    }
+}
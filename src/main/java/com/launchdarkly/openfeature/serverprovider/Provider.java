@@ -1,19 +1,40 @@
 package com.launchdarkly.openfeature.serverprovider;
 
 import com.launchdarkly.logging.LDLogger;
-import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.LDContext;
 import com.launchdarkly.sdk.LDValue;
 import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.FeatureFlagsState;
+import com.launchdarkly.sdk.server.FlagsStateOption;
 import com.launchdarkly.sdk.server.LDClient;
 import com.launchdarkly.sdk.server.LDConfig;
 import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.FlagChangeListener;
 import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import com.launchdarkly.sdk.server.subsystems.ComponentConfigurer;
+import com.launchdarkly.sdk.server.subsystems.DataStore;
 import dev.openfeature.sdk.*;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * An OpenFeature {@link FeatureProvider} which enables the use of the LaunchDarkly Server-Side SDK for Java
@@ -40,14 +61,117 @@ public class Provider extends EventProvider {
 
     private final Metadata metaData = new ProviderMetaData();
 
+    /**
+     * How long a reader of a shared flag store caches items, which bounds how long it takes to see a change.
+     */
+    private static final Duration SHARED_STORE_READER_CACHE_TIME = Duration.ofSeconds(1);
+
+    private static final int DEFAULT_FLAG_USAGE_ENTRIES = 10_000;
+
+    /**
+     * How long a replaced client is given to finish the evaluations running on it before it is closed.
+     */
+    private static final Duration CLIENT_DRAIN_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final String WARM_UP_KEY = "openfeature-provider-warm-up";
+
     private final LDLogger logger;
     private final EvaluationDetailConverter evaluationDetailConverter;
     private final ValueConverter valueConverter;
     private final EvaluationContextConverter evaluationContextConverter;
 
-    private final LDClientInterface client;
+    // Volatile, so that a replacement client can be swapped in without a lock on the evaluation path.
+    private volatile LDClientInterface client;
+
+    /**
+     * True if the client came from the {@link SharedClientRegistry}, and so must be released instead of closed.
+     */
+    private volatile boolean clientIsShared;
+
+    /**
+     * Counts evaluations in progress on the current client, so that a replaced client can be drained before it is
+     * closed. Replaced along with the client.
+     */
+    private volatile LongAdder clientInFlight = new LongAdder();
+
+    /**
+     * Set once shutdown has taken the client to close it, after which no replacement client is installed. Guarded
+     * by stateLock.
+     */
+    private boolean clientClosed;
+
+    // Held while a replacement client is swapped in, so that swaps happen one at a time.
+    private final Object swapLock = new Object();
+
+    private final ProviderOptions options;
+
+    /**
+     * The attributes flag rules refer to, or null if attribute pruning is not enabled.
+     */
+    private final AttributeUsageIndex attributeUsage;
+
+    private FlagChangeListener flagChangeListener;
+
+    private DataSourceStatusProvider.StatusListener statusListener;
+
+    private final AsyncEvaluator asyncEvaluator;
+
+    private final ProviderMetrics metrics;
+
+    private final LastKnownGoodFallback lastKnownGoodFallback;
+
+    private final DegradedMode degradedMode;
+
+    private final KnownFlagFilter knownFlagFilter;
+
+    private final FlagUsageAggregator flagUsage;
+
+    private final EvaluationProfiler profiler;
+
+    private final EventFreeEvaluator eventFree;
+
+    private final FlagChangeRouter flagChangeRouter;
+
+    private final List<EvaluationContext> warmUpContexts;
+
+    private final int warmUpIterations;
+
+    private final AtomicBoolean warmedUpBeforeReady = new AtomicBoolean();
+
+    // Checked before the thread local, so that evaluations do not pay for the lookup unless a warm up is running.
+    private final AtomicInteger warmUpsInProgress = new AtomicInteger();
+
+    private final ThreadLocal<Boolean> warmingUp = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * How long the data source must stay interrupted before STALE is reported, or null to report it immediately.
+     */
+    private final Duration staleDwellTime;
+
+    private final ScheduledExecutorService staleScheduler;
+
+    // Guarded by stateLock.
+    private ScheduledFuture<?> pendingStale;
 
-    private ProviderState state = ProviderState.NOT_READY;
+    private String pendingStaleMessage;
+
+    /**
+     * Completes once the provider has either become ready, or failed to initialize.
+     */
+    private final CompletableFuture<Void> initialized = new CompletableFuture<>();
+
+    /**
+     * How long {@link #shutdown()} waits for events to be flushed, or null to wait for as long as it takes.
+     */
+    private final Duration shutdownTimeout;
+
+    /**
+     * Set by the first call to shut down the provider, and completed when the shutdown has finished.
+     */
+    private final AtomicReference<CompletableFuture<ShutdownResult>> shutdownResult = new AtomicReference<>();
+
+    // Volatile so that the evaluation path can read the state without taking the lock.
+    private volatile ProviderState state = ProviderState.NOT_READY;
 
     private final Object stateLock = new Object();
 
@@ -69,18 +193,130 @@ public class Provider extends EventProvider {
      * @param config a client configuration object
      */
     public Provider(String sdkKey, LDConfig config) {
-        this(new LDClient(sdkKey, LDConfig.Builder.fromConfig(config)
-            .wrapper(Components.wrapperInfo()
-                .wrapperName("open-feature-java-server")
-                .wrapperVersion(Version.SDK_VERSION)).build()));
+        this(sdkKey, config, new ProviderOptions.Builder().build());
+    }
+
+    /**
+     * Create a provider with the specified SDK key, client configuration, and provider options.
+     *
+     * @param sdkKey  the SDK key for your LaunchDarkly environment
+     * @param config  a client configuration object
+     * @param options options for the provider itself
+     */
+    public Provider(String sdkKey, LDConfig config, ProviderOptions options) {
+        this(sdkKey, config, options, new ProviderMetrics());
+    }
+
+    private Provider(String sdkKey, LDConfig config, ProviderOptions options, ProviderMetrics metrics) {
+        this(options.sharedClient
+                ? SharedClientRegistry.acquire(new SharedClientRegistry.Key(sdkKey, config, options),
+                    () -> createClient(sdkKey, config, options, metrics))
+                : createClient(sdkKey, config, options, metrics),
+            options, metrics);
+    }
+
+    private Provider(SharedClientRegistry.SharedClient client, ProviderOptions options, ProviderMetrics metrics) {
+        this(client.client, options.sharedClient, options, metrics, client.attributeUsage);
     }
 
     Provider(LDClientInterface client) {
+        this(client, new ProviderOptions.Builder().build());
+    }
+
+    Provider(LDClientInterface client, ProviderOptions options) {
+        this(client, false, options, new ProviderMetrics(), null);
+    }
+
+    private Provider(LDClientInterface client, boolean clientIsShared, ProviderOptions options,
+                     ProviderMetrics metrics, AttributeUsageIndex attributeUsage) {
         this.client = client;
+        this.clientIsShared = clientIsShared;
+        this.metrics = metrics;
+        this.options = options;
+        this.attributeUsage = attributeUsage;
         logger = client.getLogger();
-        evaluationContextConverter = new EvaluationContextConverter(logger);
-        evaluationDetailConverter = new EvaluationDetailConverter(logger);
-        valueConverter = new ValueConverter(logger);
+        evaluationContextConverter = new EvaluationContextConverter(logger, options.contextConversionLimits,
+            attributeUsage);
+        evaluationDetailConverter = new EvaluationDetailConverter(logger, options.flagValueConversionLimits);
+        valueConverter = new ValueConverter(logger, options.flagValueConversionLimits);
+        asyncEvaluator = new AsyncEvaluator(options, initialized);
+        degradedMode = new DegradedMode(options.degradedModePolicy, metrics);
+        knownFlagFilter = options.unknownFlagFilter ? new KnownFlagFilter(logger, metrics) : null;
+        if (options.flagUsageMaxEntries > 0 || options.flagUsageSink != null) {
+            int maxEntries = options.flagUsageMaxEntries > 0 ? options.flagUsageMaxEntries : DEFAULT_FLAG_USAGE_ENTRIES;
+            flagUsage = new FlagUsageAggregator(maxEntries, options.flagUsageSink, options.flagUsageExportInterval,
+                logger);
+        } else {
+            flagUsage = null;
+        }
+        profiler = options.evaluationProfiling ? new EvaluationProfiler(options.slowEvaluationSamples) : null;
+        eventFree = new EventFreeEvaluator(() -> this.client, logger);
+        flagChangeRouter = new FlagChangeRouter(logger);
+        warmUpContexts = options.warmUpContexts;
+        warmUpIterations = options.warmUpIterations;
+        shutdownTimeout = options.shutdownTimeout;
+        staleDwellTime = options.staleDwellTime != null && !options.staleDwellTime.isZero()
+            ? options.staleDwellTime
+            : null;
+        staleScheduler = staleDwellTime != null
+            ? Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("LaunchDarkly-OpenFeature-Status"))
+            : null;
+        lastKnownGoodFallback = options.evaluationDeadline != null || options.lastKnownGoodCacheSize > 0
+            ? new LastKnownGoodFallback(options, asyncEvaluator.executor(), metrics)
+            : null;
+    }
+
+    /**
+     * Create a client, with the attribute usage index maintained from its data store if attribute pruning is
+     * enabled.
+     */
+    private static SharedClientRegistry.SharedClient createClient(String sdkKey, LDConfig config,
+                                                                  ProviderOptions options, ProviderMetrics metrics) {
+        AttributeUsageIndex attributeUsage = options.attributePruning ? new AttributeUsageIndex() : null;
+        return new SharedClientRegistry.SharedClient(
+            new LDClient(sdkKey, buildClientConfig(config, options, metrics, attributeUsage)), attributeUsage);
+    }
+
+    /**
+     * Apply the wrapper information, and any provider options which affect the client, to a client configuration.
+     *
+     * @param config  the configuration supplied by the application
+     * @param options the provider options
+     * @param metrics metrics which are updated by client components
+     * @param attributeUsage the index to maintain from the client's data store, or null
+     * @return the configuration to create the client with
+     */
+    private static LDConfig buildClientConfig(LDConfig config, ProviderOptions options, ProviderMetrics metrics,
+                                              AttributeUsageIndex attributeUsage) {
+        LDConfig.Builder builder = LDConfig.Builder.fromConfig(config)
+            .wrapper(Components.wrapperInfo()
+                .wrapperName("open-feature-java-server")
+                .wrapperVersion(Version.SDK_VERSION));
+
+        ComponentConfigurer<DataStore> dataStore = options.dataStore;
+        if (options.sharedFlagStorePath != null) {
+            var sharedStore = new MappedFileDataStoreConfigurer(
+                options.sharedFlagStorePath, options.sharedFlagStoreWriter);
+            if (options.sharedFlagStoreWriter) {
+                dataStore = Components.persistentDataStore(sharedStore).cacheForever();
+            } else {
+                dataStore = Components.persistentDataStore(sharedStore).cacheTime(SHARED_STORE_READER_CACHE_TIME);
+                builder.dataSource(Components.externalUpdatesOnly());
+            }
+        }
+        if (options.readCoalescingCacheTime != null) {
+            dataStore = new CoalescingDataStoreConfigurer(
+                dataStore != null ? dataStore : Components.inMemoryDataStore(),
+                options.readCoalescingCacheTime, metrics);
+        }
+        if (attributeUsage != null) {
+            dataStore = new AttributeUsageDataStoreConfigurer(
+                dataStore != null ? dataStore : Components.inMemoryDataStore(), attributeUsage);
+        }
+        if (dataStore != null) {
+            builder.dataStore(dataStore);
+        }
+        return builder.build();
     }
 
     @Override
@@ -90,50 +326,222 @@ public class Provider extends EventProvider {
 
     @Override
     public ProviderEvaluation<Boolean> getBooleanEvaluation(String key, Boolean defaultValue, EvaluationContext ctx) {
-        EvaluationDetail<Boolean> detail
-            = this.client.boolVariationDetail(key, evaluationContextConverter.toLdContext(ctx), defaultValue);
-
-        return evaluationDetailConverter.toEvaluationDetails(detail);
+        return evaluate(key, Boolean.class, defaultValue, ctx,
+            ldContext -> evaluationDetailConverter.toEvaluationDetails(
+                eventFree.isActive()
+                    ? eventFree.boolVariationDetail(key, ldContext, defaultValue)
+                    : this.client.boolVariationDetail(key, ldContext, defaultValue)));
     }
 
     @Override
     public ProviderEvaluation<String> getStringEvaluation(String key, String defaultValue, EvaluationContext ctx) {
-        EvaluationDetail<String> detail
-            = this.client.stringVariationDetail(key, evaluationContextConverter.toLdContext(ctx), defaultValue);
-
-        return evaluationDetailConverter.toEvaluationDetails(detail);
+        return evaluate(key, String.class, defaultValue, ctx,
+            ldContext -> evaluationDetailConverter.toEvaluationDetails(
+                eventFree.isActive()
+                    ? eventFree.stringVariationDetail(key, ldContext, defaultValue)
+                    : this.client.stringVariationDetail(key, ldContext, defaultValue)));
     }
 
     @Override
     public ProviderEvaluation<Integer> getIntegerEvaluation(String key, Integer defaultValue, EvaluationContext ctx) {
-        EvaluationDetail<Integer> detail
-            = this.client.intVariationDetail(key, evaluationContextConverter.toLdContext(ctx), defaultValue);
-
-        return evaluationDetailConverter.toEvaluationDetails(detail);
+        return evaluate(key, Integer.class, defaultValue, ctx,
+            ldContext -> evaluationDetailConverter.toEvaluationDetails(
+                eventFree.isActive()
+                    ? eventFree.intVariationDetail(key, ldContext, defaultValue)
+                    : this.client.intVariationDetail(key, ldContext, defaultValue)));
     }
 
     @Override
     public ProviderEvaluation<Double> getDoubleEvaluation(String key, Double defaultValue, EvaluationContext ctx) {
-        EvaluationDetail<Double> detail
-            = this.client.doubleVariationDetail(key, evaluationContextConverter.toLdContext(ctx), defaultValue);
-
-        return evaluationDetailConverter.toEvaluationDetails(detail);
+        return evaluate(key, Double.class, defaultValue, ctx,
+            ldContext -> evaluationDetailConverter.toEvaluationDetails(
+                eventFree.isActive()
+                    ? eventFree.doubleVariationDetail(key, ldContext, defaultValue)
+                    : this.client.doubleVariationDetail(key, ldContext, defaultValue)));
     }
 
     @Override
     public ProviderEvaluation<Value> getObjectEvaluation(String key, Value defaultValue, EvaluationContext ctx) {
-        EvaluationDetail<LDValue> detail
-            = this.client.jsonValueVariationDetail(
-            key, evaluationContextConverter.toLdContext(ctx), valueConverter.toLdValue(defaultValue));
+        return evaluate(key, Value.class, defaultValue, ctx,
+            ldContext -> evaluationDetailConverter.toEvaluationDetailsLdValue(
+                eventFree.isActive()
+                    ? eventFree.jsonValueVariationDetail(key, ldContext, valueConverter.toLdValue(defaultValue))
+                    : this.client.jsonValueVariationDetail(key, ldContext, valueConverter.toLdValue(defaultValue)),
+                defaultValue));
+    }
+
+    /**
+     * Common evaluation path for all flag types.
+     *
+     * @param key          the flag key
+     * @param type         the type of value requested
+     * @param defaultValue the default value of the evaluation
+     * @param ctx          the OpenFeature evaluation context
+     * @param evaluation   performs the type specific evaluation using the converted context
+     * @param <T>          the type of the evaluation result
+     * @return the evaluation result
+     */
+    private <T> ProviderEvaluation<T> evaluate(String key, Class<T> type, T defaultValue, EvaluationContext ctx,
+                                               Function<LDContext, ProviderEvaluation<T>> evaluation) {
+        ProviderEvaluation<T> result = usingClient(
+            () -> evaluateUnrecorded(key, type, defaultValue, ctx, evaluation));
+        if (flagUsage != null && !isWarmingUp()) {
+            flagUsage.record(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Run an action which uses the client, counting it as in flight so that a swap does not close the client
+     * underneath it.
+     *
+     * @param action the action, which should read the client once it is running
+     * @param <R>    the type of the result
+     * @return the result of the action
+     */
+    private <R> R usingClient(Supplier<R> action) {
+        LongAdder inFlight = clientInFlight;
+        inFlight.increment();
+        try {
+            return action.get();
+        } finally {
+            inFlight.decrement();
+        }
+    }
+
+    private <T> ProviderEvaluation<T> evaluateUnrecorded(String key, Class<T> type, T defaultValue,
+                                                         EvaluationContext ctx,
+                                                         Function<LDContext, ProviderEvaluation<T>> evaluation) {
+        boolean warmingUp = isWarmingUp();
+        if (!warmingUp) {
+            ProviderEvaluation<T> degraded = degradedMode.evaluate(state, defaultValue);
+            if (degraded != null) {
+                return degraded;
+            }
+        }
+
+        // Warm up may evaluate a synthetic key when there are no flags, which must not be counted as unknown.
+        if (!warmingUp && knownFlagFilter != null && !knownFlagFilter.isKnown(key, client)) {
+            return ProviderEvaluation.<T>builder()
+                .value(defaultValue)
+                .reason(Reason.ERROR.toString())
+                .errorCode(ErrorCode.FLAG_NOT_FOUND)
+                .errorMessage("Unknown flag key: " + key)
+                .build();
+        }
+
+        LDContext ldContext = evaluationContextConverter.toLdContext(ctx);
+        if (!warmingUp && !eventFree.isActive()) {
+            metrics.submittedEvents.increment();
+        }
+        // Warm up evaluations run cold code, so they would distort the profile.
+        EvaluationProfiler activeProfiler = warmingUp ? null : profiler;
+        if (lastKnownGoodFallback == null) {
+            return activeProfiler == null
+                ? evaluation.apply(ldContext)
+                : activeProfiler.profile(key, ldContext, evaluation);
+        }
+        // With a deadline the evaluation runs on another thread, and may keep running after this method returns, so
+        // it carries the event free scope with it and counts itself as in flight rather than relying on the caller.
+        return lastKnownGoodFallback.evaluate(key, type, ldContext, defaultValue, getState() == ProviderState.STALE,
+            eventFree.propagate(() -> usingClient(() -> activeProfiler == null
+                ? evaluation.apply(ldContext)
+                : activeProfiler.profile(key, ldContext, evaluation))));
+    }
+
+    /**
+     * Perform a boolean evaluation without blocking the calling thread.
+     * <p>
+     * The evaluation runs on the executor configured with {@link ProviderOptions.Builder#asyncExecutor(java.util.concurrent.Executor)}.
+     * Cancelling the returned future before the evaluation has started prevents it from running.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag cannot be evaluated
+     * @param ctx          the evaluation context
+     * @return a future which completes with the evaluation result
+     */
+    public CompletableFuture<ProviderEvaluation<Boolean>> getBooleanEvaluationAsync(
+        String key, Boolean defaultValue, EvaluationContext ctx) {
+        return asyncEvaluator.submit(eventFree.propagate(() -> getBooleanEvaluation(key, defaultValue, ctx)));
+    }
+
+    /**
+     * Perform a string evaluation without blocking the calling thread.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag cannot be evaluated
+     * @param ctx          the evaluation context
+     * @return a future which completes with the evaluation result
+     * @see #getBooleanEvaluationAsync(String, Boolean, EvaluationContext)
+     */
+    public CompletableFuture<ProviderEvaluation<String>> getStringEvaluationAsync(
+        String key, String defaultValue, EvaluationContext ctx) {
+        return asyncEvaluator.submit(eventFree.propagate(() -> getStringEvaluation(key, defaultValue, ctx)));
+    }
+
+    /**
+     * Perform an integer evaluation without blocking the calling thread.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag cannot be evaluated
+     * @param ctx          the evaluation context
+     * @return a future which completes with the evaluation result
+     * @see #getBooleanEvaluationAsync(String, Boolean, EvaluationContext)
+     */
+    public CompletableFuture<ProviderEvaluation<Integer>> getIntegerEvaluationAsync(
+        String key, Integer defaultValue, EvaluationContext ctx) {
+        return asyncEvaluator.submit(eventFree.propagate(() -> getIntegerEvaluation(key, defaultValue, ctx)));
+    }
 
-        return evaluationDetailConverter.toEvaluationDetailsLdValue(detail);
+    /**
+     * Perform a double evaluation without blocking the calling thread.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag cannot be evaluated
+     * @param ctx          the evaluation context
+     * @return a future which completes with the evaluation result
+     * @see #getBooleanEvaluationAsync(String, Boolean, EvaluationContext)
+     */
+    public CompletableFuture<ProviderEvaluation<Double>> getDoubleEvaluationAsync(
+        String key, Double defaultValue, EvaluationContext ctx) {
+        return asyncEvaluator.submit(eventFree.propagate(() -> getDoubleEvaluation(key, defaultValue, ctx)));
+    }
+
+    /**
+     * Perform an object evaluation without blocking the calling thread.
+     *
+     * @param key          the flag key
+     * @param defaultValue the value to use if the flag cannot be evaluated
+     * @param ctx          the evaluation context
+     * @return a future which completes with the evaluation result
+     * @see #getBooleanEvaluationAsync(String, Boolean, EvaluationContext)
+     */
+    public CompletableFuture<ProviderEvaluation<Value>> getObjectEvaluationAsync(
+        String key, Value defaultValue, EvaluationContext ctx) {
+        return asyncEvaluator.submit(eventFree.propagate(() -> getObjectEvaluation(key, defaultValue, ctx)));
+    }
+
+    /**
+     * Adapt an asynchronous evaluation into a {@link Flow.Publisher}.
+     * <p>
+     * The publisher is cold: the supplier is invoked once for each subscriber, when that subscriber first
+     * requests an item. Cancelling the subscription cancels the pending evaluation.
+     * <pre><code>
+     * Flow.Publisher&lt;ProviderEvaluation&lt;Boolean&gt;&gt; publisher = Provider.publisherOf(
+     *     () -&gt; provider.getBooleanEvaluationAsync("my-flag", false, context));
+     * </code></pre>
+     *
+     * @param source a supplier which starts the evaluation
+     * @param <T>    the type of the result
+     * @return a publisher which emits one item and then completes
+     */
+    public static <T> Flow.Publisher<T> publisherOf(Supplier<? extends CompletableFuture<T>> source) {
+        return new SingleResultPublisher<>(source);
     }
 
     @Override
     public ProviderState getState() {
-        synchronized (state) {
-            return state;
-        }
+        return state;
     }
 
     @Override
@@ -141,19 +549,26 @@ public class Provider extends EventProvider {
         // If we are ready, then set the state. Don't return, because we still need to listen for future
         // changes.
         if (client.isInitialized()) {
-            state = ProviderState.READY;
+            prepareForReady();
+            setState(ProviderState.READY);
         }
 
         var completer = new CompletableFuture<Boolean>();
 
-        client.getFlagTracker().addFlagChangeListener(detail -> {
+        flagChangeListener = detail -> {
+            if (knownFlagFilter != null) {
+                knownFlagFilter.flagChanged(detail.getKey(), client);
+            }
+            flagChangeRouter.flagChanged(detail.getKey());
             emitProviderConfigurationChanged(
                 ProviderEventDetails.builder().flagsChanged(Collections.singletonList(detail.getKey())).build());
-        });
+        };
+        client.getFlagTracker().addFlagChangeListener(flagChangeListener);
         // Listen for future status changes.
-        client.getDataSourceStatusProvider().addStatusListener((res) -> {
+        statusListener = (res) -> {
             handleDataSourceStatus(res, completer);
-        });
+        };
+        client.getDataSourceStatusProvider().addStatusListener(statusListener);
 
         if(state == ProviderState.READY) {
             return;
@@ -174,13 +589,27 @@ public class Provider extends EventProvider {
             }
             break;
             case INTERRUPTED: {
+                var message = res.getLastError() != null ? res.getLastError().getMessage() : "encountered an unknown error";
+                if (staleDwellTime != null && dampInterruption(message)) {
+                    break;
+                }
                 setState(ProviderState.STALE);
 
-                var message = res.getLastError() != null ? res.getLastError().getMessage() : "encountered an unknown error";
                 emitProviderStale(ProviderEventDetails.builder().message(message).build());
             }
             break;
             case VALID: {
+                synchronized (stateLock) {
+                    if (pendingStale != null) {
+                        // The interruption recovered before it was announced.
+                        pendingStale.cancel(false);
+                        pendingStale = null;
+                        metrics.suppressedStaleTransitions.increment();
+                    }
+                }
+                if (state != ProviderState.READY) {
+                    prepareForReady();
+                }
                 boolean emit = false;
                 synchronized (stateLock) {
                     // If we are ready, then we don't want to emit it again. Other conditions we may be updating the
@@ -200,26 +629,352 @@ public class Provider extends EventProvider {
             case OFF: {
                 // Currently there is not a shutdown state.
                 // Our client/provider cannot be restarted, so we just go to error.
-                setState(ProviderState.ERROR);
+                synchronized (stateLock) {
+                    if (pendingStale != null) {
+                        // An interruption which has not been announced yet is superseded by the error.
+                        pendingStale.cancel(false);
+                        pendingStale = null;
+                    }
+                    setState(ProviderState.ERROR);
+                }
                 completer.complete(false);
                 emitProviderError(ProviderEventDetails.builder().message("Provider shutdown").build());
             }
         }
     }
 
+    /**
+     * Delay or coalesce an interruption of the data source.
+     *
+     * @param message the reason for the interruption
+     * @return true if the interruption has been handled, or false if it should be reported as STALE immediately
+     */
+    private boolean dampInterruption(String message) {
+        synchronized (stateLock) {
+            if (pendingStale != null || state == ProviderState.STALE) {
+                metrics.coalescedInterruptions.increment();
+                pendingStaleMessage = message;
+                return true;
+            }
+            if (state != ProviderState.READY) {
+                // Only a READY provider waits before reporting STALE.
+                return false;
+            }
+            pendingStaleMessage = message;
+            pendingStale = staleScheduler.schedule(this::announceStale, staleDwellTime.toMillis(),
+                TimeUnit.MILLISECONDS);
+            return true;
+        }
+    }
+
+    private void announceStale() {
+        String message;
+        synchronized (stateLock) {
+            if (pendingStale == null) {
+                // Cancelled by a VALID or OFF update which raced with this task.
+                return;
+            }
+            pendingStale = null;
+            if (state != ProviderState.READY) {
+                // Only a READY provider becomes STALE, an ERROR must not be overwritten.
+                return;
+            }
+            message = pendingStaleMessage;
+            setState(ProviderState.STALE);
+        }
+        emitProviderStale(ProviderEventDetails.builder().message(message).build());
+    }
+
+    /**
+     * Work which must be done before the provider reports READY.
+     */
+    private void prepareForReady() {
+        populateKnownFlags();
+        if (warmUpIterations > 0 && !warmedUpBeforeReady.getAndSet(true)) {
+            warmUp(warmUpContexts, null, warmUpIterations);
+        }
+    }
+
+    private void populateKnownFlags() {
+        if (knownFlagFilter != null) {
+            knownFlagFilter.populate(client);
+        }
+    }
+
     private void setState(ProviderState state) {
         synchronized (stateLock) {
             this.state = state;
         }
+        if (state == ProviderState.READY || state == ProviderState.ERROR) {
+            initialized.complete(null);
+        }
     }
 
     @Override
     public void shutdown() {
+        if (shutdownTimeout != null) {
+            shutdownAsync(shutdownTimeout).join();
+            return;
+        }
+        CompletableFuture<ShutdownResult> result = new CompletableFuture<>();
+        if (!shutdownResult.compareAndSet(null, result)) {
+            return;
+        }
+        long start = System.nanoTime();
+        stopBackgroundWork();
         try {
-            client.close();
+            closeClient();
         } catch (IOException e) {
+            result.completeExceptionally(e);
             throw new RuntimeException(e);
         }
+        result.complete(new ShutdownResult(true, Duration.ofNanos(System.nanoTime() - start),
+            metrics.getSubmittedEvents(), metrics.getDroppedEvents()));
+    }
+
+    /**
+     * Shut down the provider without waiting indefinitely for events to be flushed.
+     * <p>
+     * The provider stops its own background work immediately, then flushes pending analytics and custom events
+     * and closes the LaunchDarkly client on a background thread. The returned future completes when that has
+     * finished, or when the deadline passes, whichever is first. If the deadline passes, the provider gives up
+     * waiting; the background thread is a daemon, so it does not prevent the JVM from exiting.
+     * <p>
+     * A shared client is only closed when its last provider shuts down. Until then, the providers still using it
+     * flush its events.
+     * <p>
+     * Only the first call to this method or {@link #shutdown()} shuts the provider down; later calls return the
+     * result of the first.
+     *
+     * @param deadline the longest to wait for events to be flushed
+     * @return a future which completes with the outcome of the shutdown
+     */
+    public CompletableFuture<ShutdownResult> shutdownAsync(Duration deadline) {
+        CompletableFuture<ShutdownResult> result = new CompletableFuture<>();
+        if (!shutdownResult.compareAndSet(null, result)) {
+            return shutdownResult.get();
+        }
+        long start = System.nanoTime();
+        stopBackgroundWork();
+
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        new DaemonThreadFactory("LaunchDarkly-OpenFeature-Shutdown").newThread(() -> {
+            try {
+                closeClient();
+                closed.complete(null);
+            } catch (Throwable e) {
+                closed.completeExceptionally(e);
+            }
+        }).start();
+
+        closed.orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS).whenComplete((ignored, error) -> {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            long submitted = metrics.getSubmittedEvents();
+            long rejected = metrics.getDroppedEvents();
+            if (error == null) {
+                result.complete(new ShutdownResult(true, elapsed, submitted, rejected));
+                return;
+            }
+            if (error instanceof TimeoutException) {
+                logger.warn("The LaunchDarkly client did not flush its events within {}, so shutdown has given up "
+                    + "waiting for it", deadline);
+            } else {
+                logger.error("Error closing the LaunchDarkly client: {}", error.toString());
+            }
+            result.complete(new ShutdownResult(false, elapsed, submitted, rejected));
+        });
+        return result;
+    }
+
+    /**
+     * Replace the LaunchDarkly client without interrupting evaluations.
+     * <p>
+     * This is for changes which need a new client, such as rotating the SDK key or changing the data store or
+     * data source configuration. The replacement client is created, and initialized, on a background thread while
+     * the current client continues to serve evaluations. Once the replacement reports that its data source is
+     * VALID, evaluations switch to it atomically. Evaluations already running on the previous client are allowed
+     * to finish, and then the previous client is closed, which flushes its events. The swap thread polls for those
+     * evaluations every millisecond, and closes the previous client after five seconds even if some are still
+     * running.
+     * <p>
+     * If the replacement does not become VALID within the timeout, it is closed and the current client is kept.
+     * As the flags of the replacement may differ, a configuration changed event listing every flag is emitted
+     * after the swap.
+     * <p>
+     * The replacement client is not shared, even if the provider was created with
+     * {@link ProviderOptions.Builder#sharedClient(boolean)}; a shared client being replaced is released instead of
+     * closed.
+     * <p>
+     * A provider which writes a shared flag store, configured with
+     * {@link ProviderOptions.Builder#sharedFlagStore(java.nio.file.Path, boolean)}, cannot replace its client,
+     * because only one client may hold the writer's lock on the file. Nor can a provider which shares its client
+     * and prunes attributes, because the other providers sharing the client prune with the same index.
+     *
+     * @param sdkKey  the SDK key for the replacement client
+     * @param config  the configuration for the replacement client; provider options which affect the client are
+     *                applied to it as they were for the original client
+     * @param timeout how long to wait for the replacement client to become VALID
+     * @return a future which completes once the replacement client is serving evaluations and the previous client
+     * has been closed, or completes exceptionally if the replacement could not be swapped in
+     * @throws IllegalStateException if the provider writes a shared flag store, or shares its client and prunes
+     *                               attributes
+     */
+    public CompletableFuture<Void> swapClient(String sdkKey, LDConfig config, Duration timeout) {
+        if (options.sharedFlagStorePath != null && options.sharedFlagStoreWriter) {
+            // The replacement would need the writer's lock on the file while the current client still holds it.
+            throw new IllegalStateException(
+                "The LaunchDarkly client cannot be replaced while it is the writer of a shared flag store");
+        }
+        if (clientIsShared && attributeUsage != null) {
+            // The replacement's store would rebuild the attribute usage index the other providers prune with.
+            throw new IllegalStateException(
+                "A shared LaunchDarkly client cannot be replaced by a provider which prunes attributes");
+        }
+        return swapClient(() -> new LDClient(sdkKey, buildClientConfig(config, options, metrics, attributeUsage)),
+            timeout);
+    }
+
+    CompletableFuture<Void> swapClient(Supplier<LDClientInterface> factory, Duration timeout) {
+        CompletableFuture<Void> swapped = new CompletableFuture<>();
+        new DaemonThreadFactory("LaunchDarkly-OpenFeature-ClientSwap").newThread(() -> {
+            synchronized (swapLock) {
+                LDClientInterface replacement = null;
+                try {
+                    replacement = factory.get();
+                    if (!replacement.getDataSourceStatusProvider()
+                        .waitFor(DataSourceStatusProvider.State.VALID, timeout)) {
+                        throw new TimeoutException("The replacement LaunchDarkly client did not become VALID within "
+                            + timeout);
+                    }
+                    if (shutdownResult.get() != null) {
+                        throw new IllegalStateException("The provider was shut down before the client was replaced");
+                    }
+                    installClient(replacement);
+                    swapped.complete(null);
+                } catch (Throwable e) {
+                    logger.error("Could not replace the LaunchDarkly client: {}", e.toString());
+                    if (replacement != null && client != replacement) {
+                        closeQuietly(replacement);
+                    }
+                    swapped.completeExceptionally(e);
+                }
+            }
+        }).start();
+        return swapped;
+    }
+
+    /**
+     * Switch evaluations to a replacement client which is VALID, then drain and close the previous client.
+     * <p>
+     * The drain polls the previous client's in-flight count every millisecond, for up to
+     * {@link #CLIENT_DRAIN_TIMEOUT}, on the swap thread.
+     */
+    private void installClient(LDClientInterface replacement) throws InterruptedException {
+        if (knownFlagFilter != null) {
+            knownFlagFilter.populate(replacement);
+        }
+
+        LDClientInterface previous;
+        boolean previousIsShared;
+        LongAdder previousInFlight;
+        synchronized (stateLock) {
+            if (clientClosed) {
+                // Shutdown has already taken the current client, and would never close the replacement.
+                throw new IllegalStateException("The provider was shut down before the client was replaced");
+            }
+            previous = client;
+            previousIsShared = clientIsShared;
+            previousInFlight = clientInFlight;
+            if (flagChangeListener != null) {
+                replacement.getFlagTracker().addFlagChangeListener(flagChangeListener);
+            }
+            if (statusListener != null) {
+                replacement.getDataSourceStatusProvider().addStatusListener(statusListener);
+            }
+            client = replacement;
+            clientIsShared = false;
+            clientInFlight = new LongAdder();
+        }
+        if (flagChangeListener != null) {
+            previous.getFlagTracker().removeFlagChangeListener(flagChangeListener);
+        }
+        if (statusListener != null) {
+            previous.getDataSourceStatusProvider().removeStatusListener(statusListener);
+            // The replacement is VALID, which recovers a provider that was STALE or in ERROR on the previous client.
+            statusListener.dataSourceStatusChanged(replacement.getDataSourceStatusProvider().getStatus());
+        }
+        // Once installed, the replacement is closed by the shutdown, if one has started, and the previous client
+        // is always closed or released here.
+        if (shutdownResult.get() == null) {
+            FeatureFlagsState flags = replacement.allFlagsState(KnownFlagFilter.LISTING_CONTEXT);
+            List<String> flagKeys = flags != null && flags.isValid()
+                ? new ArrayList<>(flags.toValuesMap().keySet())
+                : Collections.emptyList();
+            for (String flagKey : flagKeys) {
+                flagChangeRouter.flagChanged(flagKey);
+            }
+            emitProviderConfigurationChanged(ProviderEventDetails.builder()
+                .flagsChanged(flagKeys)
+                .message("The LaunchDarkly client was replaced")
+                .build());
+        }
+
+        long drainDeadline = System.nanoTime() + CLIENT_DRAIN_TIMEOUT.toNanos();
+        while (previousInFlight.sum() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(1);
+        }
+        try {
+            if (previousIsShared) {
+                SharedClientRegistry.release(previous);
+            } else {
+                previous.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Error closing the replaced LaunchDarkly client: {}", e.toString());
+        }
+    }
+
+    private void closeQuietly(LDClientInterface client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            logger.warn("Error closing a LaunchDarkly client: {}", e.toString());
+        }
+    }
+
+    private void stopBackgroundWork() {
+        asyncEvaluator.close();
+        flagChangeRouter.close();
+        if (staleScheduler != null) {
+            staleScheduler.shutdownNow();
+        }
+        if (flagUsage != null) {
+            flagUsage.close();
+        }
+    }
+
+    private void closeClient() throws IOException {
+        LDClientInterface current;
+        boolean currentIsShared;
+        synchronized (stateLock) {
+            // Taken under the lock, so that a client swap either installs its replacement before this, and then
+            // closes the previous client itself, or sees that the client is closed and discards the replacement.
+            clientClosed = true;
+            current = client;
+            currentIsShared = clientIsShared;
+        }
+        if (currentIsShared) {
+            // Other providers may still be using the client, so stop listening to it before releasing it.
+            if (flagChangeListener != null) {
+                current.getFlagTracker().removeFlagChangeListener(flagChangeListener);
+            }
+            if (statusListener != null) {
+                current.getDataSourceStatusProvider().removeStatusListener(statusListener);
+            }
+            SharedClientRegistry.release(current);
+        } else {
+            current.close();
+        }
     }
 
     @Override
@@ -232,26 +987,228 @@ public class Provider extends EventProvider {
             return;
         }
 
-        if (details != null) {
-            Double metricValue = null;
-            if (details.getValue().isPresent()) {
-                metricValue = (Double) details.getValue().get();
-            }
-            // Convert the Structure portion of the TrackingEventDetails into a key value
-            // map.
-            // This will not put the metricValue extracted above into the map.
-            LDValue data = valueConverter.toLdValue(new Value(details));
-
-            if (metricValue != null) {
-                client.trackMetric(eventName, evaluationContextConverter.toLdContext(ctx), data, metricValue);
-            } else if (!data.isNull() && data.size() > 0) {
-                client.trackData(eventName, evaluationContextConverter.toLdContext(ctx), data);
+        if (eventFree.isActive()) {
+            logger.debug("The 'track' method was called inside an event free scope, so no event will be sent.");
+            return;
+        }
+
+        if (shutdownResult.get() != null) {
+            logger.debug("The 'track' method was called after shutdown began, so no event will be sent.");
+            metrics.droppedEvents.increment();
+            return;
+        }
+
+        usingClient(() -> {
+            if (details != null) {
+                Double metricValue = null;
+                if (details.getValue().isPresent()) {
+                    metricValue = (Double) details.getValue().get();
+                }
+                // Convert the Structure portion of the TrackingEventDetails into a key value
+                // map.
+                // This will not put the metricValue extracted above into the map.
+                LDValue data = valueConverter.toLdValue(new Value(details));
+
+                if (metricValue != null) {
+                    client.trackMetric(eventName, evaluationContextConverter.toLdContext(ctx), data, metricValue);
+                } else if (!data.isNull() && data.size() > 0) {
+                    client.trackData(eventName, evaluationContextConverter.toLdContext(ctx), data);
+                } else {
+                    client.track(eventName, evaluationContextConverter.toLdContext(ctx));
+                }
             } else {
                 client.track(eventName, evaluationContextConverter.toLdContext(ctx));
             }
-        } else {
-            client.track(eventName, evaluationContextConverter.toLdContext(ctx));
+            return null;
+        });
+        metrics.submittedEvents.increment();
+    }
+
+    /**
+     * Get a snapshot of the flags this provider has evaluated.
+     * <p>
+     * Flag usage is only counted when it is enabled with {@link ProviderOptions.Builder#flagUsageTracking(int)}
+     * or {@link ProviderOptions.Builder#flagUsageExport(FlagUsageSink, Duration)}.
+     *
+     * @return the flag usage, or null if flag usage is not being counted
+     */
+    public FlagUsageSnapshot getFlagUsage() {
+        return flagUsage != null ? flagUsage.snapshot() : null;
+    }
+
+    /**
+     * Evaluate flags on the current thread without generating analytics events, until the returned scope is closed.
+     * <p>
+     * This is intended for pre-computation, cache warming, exports, and other bulk or background work, whose
+     * evaluations would otherwise fill the event processor and count towards event usage. Other threads are not
+     * affected, so request traffic continues to record events. Calls to
+     * {@link #track(String, EvaluationContext, TrackingEventDetails)} inside the scope are ignored, and async
+     * evaluations started inside the scope also run without events.
+     * <pre><code>
+     *     try (EventFreeScope scope = provider.withoutEvents()) {
+     *         for (String key : flagKeys) {
+     *             results.put(key, client.getBooleanValue(key, false, context));
+     *         }
+     *     }
+     * </code></pre>
+     * <p>
+     * Inside the scope evaluations are served from {@link LDClientInterface#allFlagsState}, which evaluates every flag
+     * for a context. The result is reused for later evaluations of the same context within the scope, so evaluating
+     * many flags for one context costs a single all-flags evaluation, and they all reflect the same version of the
+     * flag data. The results for the eight most recently evaluated contexts are kept.
+     * <p>
+     * The first evaluation for each context therefore costs as much as evaluating every flag in the environment, no
+     * matter how few flags are then evaluated for it. Work which evaluates one or a few flags for each of many
+     * contexts is slower inside the scope than outside it by roughly the ratio of the environment's flag count to the
+     * number of flags evaluated per context. {@code ./gradlew flagSnapshotBenchmark} measures this trade-off.
+     *
+     * @return a scope which must be closed on the same thread
+     */
+    public EventFreeScope withoutEvents() {
+        return eventFree.enter();
+    }
+
+    /**
+     * Evaluate every flag for a context against one consistent view of the flag data.
+     * <p>
+     * The context is converted once, and the flag data is read once, so every result in the snapshot reflects the
+     * same version of the flags. Use this when a request needs several related flags and must not see a mix of
+     * configurations if flags change part way through. Reading results from the snapshot is a map lookup, so it is
+     * cheaper than separate evaluations once a request needs more than a handful of flags. Taking the snapshot does
+     * evaluate every flag in the environment, though, so for one or two flags separate evaluations are cheaper.
+     * <p>
+     * Evaluations from a snapshot do not generate analytics events, so they are not reflected in flag insights or
+     * experiment results.
+     *
+     * @param ctx the evaluation context
+     * @return the snapshot
+     */
+    public FlagSnapshot snapshot(EvaluationContext ctx) {
+        LDContext ldContext = evaluationContextConverter.toLdContext(ctx);
+        FeatureFlagsState flags = usingClient(() -> client.allFlagsState(ldContext, FlagsStateOption.WITH_REASONS));
+        return new FlagSnapshot(new FlagsStateView(ldContext, flags), evaluationDetailConverter, valueConverter);
+    }
+
+    /**
+     * Listen for changes to a single flag.
+     * <p>
+     * Configuration change events from the provider list every changed flag, and each handler has to look for the
+     * flags it is interested in. A subscription is only notified of changes to its flag, and the provider finds the
+     * interested subscriptions with an index lookup, so the cost of a change does not grow with the number of
+     * subscriptions. Listeners are only notified once {@link #initialize(EvaluationContext)} has been called.
+     *
+     * @param flagKey  the flag key
+     * @param listener the listener to notify
+     * @return a subscription, which stops notifications when closed
+     * @throws IllegalStateException if the provider has been shut down
+     */
+    public FlagSubscription subscribe(String flagKey, FlagKeyListener listener) {
+        return flagChangeRouter.subscribe(flagKey, listener);
+    }
+
+    /**
+     * Listen for changes to every flag whose key starts with a prefix.
+     * <p>
+     * This works like {@link #subscribe(String, FlagKeyListener)}, for a family of flags such as those sharing a
+     * {@code "checkout-"} prefix. An empty prefix matches every flag.
+     *
+     * @param prefix   the flag key prefix
+     * @param listener the listener to notify
+     * @return a subscription, which stops notifications when closed
+     * @throws IllegalStateException if the provider has been shut down
+     */
+    public FlagSubscription subscribePrefix(String prefix, FlagKeyListener listener) {
+        return flagChangeRouter.subscribePrefix(prefix, listener);
+    }
+
+    /**
+     * Exercise the evaluation paths so that they are compiled before real traffic arrives.
+     * <p>
+     * Each flag is evaluated as every type for each context, {@code iterations} times, inside an
+     * {@link EventFreeScope} so that no analytics events are generated. This runs the context and value converters,
+     * the SDK's flag evaluation logic, and fills provider caches such as the last known good values. Warm up
+     * evaluations are not counted in flag usage or the evaluation profile, and are not short-circuited by the degraded
+     * mode policy or the unknown flag filter.
+     * <p>
+     * Because the client's typed variation methods always generate analytics events, warm up does not call them.
+     * Evaluations are served from {@link LDClientInterface#allFlagsState} instead, which runs the same flag
+     * evaluation logic, so the code which is left cold is the client's per-call wrapper around that logic and its
+     * event recording.
+     * <p>
+     * A few thousand iterations are typically enough for the JIT compiler to compile the hot paths. To warm up
+     * before the provider reports READY, use {@link ProviderOptions.Builder#warmUpBeforeReady(Collection, int)}.
+     *
+     * @param contexts   representative evaluation contexts; if null or empty, a synthetic context is used
+     * @param flagKeys   the flags to evaluate; if null or empty, every flag in the current flag data is used
+     * @param iterations the number of times to evaluate each flag for each context
+     */
+    public void warmUp(Collection<? extends EvaluationContext> contexts, Collection<String> flagKeys, int iterations) {
+        List<EvaluationContext> warmContexts = contexts == null || contexts.isEmpty()
+            ? Collections.singletonList(new ImmutableContext(WARM_UP_KEY))
+            : new ArrayList<>(contexts);
+        Collection<String> keys = flagKeys == null || flagKeys.isEmpty()
+            ? flagKeysFor(warmContexts.get(0))
+            : flagKeys;
+        if (keys.isEmpty()) {
+            // There is no flag data yet, but the converters can still be exercised.
+            keys = Collections.singletonList(WARM_UP_KEY);
         }
+        Value defaultObject = new Value();
+
+        long start = System.nanoTime();
+        warmUpsInProgress.incrementAndGet();
+        warmingUp.set(true);
+        try {
+            for (int i = 0; i < iterations; i++) {
+                // A new scope each time, so that the flag state is evaluated again rather than reused.
+                try (EventFreeScope scope = withoutEvents()) {
+                    for (EvaluationContext ctx : warmContexts) {
+                        for (String key : keys) {
+                            getBooleanEvaluation(key, false, ctx);
+                            getStringEvaluation(key, "", ctx);
+                            getIntegerEvaluation(key, 0, ctx);
+                            getDoubleEvaluation(key, 0.0, ctx);
+                            getObjectEvaluation(key, defaultObject, ctx);
+                        }
+                    }
+                }
+            }
+        } finally {
+            warmingUp.remove();
+            warmUpsInProgress.decrementAndGet();
+        }
+        logger.info("Warmed up {} flags for {} contexts over {} iterations in {} ms", keys.size(),
+            warmContexts.size(), iterations, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private Collection<String> flagKeysFor(EvaluationContext ctx) {
+        FeatureFlagsState flagsState = client.allFlagsState(evaluationContextConverter.toLdContext(ctx));
+        return flagsState.isValid() ? flagsState.toValuesMap().keySet() : Collections.emptyList();
+    }
+
+    private boolean isWarmingUp() {
+        return warmUpsInProgress.get() > 0 && warmingUp.get();
+    }
+
+    /**
+     * Get the cost of the flag evaluations this provider has made.
+     * <p>
+     * Evaluations are only profiled when profiling is enabled with
+     * {@link ProviderOptions.Builder#evaluationProfiling(int)}.
+     *
+     * @return the evaluation profile, or null if profiling is not enabled
+     */
+    public EvaluationProfile getEvaluationProfile() {
+        return profiler != null ? profiler.snapshot() : null;
+    }
+
+    /**
+     * Get counters which describe the behavior of this provider.
+     *
+     * @return the metrics for this provider
+     */
+    public ProviderMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -0,0 +1,152 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters which describe the behavior of a {@link Provider}.
+ * <p>
+ * The counters are cumulative for the lifetime of the provider, and can be read at any time using
+ * {@link Provider#getMetrics()}.
+ */
+public final class ProviderMetrics {
+    final LongAdder deadlinesExceeded = new LongAdder();
+    final LongAdder lastKnownGoodServed = new LongAdder();
+    final LongAdder circuitBreakerOpened = new LongAdder();
+    final LongAdder circuitBreakerRejected = new LongAdder();
+    final LongAdder degradedShortCircuits = new LongAdder();
+    final LongAdder unknownFlagEvaluations = new LongAdder();
+    final ConcurrentHashMap<String, LongAdder> unknownFlagKeys = new ConcurrentHashMap<>();
+    final LongAdder storeHits = new LongAdder();
+    final LongAdder storeMisses = new LongAdder();
+    final LongAdder storeCoalescedReads = new LongAdder();
+    final LongAdder storeRefreshes = new LongAdder();
+    final LongAdder suppressedStaleTransitions = new LongAdder();
+    final LongAdder coalescedInterruptions = new LongAdder();
+    final LongAdder submittedEvents = new LongAdder();
+    final LongAdder droppedEvents = new LongAdder();
+
+    ProviderMetrics() {
+    }
+
+    /**
+     * @return the number of evaluations which did not complete within the evaluation deadline
+     */
+    public long getDeadlinesExceeded() {
+        return deadlinesExceeded.sum();
+    }
+
+    /**
+     * @return the number of evaluations which were answered with a last known good result
+     */
+    public long getLastKnownGoodServed() {
+        return lastKnownGoodServed.sum();
+    }
+
+    /**
+     * @return the number of times the evaluation circuit breaker has opened
+     */
+    public long getCircuitBreakerOpened() {
+        return circuitBreakerOpened.sum();
+    }
+
+    /**
+     * @return the number of evaluations which were not sent to the LaunchDarkly client because the circuit
+     * breaker was open
+     */
+    public long getCircuitBreakerRejected() {
+        return circuitBreakerRejected.sum();
+    }
+
+    /**
+     * @return the number of evaluations which returned the default value without calling the LaunchDarkly client,
+     * because of the {@link DegradedModePolicy}
+     */
+    public long getDegradedShortCircuits() {
+        return degradedShortCircuits.sum();
+    }
+
+    /**
+     * @return the number of evaluations which returned FLAG_NOT_FOUND without calling the LaunchDarkly client,
+     * because the flag key is not known
+     */
+    public long getUnknownFlagEvaluations() {
+        return unknownFlagEvaluations.sum();
+    }
+
+    /**
+     * Get the number of evaluations of each unknown flag key.
+     * <p>
+     * A bounded number of distinct keys are tracked. Evaluations of keys beyond that bound are only included in
+     * {@link #getUnknownFlagEvaluations()}.
+     *
+     * @return a snapshot of evaluation counts by unknown flag key
+     */
+    public Map<String, Long> getUnknownFlagKeyCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        unknownFlagKeys.forEach((key, count) -> counts.put(key, count.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * @return the number of data store reads answered by the provider's read-through cache
+     */
+    public long getStoreHits() {
+        return storeHits.sum();
+    }
+
+    /**
+     * @return the number of data store reads which were not in the provider's read-through cache
+     */
+    public long getStoreMisses() {
+        return storeMisses.sum();
+    }
+
+    /**
+     * @return the number of data store reads which waited for a concurrent read of the same item, instead of
+     * reading the underlying store themselves
+     */
+    public long getStoreCoalescedReads() {
+        return storeCoalescedReads.sum();
+    }
+
+    /**
+     * @return the number of background refreshes of frequently read data store items
+     */
+    public long getStoreRefreshes() {
+        return storeRefreshes.sum();
+    }
+
+    /**
+     * @return the number of data source interruptions which recovered within the stale dwell time, and so were not
+     * announced as STALE
+     */
+    public long getSuppressedStaleTransitions() {
+        return suppressedStaleTransitions.sum();
+    }
+
+    /**
+     * @return the number of repeated INTERRUPTED status updates which were folded into an interruption that was
+     * already pending or announced
+     */
+    public long getCoalescedInterruptions() {
+        return coalescedInterruptions.sum();
+    }
+
+    /**
+     * @return the number of analytics and custom events the provider has submitted to the LaunchDarkly client
+     */
+    public long getSubmittedEvents() {
+        return submittedEvents.sum();
+    }
+
+    /**
+     * @return the number of {@code track} calls which were dropped because the provider was shutting down
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+}
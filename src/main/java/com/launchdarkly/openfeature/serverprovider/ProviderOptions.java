@@ -0,0 +1,508 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.subsystems.ComponentConfigurer;
+import com.launchdarkly.sdk.server.subsystems.DataStore;
+
+import dev.openfeature.sdk.EvaluationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Options which control the behavior of the {@link Provider} itself, as opposed to the LaunchDarkly client
+ * which is configured using an {@link com.launchdarkly.sdk.server.LDConfig}.
+ * <p>
+ * Instances are immutable and are created using {@link ProviderOptions.Builder}.
+ * <pre><code>
+ * ProviderOptions options = new ProviderOptions.Builder()
+ *     .asyncExecutor(myExecutor)
+ *     .build();
+ * Provider provider = new Provider("my-sdk-key", config, options);
+ * </code></pre>
+ */
+public final class ProviderOptions {
+    final Executor asyncExecutor;
+    final boolean deferAsyncUntilReady;
+    final Duration asyncTimeout;
+    final Duration evaluationDeadline;
+    final int lastKnownGoodCacheSize;
+    final int circuitBreakerFailureThreshold;
+    final Duration circuitBreakerOpenDuration;
+    final DegradedModePolicy degradedModePolicy;
+    final boolean unknownFlagFilter;
+    final ComponentConfigurer<DataStore> dataStore;
+    final Duration readCoalescingCacheTime;
+    final Path sharedFlagStorePath;
+    final boolean sharedFlagStoreWriter;
+    final boolean sharedClient;
+    final int flagUsageMaxEntries;
+    final FlagUsageSink flagUsageSink;
+    final Duration flagUsageExportInterval;
+    final boolean evaluationProfiling;
+    final int slowEvaluationSamples;
+    final List<EvaluationContext> warmUpContexts;
+    final int warmUpIterations;
+    final Duration staleDwellTime;
+    final ConversionLimits contextConversionLimits;
+    final ConversionLimits flagValueConversionLimits;
+    final Duration shutdownTimeout;
+    final boolean attributePruning;
+
+    private ProviderOptions(Builder builder) {
+        this.asyncExecutor = builder.asyncExecutor;
+        this.deferAsyncUntilReady = builder.deferAsyncUntilReady;
+        this.asyncTimeout = builder.asyncTimeout;
+        this.evaluationDeadline = builder.evaluationDeadline;
+        this.lastKnownGoodCacheSize = builder.lastKnownGoodCacheSize;
+        this.circuitBreakerFailureThreshold = builder.circuitBreakerFailureThreshold;
+        this.circuitBreakerOpenDuration = builder.circuitBreakerOpenDuration;
+        this.degradedModePolicy = builder.degradedModePolicy;
+        this.unknownFlagFilter = builder.unknownFlagFilter;
+        this.dataStore = builder.dataStore;
+        this.readCoalescingCacheTime = builder.readCoalescingCacheTime;
+        this.sharedFlagStorePath = builder.sharedFlagStorePath;
+        this.sharedFlagStoreWriter = builder.sharedFlagStoreWriter;
+        this.sharedClient = builder.sharedClient;
+        this.flagUsageMaxEntries = builder.flagUsageMaxEntries;
+        this.flagUsageSink = builder.flagUsageSink;
+        this.flagUsageExportInterval = builder.flagUsageExportInterval;
+        this.evaluationProfiling = builder.evaluationProfiling;
+        this.slowEvaluationSamples = builder.slowEvaluationSamples;
+        this.warmUpContexts = builder.warmUpContexts;
+        this.warmUpIterations = builder.warmUpIterations;
+        this.staleDwellTime = builder.staleDwellTime;
+        this.contextConversionLimits = builder.contextConversionLimits;
+        this.flagValueConversionLimits = builder.flagValueConversionLimits;
+        this.shutdownTimeout = builder.shutdownTimeout;
+        this.attributePruning = builder.attributePruning;
+    }
+
+    /**
+     * A builder for {@link ProviderOptions}.
+     */
+    public static final class Builder {
+        private Executor asyncExecutor;
+        private boolean deferAsyncUntilReady;
+        private Duration asyncTimeout;
+        private Duration evaluationDeadline;
+        private int lastKnownGoodCacheSize;
+        private int circuitBreakerFailureThreshold = 5;
+        private Duration circuitBreakerOpenDuration = Duration.ofSeconds(30);
+        private DegradedModePolicy degradedModePolicy = DegradedModePolicy.EVALUATE;
+        private boolean unknownFlagFilter;
+        private ComponentConfigurer<DataStore> dataStore;
+        private Duration readCoalescingCacheTime;
+        private Path sharedFlagStorePath;
+        private boolean sharedFlagStoreWriter;
+        private boolean sharedClient;
+        private int flagUsageMaxEntries;
+        private FlagUsageSink flagUsageSink;
+        private Duration flagUsageExportInterval;
+        private boolean evaluationProfiling;
+        private int slowEvaluationSamples;
+        private List<EvaluationContext> warmUpContexts = Collections.emptyList();
+        private int warmUpIterations;
+        private Duration staleDwellTime;
+        private ConversionLimits contextConversionLimits = ConversionLimits.DEFAULT;
+        private ConversionLimits flagValueConversionLimits = ConversionLimits.NONE;
+        private Duration shutdownTimeout;
+        private boolean attributePruning;
+
+        /**
+         * Create a builder with the default options.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Set the executor which runs asynchronous evaluations, such as
+         * {@link Provider#getBooleanEvaluationAsync(String, Boolean, dev.openfeature.sdk.EvaluationContext)}.
+         * <p>
+         * When not specified the provider creates a pool of daemon threads, which is shut down with the provider.
+         * An executor provided here is not shut down by the provider.
+         *
+         * @param executor the executor to use, or null to use the default
+         * @return the builder
+         */
+        public Builder asyncExecutor(Executor executor) {
+            this.asyncExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Set whether asynchronous evaluations requested before the provider has finished initializing should wait
+         * for initialization to finish before they are evaluated.
+         * <p>
+         * When false, which is the default, such evaluations run immediately and will generally produce a
+         * PROVIDER_NOT_READY error.
+         *
+         * @param defer true to defer evaluations until initialization has finished
+         * @return the builder
+         */
+        public Builder deferAsyncUntilReady(boolean defer) {
+            this.deferAsyncUntilReady = defer;
+            return this;
+        }
+
+        /**
+         * Set a deadline for asynchronous evaluations.
+         * <p>
+         * The deadline includes any time spent waiting for initialization. When it is exceeded the returned
+         * future completes exceptionally with a {@link java.util.concurrent.TimeoutException}, and an evaluation
+         * which has not started yet is not performed. By default there is no deadline.
+         *
+         * @param timeout the deadline, or null for no deadline
+         * @return the builder
+         */
+        public Builder asyncTimeout(Duration timeout) {
+            this.asyncTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Set a deadline for synchronous evaluations.
+         * <p>
+         * When an evaluation does not complete within the deadline, the provider returns the last known good
+         * result for the same flag and context, with a reason of {@code STALE}. If there is no such result, then
+         * the default value is returned with a {@code GENERAL} error. Evaluations which have a deadline run on the
+         * executor configured with {@link #asyncExecutor(Executor)}.
+         * <p>
+         * By default there is no deadline, and evaluations run on the calling thread.
+         *
+         * @param deadline the deadline, or null for no deadline
+         * @return the builder
+         */
+        public Builder evaluationDeadline(Duration deadline) {
+            this.evaluationDeadline = deadline;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of last known good results to retain.
+         * <p>
+         * Results are retained per flag key, requested value type and context, including all of the context's
+         * attributes. They are used when an evaluation exceeds its deadline, when the circuit breaker is open, or
+         * while the provider is STALE. When this is zero, which is the
+         * default, results are only retained if an {@link #evaluationDeadline(Duration)} is set, in which case
+         * a capacity of 10,000 is used.
+         *
+         * @param size the maximum number of results to retain
+         * @return the builder
+         */
+        public Builder lastKnownGoodCacheSize(int size) {
+            this.lastKnownGoodCacheSize = Math.max(0, size);
+            return this;
+        }
+
+        /**
+         * Configure the circuit breaker which protects evaluations that have a deadline.
+         * <p>
+         * After {@code failureThreshold} consecutive evaluations exceed their deadline the circuit opens, and for
+         * {@code openDuration} evaluations are answered from the last known good results without calling the
+         * LaunchDarkly client. A single trial evaluation is then allowed, and the circuit closes if it succeeds.
+         * The defaults are 5 failures and 30 seconds.
+         *
+         * @param failureThreshold the number of consecutive failures which opens the circuit
+         * @param openDuration     how long the circuit stays open before a trial evaluation
+         * @return the builder
+         * @throws IllegalArgumentException if {@code openDuration} is null or negative
+         */
+        public Builder circuitBreaker(int failureThreshold, Duration openDuration) {
+            if (openDuration == null || openDuration.isNegative()) {
+                throw new IllegalArgumentException("The circuit breaker's open duration must not be null or negative");
+            }
+            this.circuitBreakerFailureThreshold = Math.max(1, failureThreshold);
+            this.circuitBreakerOpenDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Set how evaluations behave while the provider cannot serve flag data.
+         * <p>
+         * The default, {@link DegradedModePolicy#EVALUATE}, always passes evaluations to the LaunchDarkly client.
+         *
+         * @param policy the policy to use
+         * @return the builder
+         */
+        public Builder degradedModePolicy(DegradedModePolicy policy) {
+            this.degradedModePolicy = policy != null ? policy : DegradedModePolicy.EVALUATE;
+            return this;
+        }
+
+        /**
+         * Set whether evaluations of flag keys which do not exist should be rejected by the provider.
+         * <p>
+         * When enabled, the provider keeps the set of flag keys in the environment, and an evaluation of any
+         * other key returns FLAG_NOT_FOUND without converting the context or evaluating the flag.
+         * Unknown keys are logged at a sampled rate, and counted in {@link ProviderMetrics}. The set is built when
+         * the provider becomes ready, by evaluating all flags once, and kept current from flag change
+         * notifications. With a persistent data store, which may be updated without notifications, for instance by
+         * another process writing a shared flag store, a key which is not in the set is checked with the data store
+         * before it is rejected, and then rejected without a check for one second. The filter is inactive while the
+         * client cannot list its flags, for instance when it is offline.
+         * <p>
+         * The default is false.
+         *
+         * @param enabled true to enable the filter
+         * @return the builder
+         */
+        public Builder unknownFlagFilter(boolean enabled) {
+            this.unknownFlagFilter = enabled;
+            return this;
+        }
+
+        /**
+         * Set the data store which the provider configures on the LaunchDarkly client.
+         * <p>
+         * This replaces any data store set in the {@link com.launchdarkly.sdk.server.LDConfig}. It is needed
+         * when the provider decorates the data store, for instance with {@link #readCoalescing(Duration)}, because
+         * the provider cannot read the data store from an existing configuration. When it is not set, and the
+         * provider decorates the data store, the default in-memory data store is decorated.
+         * <p>
+         * This option only applies to providers created with an SDK key.
+         *
+         * @param dataStore a data store configurer, such as
+         *                  {@code Components.persistentDataStore(Redis.dataStore())}
+         * @return the builder
+         */
+        public Builder dataStore(ComponentConfigurer<DataStore> dataStore) {
+            this.dataStore = dataStore;
+            return this;
+        }
+
+        /**
+         * Enable a read-through cache in front of the data store.
+         * <p>
+         * Items read from the data store are cached for {@code cacheTime}. Concurrent reads of an item which is
+         * not cached are collapsed into a single read of the data store, and items which are read during the last
+         * fifth of their cache time are refreshed in the background, so that frequently read items do not expire.
+         * Hits, misses, coalesced reads, and refreshes are counted in {@link ProviderMetrics}.
+         * <p>
+         * This is most useful with a persistent data store, which is configured with
+         * {@link #dataStore(ComponentConfigurer)}. By default there is no read-through cache.
+         *
+         * @param cacheTime how long items are cached, or null to disable the cache
+         * @return the builder
+         */
+        public Builder readCoalescing(Duration cacheTime) {
+            this.readCoalescingCacheTime = cacheTime;
+            return this;
+        }
+
+        /**
+         * Share flag data between the processes on a host through a memory-mapped file.
+         * <p>
+         * Exactly one process on the host should be the writer. It connects to LaunchDarkly as usual, and writes
+         * the flag data it receives to the file. Every other process is a reader: it does not connect to
+         * LaunchDarkly for flag data, and instead evaluates using the data in the file, which it maps read-only and
+         * reads without locking. Readers pick up changes within one second, and do not emit configuration change
+         * events because they do not receive flag updates. Each process still delivers its own analytics events.
+         * <p>
+         * The file is created by the writer. A reader which starts before the writer has written any data
+         * evaluates as if it were not initialized. This option replaces {@link #dataStore(ComponentConfigurer)}.
+         * It only applies to providers created with an SDK key.
+         *
+         * @param path   the path of the shared file, which must be the same for every process
+         * @param writer true for the single process which connects to LaunchDarkly and writes the file
+         * @return the builder
+         */
+        public Builder sharedFlagStore(Path path, boolean writer) {
+            this.sharedFlagStorePath = path;
+            this.sharedFlagStoreWriter = writer;
+            return this;
+        }
+
+        /**
+         * Set whether providers created with the same SDK key and client configuration share one LaunchDarkly
+         * client.
+         * <p>
+         * When enabled, the first provider created with an SDK key creates the client, and later providers which
+         * also enable this option reuse it, along with its streaming connection, event processor, and flag data.
+         * The client is closed when the last provider using it is shut down. A client is only shared by providers
+         * given the same {@link com.launchdarkly.sdk.server.LDConfig} instance and the same options which affect
+         * the client: {@link #dataStore(ComponentConfigurer)}, {@link #sharedFlagStore(Path, boolean)}, read
+         * coalescing, and attribute pruning. A provider with a different configuration creates its own client.
+         * Data store metrics, such as those of read coalescing, are counted by the provider which created the
+         * client.
+         * <p>
+         * The default is false, in which case each provider creates its own client.
+         *
+         * @param shared true to share the client with other providers
+         * @return the builder
+         */
+        public Builder sharedClient(boolean shared) {
+            this.sharedClient = shared;
+            return this;
+        }
+
+        /**
+         * Enable counting of evaluations by flag key, variant, and reason.
+         * <p>
+         * Counts are available from {@link Provider#getFlagUsage()}. At most {@code maxEntries} distinct
+         * combinations of flag key, variant, and reason are counted, which fixes the memory used; further
+         * combinations are only counted in total. By default flag usage is not counted.
+         *
+         * @param maxEntries the maximum number of distinct combinations to count, or zero to disable counting
+         * @return the builder
+         */
+        public Builder flagUsageTracking(int maxEntries) {
+            this.flagUsageMaxEntries = Math.max(0, maxEntries);
+            return this;
+        }
+
+        /**
+         * Periodically export flag usage to a sink.
+         * <p>
+         * This enables flag usage counting, with a limit of 10,000 entries unless
+         * {@link #flagUsageTracking(int)} sets another. A final snapshot is exported when the provider is shut down.
+         *
+         * @param sink     the sink to export to
+         * @param interval how often to export
+         * @return the builder
+         */
+        public Builder flagUsageExport(FlagUsageSink sink, Duration interval) {
+            this.flagUsageSink = sink;
+            this.flagUsageExportInterval = interval;
+            return this;
+        }
+
+        /**
+         * Enable attribution of evaluation time and allocation to flag keys.
+         * <p>
+         * The results are available from {@link Provider#getEvaluationProfile()}. Besides per-flag totals, the
+         * slowest {@code slowEvaluationSamples} evaluations are retained along with the shape of their context:
+         * the context kinds and attribute names, but not attribute values. Profiling adds timing and allocation
+         * measurement to every evaluation, so it is disabled by default.
+         *
+         * @param slowEvaluationSamples the number of slow evaluations to retain
+         * @return the builder
+         */
+        public Builder evaluationProfiling(int slowEvaluationSamples) {
+            this.evaluationProfiling = true;
+            this.slowEvaluationSamples = Math.max(0, slowEvaluationSamples);
+            return this;
+        }
+
+        /**
+         * Warm up the provider before it reports READY.
+         * <p>
+         * When the client first has flag data, the provider runs
+         * {@link Provider#warmUp(Collection, Collection, int)} for every flag before reporting READY, so that the
+         * first real evaluations do not run in the interpreter. This delays READY by the time the warm up takes.
+         * By default the provider does not warm up.
+         *
+         * @param contexts   representative evaluation contexts; if empty, a synthetic context is used
+         * @param iterations the number of times to evaluate each flag for each context, or zero to disable warm up
+         * @return the builder
+         */
+        public Builder warmUpBeforeReady(Collection<? extends EvaluationContext> contexts, int iterations) {
+            this.warmUpContexts = contexts != null ? new ArrayList<>(contexts) : Collections.emptyList();
+            this.warmUpIterations = Math.max(0, iterations);
+            return this;
+        }
+
+        /**
+         * Damp data source status flapping.
+         * <p>
+         * By default every INTERRUPTED update from the data source is announced as STALE immediately, and the
+         * following VALID update as READY. With damping, a READY provider only reports STALE once the data source
+         * has stayed interrupted for {@code dwellTime}; an interruption which recovers sooner causes no state change
+         * or events. Repeated INTERRUPTED updates during an interruption are coalesced into a single STALE event.
+         * Suppressed and coalesced updates are counted in {@link ProviderMetrics}.
+         *
+         * @param dwellTime how long the data source must stay interrupted before the provider reports STALE
+         * @return the builder
+         */
+        public Builder staleDwellTime(Duration dwellTime) {
+            this.staleDwellTime = dwellTime;
+            return this;
+        }
+
+        /**
+         * Set the limits on converting a single context attribute from OpenFeature to LaunchDarkly representation.
+         * <p>
+         * A context attribute which exceeds a limit is converted to null, and an error is logged. Size is
+         * approximate: strings and object keys count their length, and other values count eight. By default
+         * attributes may be nested 32 levels deep, and contain 10,000 elements and 1 MiB of data. Flag values are
+         * not limited by this; see {@link #flagValueConversionLimits(int, int, long)}.
+         *
+         * @param maxDepth    the maximum nesting of lists and structures
+         * @param maxElements the maximum number of list and structure elements in one attribute
+         * @param maxBytes    the maximum approximate size of one attribute
+         * @return the builder
+         */
+        public Builder conversionLimits(int maxDepth, int maxElements, long maxBytes) {
+            this.contextConversionLimits = new ConversionLimits(maxDepth, maxElements, maxBytes);
+            return this;
+        }
+
+        /**
+         * Set limits on converting flag values, and the default values and tracking data supplied with them,
+         * between OpenFeature and LaunchDarkly representations.
+         * <p>
+         * An evaluation whose flag value exceeds a limit returns the default value with a GENERAL error. Size is
+         * measured as for {@link #conversionLimits(int, int, long)}. By default flag values are not limited.
+         *
+         * @param maxDepth    the maximum nesting of lists and structures
+         * @param maxElements the maximum number of list and structure elements in one value
+         * @param maxBytes    the maximum approximate size of one value
+         * @return the builder
+         */
+        public Builder flagValueConversionLimits(int maxDepth, int maxElements, long maxBytes) {
+            this.flagValueConversionLimits = new ConversionLimits(maxDepth, maxElements, maxBytes);
+            return this;
+        }
+
+        /**
+         * Bound how long {@link Provider#shutdown()} can take.
+         * <p>
+         * By default shutdown closes the LaunchDarkly client on the calling thread, which waits for pending events
+         * to be flushed however long that takes. With a timeout, shutdown behaves like
+         * {@link Provider#shutdownAsync(Duration)}: the client is flushed and closed in the background, and shutdown
+         * returns once that has finished or the timeout has passed, whichever is first.
+         *
+         * @param timeout the longest shutdown should wait for events to be flushed
+         * @return the builder
+         */
+        public Builder shutdownTimeout(Duration timeout) {
+            this.shutdownTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Only convert the context attributes which flags and segments refer to.
+         * <p>
+         * When enabled, the provider indexes the attributes used by flag and segment rules, for each context kind,
+         * from the data written to the client's data store, and keeps the index current as flags change. Other
+         * attributes are left out when an evaluation context is converted, which saves converting them and keeps
+         * them out of analytics events. The key, kind, name, anonymous flag and private attribute list are always
+         * kept.
+         * <p>
+         * Attributes which are left out do not appear in LaunchDarkly's list of contexts, and are not available
+         * to rules until a flag refers to them. Until the data store has been initialized, and when the provider
+         * cannot observe the data store (for example a shared client created by another provider, or a data
+         * store only updated externally), every attribute is kept. By default every attribute is kept.
+         *
+         * @param enabled true to leave out attributes which no flag or segment refers to
+         * @return the builder
+         */
+        public Builder attributePruning(boolean enabled) {
+            this.attributePruning = enabled;
+            return this;
+        }
+
+        /**
+         * Build the options.
+         *
+         * @return an immutable options instance
+         */
+        public ProviderOptions build() {
+            return new ProviderOptions(this);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import com.launchdarkly.sdk.server.subsystems.ComponentConfigurer;
+import com.launchdarkly.sdk.server.subsystems.DataStore;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * A process-wide, reference-counted registry of LaunchDarkly clients, so that providers created with the same SDK
+ * key and configuration can share one client.
+ */
+final class SharedClientRegistry {
+    /**
+     * Identifies the clients which can be shared: the SDK key, the {@link LDConfig} instance, which cannot be
+     * compared by value, and the provider options which affect the client.
+     */
+    static final class Key {
+        private final String sdkKey;
+        private final LDConfig config;
+        private final ComponentConfigurer<DataStore> dataStore;
+        private final Path sharedFlagStorePath;
+        private final boolean sharedFlagStoreWriter;
+        private final Duration readCoalescingCacheTime;
+        private final boolean attributePruning;
+
+        Key(String sdkKey, LDConfig config, ProviderOptions options) {
+            this.sdkKey = sdkKey;
+            this.config = config;
+            this.dataStore = options.dataStore;
+            this.sharedFlagStorePath = options.sharedFlagStorePath;
+            this.sharedFlagStoreWriter = options.sharedFlagStoreWriter;
+            this.readCoalescingCacheTime = options.readCoalescingCacheTime;
+            this.attributePruning = options.attributePruning;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return sdkKey.equals(key.sdkKey)
+                && config == key.config
+                && dataStore == key.dataStore
+                && Objects.equals(sharedFlagStorePath, key.sharedFlagStorePath)
+                && sharedFlagStoreWriter == key.sharedFlagStoreWriter
+                && Objects.equals(readCoalescingCacheTime, key.readCoalescingCacheTime)
+                && attributePruning == key.attributePruning;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sdkKey, System.identityHashCode(config), System.identityHashCode(dataStore),
+                sharedFlagStorePath, sharedFlagStoreWriter, readCoalescingCacheTime, attributePruning);
+        }
+    }
+
+    /**
+     * A shared client, with the attribute usage index maintained from its data store, if attribute pruning is
+     * enabled, so that every provider using the client prunes with the same index.
+     */
+    static final class SharedClient {
+        final LDClientInterface client;
+        final AttributeUsageIndex attributeUsage;
+
+        SharedClient(LDClientInterface client, AttributeUsageIndex attributeUsage) {
+            this.client = client;
+            this.attributeUsage = attributeUsage;
+        }
+    }
+
+    private static final class Entry {
+        /**
+         * Completed by the first caller for the key once it has created the client, outside the registry's lock, as
+         * creating a client can wait for its data source to start.
+         */
+        final CompletableFuture<SharedClient> client = new CompletableFuture<>();
+        int references;
+    }
+
+    private static final Map<Key, Entry> entries = new HashMap<>();
+
+    private SharedClientRegistry() {
+    }
+
+    /**
+     * Get the shared client for a key, creating it if there is not one.
+     *
+     * @param key     the SDK key and the configuration of the client
+     * @param factory creates the client if there is not one
+     * @return the shared client
+     */
+    static SharedClient acquire(Key key, Supplier<SharedClient> factory) {
+        Entry entry;
+        boolean create = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(key, entry);
+                create = true;
+            }
+            entry.references++;
+        }
+
+        if (create) {
+            try {
+                entry.client.complete(factory.get());
+            } catch (RuntimeException e) {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                entry.client.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return entry.client.join();
+        } catch (CompletionException e) {
+            // Another provider failed to create the client.
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Release a reference to a shared client, closing it if this was the last reference.
+     *
+     * @param client the client to release
+     * @throws IOException if closing the client fails
+     */
+    static void release(LDClientInterface client) throws IOException {
+        LDClientInterface toClose = null;
+        synchronized (entries) {
+            var iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                SharedClient shared = entry.client.getNow(null);
+                if (shared != null && shared.client == client) {
+                    if (--entry.references == 0) {
+                        iterator.remove();
+                        toClose = client;
+                    }
+                    break;
+                }
+            }
+        }
+        if (toClose != null) {
+            toClose.close();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a bounded shutdown started with {@link Provider#shutdownAsync(Duration)}.
+ * <p>
+ * The LaunchDarkly client does not report how many events it delivers, so the result reports what the provider can
+ * observe: whether closing the client, which includes its final flush, finished before the deadline, and how many
+ * events the provider handed to the client and rejected. The counts say nothing about delivery; the client may still
+ * have dropped events, for instance when its event queue was full or a flush failed.
+ */
+public final class ShutdownResult {
+    private final boolean completed;
+    private final Duration elapsed;
+    private final long eventsSubmitted;
+    private final long eventsRejected;
+
+    ShutdownResult(boolean completed, Duration elapsed, long eventsSubmitted, long eventsRejected) {
+        this.completed = completed;
+        this.elapsed = elapsed;
+        this.eventsSubmitted = eventsSubmitted;
+        this.eventsRejected = eventsRejected;
+    }
+
+    /**
+     * @return true if closing the client, including its final flush attempt, finished before the deadline
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return how long the shutdown took, or the deadline if it was not completed in time
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return the number of events the provider handed to the client over its lifetime: one for each evaluation
+     * outside an event free scope, and one for each {@code track} call
+     */
+    public long getEventsSubmitted() {
+        return eventsSubmitted;
+    }
+
+    /**
+     * @return the number of {@code track} calls made after shutdown began, which were not submitted to the client
+     */
+    public long getEventsRejected() {
+        return eventsRejected;
+    }
+
+    @Override
+    public String toString() {
+        return "ShutdownResult{completed=" + completed + ", elapsed=" + elapsed + ", eventsSubmitted="
+            + eventsSubmitted + ", eventsRejected=" + eventsRejected + "}";
+    }
+}
@@ -0,0 +1,91 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A cold {@link Flow.Publisher} which emits the result of a single asynchronous operation.
+ * <p>
+ * The operation is started for each subscriber once that subscriber requests an item, and it is cancelled if the
+ * subscription is cancelled before the result is available.
+ *
+ * @param <T> the type of the result
+ */
+class SingleResultPublisher<T> implements Flow.Publisher<T> {
+    private final Supplier<? extends CompletableFuture<T>> source;
+
+    SingleResultPublisher(Supplier<? extends CompletableFuture<T>> source) {
+        this.source = source;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        subscriber.onSubscribe(new SingleResultSubscription(subscriber));
+    }
+
+    private final class SingleResultSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        private volatile CompletableFuture<T> pending;
+
+        SingleResultSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long count) {
+            if (terminated.get()) return;
+            if (count <= 0) {
+                // Required by rule 3.9 of the reactive streams specification.
+                if (terminated.compareAndSet(false, true)) {
+                    cancelPending();
+                    subscriber.onError(new IllegalArgumentException("The requested count must be positive."));
+                }
+                return;
+            }
+            if (!started.compareAndSet(false, true)) return;
+
+            CompletableFuture<T> future;
+            try {
+                future = source.get();
+            } catch (RuntimeException e) {
+                if (terminated.compareAndSet(false, true)) {
+                    subscriber.onError(e);
+                }
+                return;
+            }
+            pending = future;
+            future.whenComplete((value, error) -> {
+                if (!terminated.compareAndSet(false, true)) return;
+                if (error != null) {
+                    subscriber.onError(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+                } else {
+                    subscriber.onNext(value);
+                    subscriber.onComplete();
+                }
+            });
+        }
+
+        @Override
+        public void cancel() {
+            if (terminated.compareAndSet(false, true)) {
+                cancelPending();
+            }
+        }
+
+        private void cancelPending() {
+            CompletableFuture<T> future = pending;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
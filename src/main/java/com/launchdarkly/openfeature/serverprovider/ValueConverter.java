@@ -3,26 +3,48 @@ package com.launchdarkly.openfeature.serverprovider;
 import com.launchdarkly.logging.LDLogger;
 import com.launchdarkly.sdk.LDValue;
 import com.launchdarkly.sdk.ObjectBuilder;
-import dev.openfeature.sdk.Structure;
 import dev.openfeature.sdk.Value;
 
-import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Converts an OpenFeature Value into an LDValue.
+ * <p>
+ * Conversion is a single pass, and values which exceed the {@link ConversionLimits} are converted to null with an
+ * error logged, rather than converted in full.
  */
 class ValueConverter {
+    private static final DateTimeFormatter INSTANT_FORMATTER = DateTimeFormatter.ISO_DATE_TIME.withZone(ZoneOffset.UTC);
+
     private final LDLogger logger;
+    private final ConversionLimits limits;
 
     public ValueConverter(LDLogger logger) {
+        this(logger, ConversionLimits.NONE);
+    }
+
+    ValueConverter(LDLogger logger, ConversionLimits limits) {
         this.logger = logger;
+        this.limits = limits;
     }
 
     public LDValue toLdValue(Value value) {
+        try {
+            if (value.isList() || value.isStructure()) {
+                return convert(value, 0, limits.newBudget());
+            }
+            return convertScalar(value);
+        } catch (ConversionLimits.LimitExceeded e) {
+            logger.error("Could not convert Value in context to LDValue, because {}. Using null instead.",
+                e.getMessage());
+            return LDValue.ofNull();
+        }
+    }
+
+    private LDValue convertScalar(Value value) {
         if (value.isNull()) {
             return LDValue.ofNull();
         }
@@ -33,33 +55,45 @@ class ValueConverter {
             return LDValue.of(value.asDouble());
         }
         if (value.isString()) {
-            return LDValue.of(value.asString());
+            String string = value.asString();
+            limits.checkString(string);
+            return LDValue.of(string);
         }
         if (value.isInstant()) {
-            DateTimeFormatter formatter = DateTimeFormatter
-                    .ISO_DATE_TIME
-                    .withZone(ZoneId.from(ZoneOffset.UTC));
-            return LDValue.of(formatter.format(value.asInstant()));
+            return LDValue.of(INSTANT_FORMATTER.format(value.asInstant()));
         }
+
+        // Could not convert, should not happen.
+        logger.error("Could not convert Value in context to LDValue");
+        return LDValue.ofNull();
+    }
+
+    private LDValue convert(Value value, int depth, ConversionLimits.Budget budget) {
         if (value.isList()) {
-            List<Value> asList = value.asList();
-            List<LDValue> asLdValues = asList.stream()
-                    .map(this::toLdValue)
-                    .collect(Collectors.toList());
-            return LDValue.arrayOf(asLdValues.toArray(new LDValue[0]));
+            budget.checkDepth(depth + 1);
+            List<Value> list = value.asList();
+            LDValue[] items = new LDValue[list.size()];
+            for (int i = 0; i < items.length; i++) {
+                Value item = list.get(i);
+                budget.addElement(sizeOf(item));
+                items[i] = convert(item, depth + 1, budget);
+            }
+            return LDValue.arrayOf(items);
         }
         if (value.isStructure()) {
+            budget.checkDepth(depth + 1);
             ObjectBuilder objectBuilder = LDValue.buildObject();
-            Structure structure = value.asStructure();
-            structure.asMap().forEach((itemKey, itemValue) -> {
-                LDValue itemLdValue = toLdValue(itemValue);
-                objectBuilder.put(itemKey, itemLdValue);
-            });
+            for (Map.Entry<String, Value> entry : value.asStructure().asUnmodifiableMap().entrySet()) {
+                Value item = entry.getValue();
+                budget.addElement(entry.getKey().length() + sizeOf(item));
+                objectBuilder.put(entry.getKey(), convert(item, depth + 1, budget));
+            }
             return objectBuilder.build();
         }
+        return convertScalar(value);
+    }
 
-        // Could not convert, should not happen.
-        logger.error("Could not convert Value in context to LDValue");
-        return LDValue.ofNull();
+    private static long sizeOf(Value value) {
+        return value.isString() ? value.asString().length() : 8;
     }
 }
@@ -0,0 +1,158 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.FlagTracker;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AsyncEvaluationTest {
+    LDClientInterface mockedLdClient = mock(LDClientInterface.class);
+
+    {
+        when(mockedLdClient.getFlagTracker()).thenReturn(mock(FlagTracker.class));
+        DataSourceStatusProvider dsp = mock(DataSourceStatusProvider.class);
+        when(dsp.getStatus()).thenReturn(new DataSourceStatusProvider.Status(
+            DataSourceStatusProvider.State.VALID, null, null));
+        when(mockedLdClient.getDataSourceStatusProvider()).thenReturn(dsp);
+        when(mockedLdClient.isInitialized()).thenReturn(true);
+        when(mockedLdClient.boolVariationDetail("the-key", LDContext.create("user-key"), false))
+            .thenReturn(EvaluationDetail.fromValue(true, 1, EvaluationReason.fallthrough()));
+    }
+
+    @Test
+    public void itCanEvaluateAsynchronously() throws Exception {
+        var provider = new Provider(mockedLdClient);
+        provider.initialize(new ImmutableContext());
+
+        ProviderEvaluation<Boolean> result = provider
+            .getBooleanEvaluationAsync("the-key", false, new ImmutableContext("user-key"))
+            .get(1, TimeUnit.SECONDS);
+
+        assertTrue(result.getValue());
+        assertEquals("1", result.getVariant());
+    }
+
+    @Test
+    public void itUsesTheConfiguredExecutor() throws Exception {
+        List<Runnable> queued = new ArrayList<>();
+        Executor executor = queued::add;
+        var provider = new Provider(mockedLdClient, new ProviderOptions.Builder().asyncExecutor(executor).build());
+
+        var future = provider.getBooleanEvaluationAsync("the-key", false, new ImmutableContext("user-key"));
+        assertFalse(future.isDone());
+        assertEquals(1, queued.size());
+
+        queued.get(0).run();
+        assertTrue(future.get().getValue());
+    }
+
+    @Test
+    public void aCancelledEvaluationIsNotPerformed() {
+        List<Runnable> queued = new ArrayList<>();
+        var provider = new Provider(mockedLdClient, new ProviderOptions.Builder().asyncExecutor(queued::add).build());
+
+        var future = provider.getBooleanEvaluationAsync("the-key", false, new ImmutableContext("user-key"));
+        future.cancel(false);
+        queued.get(0).run();
+
+        verify(mockedLdClient, never()).boolVariationDetail(any(), any(), anyBoolean());
+    }
+
+    @Test
+    public void itCanDeferEvaluationsUntilInitialized() throws Exception {
+        when(mockedLdClient.isInitialized()).thenReturn(false);
+        DataSourceStatusProvider dsp = mock(DataSourceStatusProvider.class);
+        when(dsp.getStatus()).thenReturn(new DataSourceStatusProvider.Status(
+            DataSourceStatusProvider.State.INITIALIZING, null, null));
+        when(mockedLdClient.getDataSourceStatusProvider()).thenReturn(dsp);
+
+        var provider = new Provider(mockedLdClient, new ProviderOptions.Builder().deferAsyncUntilReady(true).build());
+        var future = provider.getBooleanEvaluationAsync("the-key", false, new ImmutableContext("user-key"));
+
+        assertThrows(TimeoutException.class, () -> future.get(100, TimeUnit.MILLISECONDS));
+        verify(mockedLdClient, never()).boolVariationDetail(any(), any(), anyBoolean());
+
+        // Initialization blocks until the data source reports a status, so run it in the background.
+        CompletableFuture.runAsync(() -> {
+            try {
+                provider.initialize(new ImmutableContext());
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        var captor = ArgumentCaptor.forClass(DataSourceStatusProvider.StatusListener.class);
+        verify(dsp, timeout(1000)).addStatusListener(captor.capture());
+        captor.getValue().dataSourceStatusChanged(new DataSourceStatusProvider.Status(
+            DataSourceStatusProvider.State.VALID, null, null));
+
+        assertTrue(future.get(1, TimeUnit.SECONDS).getValue());
+    }
+
+    @Test
+    public void itEnforcesTheConfiguredTimeout() {
+        var provider = new Provider(mockedLdClient, new ProviderOptions.Builder()
+            .asyncExecutor(runnable -> { })
+            .asyncTimeout(Duration.ofMillis(10))
+            .build());
+
+        var future = provider.getBooleanEvaluationAsync("the-key", false, new ImmutableContext("user-key"));
+        var error = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+    }
+
+    @Test
+    public void itCanPublishAnEvaluation() throws Exception {
+        var provider = new Provider(mockedLdClient);
+        provider.initialize(new ImmutableContext());
+
+        var publisher = Provider.publisherOf(
+            () -> provider.getBooleanEvaluationAsync("the-key", false, new ImmutableContext("user-key")));
+
+        var received = new ArrayList<ProviderEvaluation<Boolean>>();
+        var completed = new CountDownLatch(1);
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ProviderEvaluation<Boolean> item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        assertTrue(completed.await(1, TimeUnit.SECONDS));
+        assertEquals(1, received.size());
+        assertTrue(received.get(0).getValue());
+    }
+}
@@ -0,0 +1,151 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.integrations.TestData;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.DataKind;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.FullDataSet;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.ItemDescriptor;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.KeyedItems;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.Value;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttributeUsageIndexTest {
+    // Stand-ins for the SDK's data kinds, which serialize items that are already JSON strings.
+    private static final DataKind FEATURES = new DataKind("features",
+        item -> String.valueOf(item.getItem()), serialized -> new ItemDescriptor(1, serialized));
+    private static final DataKind SEGMENTS = new DataKind("segments",
+        item -> String.valueOf(item.getItem()), serialized -> new ItemDescriptor(1, serialized));
+
+    private static final String FLAG = "{\"key\":\"flag\",\"rules\":[{\"clauses\":["
+        + "{\"contextKind\":\"org\",\"attribute\":\"/address/city\",\"op\":\"in\",\"values\":[\"x\"]},"
+        + "{\"attribute\":\"email\",\"op\":\"endsWith\",\"values\":[\"x\"]},"
+        + "{\"attribute\":\"ignored\",\"op\":\"segmentMatch\",\"values\":[\"segment\"]}],"
+        + "\"rollout\":{\"bucketBy\":\"tier\",\"variations\":[]}}],"
+        + "\"fallthrough\":{\"rollout\":{\"contextKind\":\"org\",\"bucketBy\":\"/team\",\"variations\":[]}}}";
+
+    private static final String SEGMENT = "{\"key\":\"segment\",\"rules\":[{\"clauses\":["
+        + "{\"contextKind\":\"device\",\"attribute\":\"os\",\"op\":\"in\",\"values\":[\"x\"]}],"
+        + "\"bucketBy\":\"/model\",\"rolloutContextKind\":\"device\"}]}";
+
+    private static FullDataSet<ItemDescriptor> dataSet(DataKind kind, String key, String json) {
+        Map.Entry<String, ItemDescriptor> itemEntry = new AbstractMap.SimpleEntry<>(key, new ItemDescriptor(1, json));
+        KeyedItems<ItemDescriptor> items = new KeyedItems<>(Collections.singletonList(itemEntry));
+        Map.Entry<DataKind, KeyedItems<ItemDescriptor>> kindEntry = new AbstractMap.SimpleEntry<>(kind, items);
+        return new FullDataSet<>(Collections.singletonList(kindEntry));
+    }
+
+    @Test
+    public void itIndexesFlagClausesAndRollouts() {
+        var index = new AttributeUsageIndex();
+        assertNull(index.attributesFor("user"));
+
+        index.init(dataSet(FEATURES, "flag", FLAG), LDLogger.none());
+
+        assertEquals(Set.of("email", "tier"), index.attributesFor("user"));
+        assertEquals(Set.of("address", "team"), index.attributesFor("org"));
+        assertEquals(Set.of(), index.attributesFor("device"));
+    }
+
+    @Test
+    public void itIndexesSegmentRules() {
+        var index = new AttributeUsageIndex();
+        index.init(dataSet(SEGMENTS, "segment", SEGMENT), LDLogger.none());
+
+        assertEquals(Set.of("os", "model"), index.attributesFor("device"));
+    }
+
+    @Test
+    public void itFollowsUpdatesAndDeletions() {
+        var index = new AttributeUsageIndex();
+        index.init(dataSet(FEATURES, "flag", FLAG), LDLogger.none());
+
+        index.update(SEGMENTS, "segment", new ItemDescriptor(1, SEGMENT), LDLogger.none());
+        assertEquals(Set.of("os", "model"), index.attributesFor("device"));
+
+        index.update(FEATURES, "flag", ItemDescriptor.deletedItem(2), LDLogger.none());
+        assertEquals(Set.of(), index.attributesFor("user"));
+    }
+
+    @Test
+    public void wideningKeepsTheAttributesOfTheCurrentVersion() {
+        var index = new AttributeUsageIndex();
+        index.init(dataSet(FEATURES, "flag", FLAG), LDLogger.none());
+        String updated = "{\"key\":\"flag\",\"rules\":[{\"clauses\":["
+            + "{\"attribute\":\"country\",\"op\":\"in\",\"values\":[\"x\"]}]}]}";
+
+        index.widen(FEATURES, "flag", new ItemDescriptor(2, updated), LDLogger.none());
+        assertEquals(Set.of("email", "tier", "country"), index.attributesFor("user"));
+
+        index.update(FEATURES, "flag", new ItemDescriptor(2, updated), LDLogger.none());
+        assertEquals(Set.of("country"), index.attributesFor("user"));
+    }
+
+    @Test
+    public void anUnreadableItemDisablesPruning() {
+        var index = new AttributeUsageIndex();
+        index.init(dataSet(FEATURES, "flag", "{\"rules\":"), LDLogger.none());
+
+        assertNull(index.attributesFor("user"));
+    }
+
+    @Test
+    public void theConverterOnlyKeepsReferencedAttributes() {
+        var index = new AttributeUsageIndex();
+        index.init(dataSet(FEATURES, "flag", FLAG), LDLogger.none());
+        var converter = new EvaluationContextConverter(LDLogger.none(), ConversionLimits.DEFAULT, index);
+
+        var context = converter.toLdContext(new ImmutableContext("user-key", Map.of(
+            "name", new Value("Name"),
+            "anonymous", new Value(true),
+            "email", new Value("a@example.com"),
+            "phone", new Value("555-0100"))));
+
+        assertEquals("user-key", context.getKey());
+        assertEquals("Name", context.getName());
+        assertTrue(context.isAnonymous());
+        assertEquals("a@example.com", context.getValue("email").stringValue());
+        assertTrue(context.getValue("phone").isNull());
+        assertEquals(List.of("email"), toList(context.getCustomAttributeNames()));
+    }
+
+    @Test
+    public void flagsTargetingAttributesStillMatch() throws Exception {
+        var td = TestData.dataSource();
+        td.update(td.flag("email-flag").booleanFlag()
+            .ifMatch("email", LDValue.of("a@example.com")).thenReturn(true).fallthroughVariation(false));
+        var provider = new Provider("fake-key",
+            new LDConfig.Builder().dataSource(td).events(Components.noEvents()).build(),
+            new ProviderOptions.Builder().attributePruning(true).build());
+        provider.initialize(new ImmutableContext());
+        var context = new ImmutableContext("user-key", Map.of(
+            "email", new Value("a@example.com"),
+            "phone", new Value("555-0100")));
+
+        assertTrue(provider.getBooleanEvaluation("email-flag", false, context).getValue());
+
+        // A flag added later which targets a previously unused attribute is indexed before it is evaluated.
+        td.update(td.flag("phone-flag").booleanFlag()
+            .ifMatch("phone", LDValue.of("555-0100")).thenReturn(true).fallthroughVariation(false));
+        assertTrue(provider.getBooleanEvaluation("phone-flag", false, context).getValue());
+        provider.shutdown();
+    }
+
+    private static List<String> toList(Iterable<String> names) {
+        List<String> list = new ArrayList<>();
+        names.forEach(list::add);
+        return list;
+    }
+}
@@ -0,0 +1,186 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.integrations.TestData;
+import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.FlagTracker;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ImmutableContext;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ClientSwapTest {
+    private static LDConfig configFor(TestData td) {
+        return new LDConfig.Builder().dataSource(td).events(Components.noEvents()).build();
+    }
+
+    private static LDClientInterface mockClient() throws Exception {
+        LDClientInterface client = mock(LDClientInterface.class);
+        DataSourceStatusProvider dsp = mock(DataSourceStatusProvider.class);
+        when(dsp.getStatus()).thenReturn(
+            new DataSourceStatusProvider.Status(DataSourceStatusProvider.State.VALID, Instant.now(), null));
+        when(dsp.waitFor(any(), any())).thenReturn(true);
+        when(client.getDataSourceStatusProvider()).thenReturn(dsp);
+        when(client.getFlagTracker()).thenReturn(mock(FlagTracker.class));
+        when(client.getLogger()).thenReturn(LDLogger.none());
+        when(client.isInitialized()).thenReturn(true);
+        return client;
+    }
+
+    @Test
+    public void evaluationsSwitchToTheReplacementClient() throws Exception {
+        var original = TestData.dataSource();
+        original.update(original.flag("flag").valueForAll(LDValue.of("original")));
+        var replacement = TestData.dataSource();
+        replacement.update(replacement.flag("flag").valueForAll(LDValue.of("replacement")));
+
+        var provider = new Provider("original-key", configFor(original));
+        provider.initialize(new ImmutableContext());
+        var originalClient = provider.getLdClient();
+        List<String> changed = new CopyOnWriteArrayList<>();
+        provider.subscribe("flag", changed::add);
+        assertEquals("original", provider.getStringEvaluation("flag", "default",
+            new ImmutableContext("user-key")).getValue());
+
+        provider.swapClient("replacement-key", configFor(replacement), Duration.ofSeconds(5))
+            .get(10, TimeUnit.SECONDS);
+
+        assertNotSame(originalClient, provider.getLdClient());
+        assertEquals("replacement", provider.getStringEvaluation("flag", "default",
+            new ImmutableContext("user-key")).getValue());
+        assertEquals(List.of("flag"), changed);
+
+        // Flag changes now come from the replacement.
+        replacement.update(replacement.flag("flag").valueForAll(LDValue.of("updated")));
+        assertEquals("updated", provider.getStringEvaluation("flag", "default",
+            new ImmutableContext("user-key")).getValue());
+        provider.shutdown();
+    }
+
+    @Test
+    public void thePreviousClientIsClosedAfterTheSwap() throws Exception {
+        var previous = mockClient();
+        var replacement = mockClient();
+        var provider = new Provider(previous);
+        provider.initialize(new ImmutableContext());
+
+        provider.swapClient(() -> replacement, Duration.ofSeconds(5)).get(10, TimeUnit.SECONDS);
+
+        assertSame(replacement, provider.getLdClient());
+        verify(previous).close();
+        verify(previous.getDataSourceStatusProvider()).removeStatusListener(any());
+        verify(replacement.getDataSourceStatusProvider()).addStatusListener(any());
+        verify(replacement, never()).close();
+        provider.shutdown();
+        verify(replacement).close();
+    }
+
+    @Test
+    public void aReplacementWhichDoesNotBecomeValidIsDiscarded() throws Exception {
+        var previous = mockClient();
+        var replacement = mockClient();
+        when(replacement.getDataSourceStatusProvider().waitFor(any(), any())).thenReturn(false);
+        var provider = new Provider(previous);
+        provider.initialize(new ImmutableContext());
+
+        var swapped = provider.swapClient(() -> replacement, Duration.ofMillis(100));
+
+        assertThrows(ExecutionException.class, () -> swapped.get(10, TimeUnit.SECONDS));
+        assertSame(previous, provider.getLdClient());
+        verify(replacement).close();
+        verify(previous, never()).close();
+        provider.shutdown();
+    }
+
+    @Test
+    public void anEvaluationPastItsDeadlineKeepsThePreviousClientOpen() throws Exception {
+        var previous = mockClient();
+        var finished = new AtomicBoolean();
+        when(previous.boolVariationDetail(eq("flag"), any(), eq(false))).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            finished.set(true);
+            return EvaluationDetail.fromValue(true, 0, EvaluationReason.fallthrough());
+        });
+        var replacement = mockClient();
+        var provider = new Provider(previous,
+            new ProviderOptions.Builder().evaluationDeadline(Duration.ofMillis(50)).build());
+        provider.initialize(new ImmutableContext());
+
+        provider.getBooleanEvaluation("flag", false, new ImmutableContext("user-key"));
+        provider.swapClient(() -> replacement, Duration.ofSeconds(5)).get(10, TimeUnit.SECONDS);
+
+        assertTrue(finished.get());
+        verify(previous).close();
+        provider.shutdown();
+    }
+
+    @Test
+    public void aSharedFlagStoreWriterCannotSwapItsClient() throws Exception {
+        var provider = new Provider(mockClient(), new ProviderOptions.Builder()
+            .sharedFlagStore(Paths.get("flags.ldstore"), true)
+            .build());
+
+        assertThrows(IllegalStateException.class,
+            () -> provider.swapClient("replacement-key", new LDConfig.Builder().build(), Duration.ofSeconds(5)));
+        provider.shutdown();
+    }
+
+    @Test
+    public void aSharedClientIsReleasedWhenShutdownRacesWithTheSwap() throws Exception {
+        var config = new LDConfig.Builder().offline(true).build();
+        var sharedOptions = new ProviderOptions.Builder().sharedClient(true).build();
+        var provider = new Provider("swap-shared-key", config, sharedOptions);
+        provider.initialize(new ImmutableContext());
+        var previous = provider.getLdClient();
+
+        var replacement = mockClient();
+        var shutDown = new AtomicBoolean();
+        when(replacement.getDataSourceStatusProvider().getStatus()).thenAnswer(invocation -> {
+            // Shut down once the replacement has been installed, before the previous client is released.
+            if (provider.getLdClient() == replacement && shutDown.compareAndSet(false, true)) {
+                provider.shutdown();
+            }
+            return new DataSourceStatusProvider.Status(DataSourceStatusProvider.State.VALID, Instant.now(), null);
+        });
+        provider.swapClient(() -> replacement, Duration.ofSeconds(5)).get(10, TimeUnit.SECONDS);
+
+        assertTrue(shutDown.get());
+        verify(replacement).close();
+        var next = new Provider("swap-shared-key", config, sharedOptions);
+        assertNotSame(previous, next.getLdClient());
+        next.shutdown();
+    }
+
+    @Test
+    public void aSwapAfterShutdownDiscardsTheReplacement() throws Exception {
+        var previous = mockClient();
+        var replacement = mockClient();
+        var provider = new Provider(previous);
+        provider.initialize(new ImmutableContext());
+        provider.shutdown();
+
+        var swapped = provider.swapClient(() -> replacement, Duration.ofSeconds(5));
+
+        assertThrows(ExecutionException.class, () -> swapped.get(10, TimeUnit.SECONDS));
+        assertSame(previous, provider.getLdClient());
+        verify(replacement).close();
+    }
+}
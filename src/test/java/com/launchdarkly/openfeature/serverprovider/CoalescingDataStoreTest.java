@@ -0,0 +1,122 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.subsystems.DataStore;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.DataKind;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.FullDataSet;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.ItemDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CoalescingDataStoreTest {
+    private static final DataKind KIND = new DataKind("test",
+        item -> String.valueOf(item.getItem()), serialized -> new ItemDescriptor(1, serialized));
+
+    private final DataStore delegate = mock(DataStore.class);
+    private final ProviderMetrics metrics = new ProviderMetrics();
+
+    @Test
+    public void itCachesItems() {
+        when(delegate.get(KIND, "a")).thenReturn(new ItemDescriptor(1, "value"));
+        var store = new CoalescingDataStore(delegate, Duration.ofMinutes(1), metrics);
+
+        assertEquals("value", store.get(KIND, "a").getItem());
+        assertEquals("value", store.get(KIND, "a").getItem());
+
+        verify(delegate, times(1)).get(KIND, "a");
+        assertEquals(1, metrics.getStoreMisses());
+        assertEquals(1, metrics.getStoreHits());
+    }
+
+    @Test
+    public void itCoalescesConcurrentReads() throws Exception {
+        var release = new CountDownLatch(1);
+        when(delegate.get(KIND, "a")).thenAnswer(invocation -> {
+            release.await(1, TimeUnit.SECONDS);
+            return new ItemDescriptor(1, "value");
+        });
+        var store = new CoalescingDataStore(delegate, Duration.ofMinutes(1), metrics);
+
+        var reads = new ArrayList<CompletableFuture<ItemDescriptor>>();
+        for (int i = 0; i < 4; i++) {
+            reads.add(CompletableFuture.supplyAsync(() -> store.get(KIND, "a")));
+        }
+        await().until(() -> metrics.getStoreCoalescedReads() == 3);
+        release.countDown();
+
+        for (var read : reads) {
+            assertEquals("value", read.get(1, TimeUnit.SECONDS).getItem());
+        }
+        verify(delegate, times(1)).get(KIND, "a");
+    }
+
+    @Test
+    public void itAppliesNewerWritesToTheCache() {
+        when(delegate.get(KIND, "a")).thenReturn(new ItemDescriptor(1, "old"));
+        when(delegate.upsert(eq(KIND), eq("a"), any())).thenReturn(true);
+        var store = new CoalescingDataStore(delegate, Duration.ofMinutes(1), metrics);
+
+        store.get(KIND, "a");
+        store.upsert(KIND, "a", new ItemDescriptor(2, "new"));
+
+        assertEquals("new", store.get(KIND, "a").getItem());
+        verify(delegate, times(1)).get(KIND, "a");
+    }
+
+    @Test
+    public void itRefreshesItemsBeforeTheyExpire() throws Exception {
+        when(delegate.get(KIND, "a")).thenReturn(new ItemDescriptor(1, "value"));
+        var store = new CoalescingDataStore(delegate, Duration.ofMillis(200), metrics);
+
+        store.get(KIND, "a");
+        Thread.sleep(170);
+        store.get(KIND, "a");
+
+        await().untilAsserted(() -> verify(delegate, times(2)).get(KIND, "a"));
+        assertEquals(1, metrics.getStoreRefreshes());
+    }
+
+    @Test
+    public void aReadWhichOverlapsInitIsNotCached() throws Exception {
+        var reading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(delegate.get(KIND, "a"))
+            .thenAnswer(invocation -> {
+                reading.countDown();
+                release.await(1, TimeUnit.SECONDS);
+                return new ItemDescriptor(5, "old");
+            })
+            .thenReturn(new ItemDescriptor(1, "new"));
+        var store = new CoalescingDataStore(delegate, Duration.ofMinutes(1), metrics);
+
+        var read = CompletableFuture.supplyAsync(() -> store.get(KIND, "a"));
+        reading.await(1, TimeUnit.SECONDS);
+        store.init(new FullDataSet<>(Collections.emptyList()));
+        release.countDown();
+        assertEquals("old", read.get(1, TimeUnit.SECONDS).getItem());
+
+        assertEquals("new", store.get(KIND, "a").getItem());
+    }
+
+    @Test
+    public void aClosedStoreReadsThrough() throws Exception {
+        when(delegate.get(KIND, "a")).thenReturn(new ItemDescriptor(1, "value"));
+        var store = new CoalescingDataStore(delegate, Duration.ofMillis(200), metrics);
+
+        store.get(KIND, "a");
+        store.close();
+        Thread.sleep(170);
+
+        assertEquals("value", store.get(KIND, "a").getItem());
+        verify(delegate, times(2)).get(KIND, "a");
+    }
+}
@@ -0,0 +1,122 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.ContextKind;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.json.JsonSerialization;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.Value;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextCodecTest {
+    private static final LDContext USER = LDContext.builder("user-key")
+        .name("Sandy")
+        .set("email", "sandy@example.com")
+        .set("age", 42)
+        .set("score", 1.5)
+        .set("big", LDValue.of(1L << 40))
+        .set("negative", -7)
+        .set("beta", true)
+        .set("nothing", LDValue.ofNull())
+        .set("address", LDValue.buildObject()
+            .put("street", "1 Main St")
+            .put("tags", LDValue.arrayOf(LDValue.of("home"), LDValue.of("primary")))
+            .build())
+        .privateAttributes("email", "/address/street")
+        .build();
+
+    private static final LDContext ORGANIZATION = LDContext.builder(ContextKind.of("organization"), "org-key")
+        .anonymous(true)
+        .set("plan", "enterprise")
+        .set("customAttribute", "value")
+        .build();
+
+    @Test
+    public void aSingleContextRoundTrips() {
+        assertEquals(USER, ContextCodec.decode(ContextCodec.encode(USER)));
+    }
+
+    @Test
+    public void aMultiContextRoundTrips() {
+        var multi = LDContext.createMulti(USER, ORGANIZATION);
+        assertEquals(multi, ContextCodec.decode(ContextCodec.encode(multi)));
+    }
+
+    @Test
+    public void theEncodingIsSmallerThanJson() {
+        var multi = LDContext.createMulti(USER, ORGANIZATION);
+        assertTrue(ContextCodec.encode(multi).length < JsonSerialization.serialize(multi).length() / 2);
+    }
+
+    @Test
+    public void repeatedNamesAreOnlyWrittenOnce() {
+        var context = LDContext.builder("key")
+            .set("customAttribute", LDValue.buildObject().put("customAttribute", 1).build())
+            .build();
+        var encoded = new String(ContextCodec.encode(context), StandardCharsets.ISO_8859_1);
+        assertEquals(encoded.indexOf("customAttribute"), encoded.lastIndexOf("customAttribute"));
+    }
+
+    @Test
+    public void itRoundTripsThroughAHeaderValue() {
+        var header = ContextCodec.toHeaderValue(USER);
+        assertTrue(header.matches("[A-Za-z0-9_-]+"));
+        assertEquals(USER, ContextCodec.fromHeaderValue(header));
+    }
+
+    @Test
+    public void itEncodesOpenFeatureContexts() {
+        var context = new ImmutableContext("user-key", Map.of("email", new Value("sandy@example.com")));
+        assertEquals(LDContext.builder("user-key").set("email", "sandy@example.com").build(),
+            ContextCodec.decode(ContextCodec.encode(context)));
+    }
+
+    @Test
+    public void itRejectsInvalidData() {
+        var encoded = ContextCodec.encode(USER);
+        assertThrows(IllegalArgumentException.class,
+            () -> ContextCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+        assertThrows(IllegalArgumentException.class, () -> ContextCodec.decode(new byte[]{9, 1}));
+        assertThrows(IllegalArgumentException.class, () -> ContextCodec.decode(new byte[]{1, 0}));
+        assertThrows(IllegalArgumentException.class, () -> ContextCodec.decode(new byte[]{1, 0x7F, 0}));
+        assertThrows(IllegalArgumentException.class, () -> ContextCodec.encode(LDContext.create("")));
+    }
+
+    @Test
+    public void itRejectsInvalidNameReferences() {
+        // A reference whose varint sets the sign bit.
+        byte[] negative = {1, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+        assertThrows(IllegalArgumentException.class, () -> ContextCodec.decode(negative));
+        // A reference past the well known names, when no names have been defined.
+        assertThrows(IllegalArgumentException.class, () -> ContextCodec.decode(new byte[]{1, 1, 0x7F}));
+        // A reference past the names which have been defined: the kind defines one name, and the attribute refers
+        // to a second one, after the 22 well known names.
+        byte[] pastDefined = {1, 1, 0, 1, 'k', 1, 'x', 0, 1, 24, 0};
+        assertThrows(IllegalArgumentException.class, () -> ContextCodec.decode(pastDefined));
+    }
+
+    @Test
+    public void decodedEvaluationContextsAreNotConvertedAgain() {
+        var decoded = ContextCodec.decodeEvaluationContext(ContextCodec.encode(USER));
+        var converted = new EvaluationContextConverter(LDLogger.none()).toLdContext(decoded);
+        assertSame(((DecodedEvaluationContext) decoded).ldContext, converted);
+        assertEquals(USER, converted);
+    }
+
+    @Test
+    public void decodedEvaluationContextsCanBeMerged() {
+        var multi = LDContext.createMulti(USER, ORGANIZATION);
+        var decoded = ContextCodec.decodeEvaluationContext(ContextCodec.encode(multi));
+        var merged = decoded.merge(new ImmutableContext());
+
+        assertEquals(multi, new EvaluationContextConverter(LDLogger.none()).toLdContext(merged));
+    }
+}
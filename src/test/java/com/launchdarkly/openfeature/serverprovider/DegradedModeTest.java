@@ -0,0 +1,67 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.ProviderState;
+import dev.openfeature.sdk.Value;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DegradedModeTest {
+    private final ProviderMetrics metrics = new ProviderMetrics();
+
+    @Test
+    public void itEvaluatesByDefault() {
+        var degradedMode = new DegradedMode(DegradedModePolicy.EVALUATE, metrics);
+        assertNull(degradedMode.evaluate(ProviderState.NOT_READY, true));
+        assertNull(degradedMode.evaluate(ProviderState.ERROR, true));
+        assertEquals(0, metrics.getDegradedShortCircuits());
+    }
+
+    @Test
+    public void itCanShortCircuitOnlyOnError() {
+        var degradedMode = new DegradedMode(DegradedModePolicy.SHORT_CIRCUIT_ON_ERROR, metrics);
+        assertNull(degradedMode.evaluate(ProviderState.NOT_READY, true));
+        assertNull(degradedMode.evaluate(ProviderState.READY, true));
+
+        ProviderEvaluation<Boolean> result = degradedMode.evaluate(ProviderState.ERROR, true);
+        assertTrue(result.getValue());
+        assertEquals(ErrorCode.GENERAL, result.getErrorCode());
+        assertEquals("ERROR", result.getReason());
+        assertEquals(1, metrics.getDegradedShortCircuits());
+    }
+
+    @Test
+    public void itCanShortCircuitUntilReady() {
+        var degradedMode = new DegradedMode(DegradedModePolicy.SHORT_CIRCUIT_UNTIL_READY, metrics);
+        assertNull(degradedMode.evaluate(ProviderState.READY, "default"));
+        assertNull(degradedMode.evaluate(ProviderState.STALE, "default"));
+
+        ProviderEvaluation<String> notReady = degradedMode.evaluate(ProviderState.NOT_READY, "default");
+        assertEquals("default", notReady.getValue());
+        assertEquals(ErrorCode.PROVIDER_NOT_READY, notReady.getErrorCode());
+
+        ProviderEvaluation<String> error = degradedMode.evaluate(ProviderState.ERROR, "default");
+        assertEquals(ErrorCode.GENERAL, error.getErrorCode());
+        assertEquals(2, metrics.getDegradedShortCircuits());
+    }
+
+    @Test
+    public void theProviderDoesNotCallTheClientWhenShortCircuited() {
+        LDClientInterface mockedLdClient = mock(LDClientInterface.class);
+        var provider = new Provider(mockedLdClient, new ProviderOptions.Builder()
+            .degradedModePolicy(DegradedModePolicy.SHORT_CIRCUIT_UNTIL_READY).build());
+
+        ProviderEvaluation<Value> result = provider.getObjectEvaluation("the-key", new Value("default"),
+            new ImmutableContext("user-key"));
+
+        assertEquals("default", result.getValue().asString());
+        assertEquals(ErrorCode.PROVIDER_NOT_READY, result.getErrorCode());
+        verify(mockedLdClient, never()).jsonValueVariationDetail(any(), any(), any());
+        assertEquals(1, provider.getMetrics().getDegradedShortCircuits());
+    }
+}
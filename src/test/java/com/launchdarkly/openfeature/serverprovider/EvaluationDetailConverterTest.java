@@ -155,4 +155,35 @@ public class EvaluationDetailConverterTest {
 
         assertEquals(17.0, nestedList.get(0).asDouble(), EPSILON);
     }
+
+    @Test
+    public void aFlagValueWhichExceedsTheLimitsReturnsTheDefaultValue() {
+        var limitedConverter = new EvaluationDetailConverter(LDLogger.withAdapter(testLogger, "test-logger"),
+            new ConversionLimits(10, 2, 1000));
+        EvaluationDetail<LDValue> inputDetail = EvaluationDetail.fromValue(
+                LDValue.arrayOf(LDValue.of(1), LDValue.of(2), LDValue.of(3)), 4, EvaluationReason.fallthrough());
+
+        ProviderEvaluation<Value> converted = limitedConverter.toEvaluationDetailsLdValue(inputDetail,
+            new Value("default"));
+
+        assertEquals("default", converted.getValue().asString());
+        assertEquals(ErrorCode.GENERAL, converted.getErrorCode());
+        assertEquals(Reason.ERROR.toString(), converted.getReason());
+        assertNotNull(converted.getErrorMessage());
+    }
+
+    @Test
+    public void flagValuesAreNotLimitedByDefault() {
+        LDValue nested = LDValue.of("leaf");
+        for (int i = 0; i < 40; i++) {
+            nested = LDValue.arrayOf(nested);
+        }
+        EvaluationDetail<LDValue> inputDetail = EvaluationDetail.fromValue(nested, 0, EvaluationReason.fallthrough());
+
+        ProviderEvaluation<Value> converted = evaluationDetailConverter.toEvaluationDetailsLdValue(inputDetail,
+            new Value("default"));
+
+        assertNull(converted.getErrorCode());
+        assertTrue(converted.getValue().isList());
+    }
 }
@@ -0,0 +1,84 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.ContextKind;
+import com.launchdarkly.sdk.LDContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationProfilerTest {
+    private static final LDContext CONTEXT = LDContext.builder("user-key")
+        .name("Sandy")
+        .set("email", "sandy@example.com")
+        .build();
+
+    private static Function<LDContext, ProviderEvaluation<Boolean>> taking(long millis) {
+        return context -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ProviderEvaluation.<Boolean>builder().value(true).build();
+        };
+    }
+
+    @Test
+    public void itAttributesTimeToEachFlag() {
+        var profiler = new EvaluationProfiler(10);
+        profiler.profile("slow", CONTEXT, taking(20));
+        profiler.profile("slow", CONTEXT, taking(20));
+        profiler.profile("fast", CONTEXT, taking(0));
+
+        var flags = profiler.snapshot().getFlags();
+        assertEquals(2, flags.size());
+        assertEquals("slow", flags.get(0).getFlagKey());
+        assertEquals(2, flags.get(0).getEvaluations());
+        assertTrue(flags.get(0).getTotalNanos() >= 40_000_000L);
+        assertTrue(flags.get(0).getMaxNanos() >= 20_000_000L);
+        assertEquals(1, flags.get(1).getEvaluations());
+    }
+
+    @Test
+    public void itMeasuresAllocation() {
+        var profiler = new EvaluationProfiler(0);
+        profiler.profile("allocating", CONTEXT, context -> {
+            byte[] buffer = new byte[1024 * 1024];
+            return ProviderEvaluation.<Boolean>builder().value(buffer.length > 0).build();
+        });
+
+        long allocated = profiler.snapshot().getFlags().get(0).getAllocatedBytes();
+        // -1 means the JVM cannot measure allocation.
+        assertTrue(allocated == -1 || allocated >= 1024 * 1024);
+    }
+
+    @Test
+    public void itRetainsOnlyTheSlowestEvaluations() {
+        var profiler = new EvaluationProfiler(2);
+        profiler.profile("a", CONTEXT, taking(1));
+        profiler.profile("b", CONTEXT, taking(30));
+        profiler.profile("c", CONTEXT, taking(1));
+        profiler.profile("d", CONTEXT, taking(15));
+
+        var slowest = profiler.snapshot().getSlowestEvaluations();
+        assertEquals(2, slowest.size());
+        assertEquals("b", slowest.get(0).getFlagKey());
+        assertEquals("d", slowest.get(1).getFlagKey());
+    }
+
+    @Test
+    public void theContextShapeHasNamesButNoValues() {
+        var multi = LDContext.createMulti(CONTEXT,
+            LDContext.builder(ContextKind.of("org"), "org-key").set("tier", "gold").build());
+
+        var shape = EvaluationProfiler.shapeOf(multi);
+        assertEquals(Map.of("user", List.of("key", "name", "email"), "org", List.of("key", "tier")), shape);
+        assertFalse(shape.toString().contains("sandy@example.com"));
+        assertFalse(shape.toString().contains("gold"));
+    }
+}
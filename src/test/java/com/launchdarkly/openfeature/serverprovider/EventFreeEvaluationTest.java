@@ -0,0 +1,168 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.FeatureFlagsState;
+import com.launchdarkly.sdk.server.FlagsStateOption;
+import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.FlagTracker;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.Value;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EventFreeEvaluationTest {
+    private final LDClientInterface mockedLdClient = mock(LDClientInterface.class);
+
+    {
+        when(mockedLdClient.getFlagTracker()).thenReturn(mock(FlagTracker.class));
+        DataSourceStatusProvider dsp = mock(DataSourceStatusProvider.class);
+        when(dsp.getStatus()).thenReturn(new DataSourceStatusProvider.Status(
+            DataSourceStatusProvider.State.VALID, null, null));
+        when(mockedLdClient.getDataSourceStatusProvider()).thenReturn(dsp);
+        when(mockedLdClient.isInitialized()).thenReturn(true);
+        when(mockedLdClient.getLogger()).thenReturn(LDLogger.none());
+        when(mockedLdClient.allFlagsState(any(LDContext.class), any(FlagsStateOption[].class)))
+            .thenReturn(FeatureFlagsState.builder(FlagsStateOption.WITH_REASONS)
+                .add("bool-flag", LDValue.of(true), 1, EvaluationReason.fallthrough(), 3, false, null)
+                .add("string-flag", LDValue.of("b"), 1, EvaluationReason.targetMatch(), 2, false, null)
+                .add("int-flag", LDValue.of(7), 0, EvaluationReason.off(), 1, false, null)
+                .add("object-flag", LDValue.buildObject().put("limit", 10).build(), 2,
+                    EvaluationReason.fallthrough(), 1, false, null)
+                .build());
+    }
+
+    private final Provider provider = new Provider(mockedLdClient);
+    private final ImmutableContext context = new ImmutableContext("user-key");
+
+    @Test
+    public void evaluationsInsideTheScopeDoNotUseTheEventGeneratingPath() {
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            var bool = provider.getBooleanEvaluation("bool-flag", false, context);
+            assertTrue(bool.getValue());
+            assertEquals("1", bool.getVariant());
+            assertEquals("FALLTHROUGH", bool.getReason());
+
+            var string = provider.getStringEvaluation("string-flag", "a", context);
+            assertEquals("b", string.getValue());
+            assertEquals("TARGETING_MATCH", string.getReason());
+
+            assertEquals(7, provider.getIntegerEvaluation("int-flag", 0, context).getValue());
+            assertEquals(7.0, provider.getDoubleEvaluation("int-flag", 0.0, context).getValue());
+            assertEquals(10, provider.getObjectEvaluation("object-flag", new Value(), context).getValue()
+                .asStructure().getValue("limit").asInteger());
+        }
+
+        verify(mockedLdClient, never()).boolVariationDetail(anyString(), any(LDContext.class), anyBoolean());
+        verify(mockedLdClient, never()).stringVariationDetail(anyString(), any(LDContext.class), anyString());
+        verify(mockedLdClient, never()).intVariationDetail(anyString(), any(LDContext.class), anyInt());
+        verify(mockedLdClient, never()).doubleVariationDetail(anyString(), any(LDContext.class), anyDouble());
+        verify(mockedLdClient, never()).jsonValueVariationDetail(anyString(), any(LDContext.class), any(LDValue.class));
+    }
+
+    @Test
+    public void theFlagStateIsComputedOncePerContext() {
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            provider.getBooleanEvaluation("bool-flag", false, context);
+            provider.getStringEvaluation("string-flag", "a", context);
+            provider.getIntegerEvaluation("int-flag", 0, context);
+            provider.getBooleanEvaluation("bool-flag", false, new ImmutableContext("other-key"));
+        }
+
+        verify(mockedLdClient, times(2)).allFlagsState(any(LDContext.class), any(FlagsStateOption[].class));
+    }
+
+    @Test
+    public void theFlagStateOfRecentContextsIsKept() {
+        var other = new ImmutableContext("other-key");
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            for (int i = 0; i < 3; i++) {
+                provider.getBooleanEvaluation("bool-flag", false, context);
+                provider.getBooleanEvaluation("bool-flag", false, other);
+            }
+        }
+        verify(mockedLdClient, times(2)).allFlagsState(any(LDContext.class), any(FlagsStateOption[].class));
+
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            for (int i = 0; i <= EventFreeEvaluator.MAX_CACHED_CONTEXTS; i++) {
+                provider.getBooleanEvaluation("bool-flag", false, new ImmutableContext("user-" + i));
+            }
+            // The first context has been evicted by the later ones.
+            provider.getBooleanEvaluation("bool-flag", false, new ImmutableContext("user-0"));
+        }
+        verify(mockedLdClient, times(2 + EventFreeEvaluator.MAX_CACHED_CONTEXTS + 2))
+            .allFlagsState(any(LDContext.class), any(FlagsStateOption[].class));
+    }
+
+    @Test
+    public void itReportsMissingFlagsAndTypeMismatches() {
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            var missing = provider.getBooleanEvaluation("missing-flag", false, context);
+            assertFalse(missing.getValue());
+            assertEquals(ErrorCode.FLAG_NOT_FOUND, missing.getErrorCode());
+
+            var mismatch = provider.getBooleanEvaluation("string-flag", false, context);
+            assertFalse(mismatch.getValue());
+            assertEquals(ErrorCode.TYPE_MISMATCH, mismatch.getErrorCode());
+        }
+    }
+
+    @Test
+    public void evaluationsOutsideTheScopeUseTheNormalPath() {
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            provider.getBooleanEvaluation("bool-flag", false, context);
+        }
+        provider.getBooleanEvaluation("bool-flag", false, context);
+
+        verify(mockedLdClient, times(1)).boolVariationDetail(eq("bool-flag"), any(LDContext.class), eq(false));
+    }
+
+    @Test
+    public void trackIsIgnoredInsideTheScope() {
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            provider.track("event", context, null);
+        }
+        verify(mockedLdClient, never()).track(anyString(), any(LDContext.class));
+
+        provider.track("event", context, null);
+        verify(mockedLdClient, times(1)).track(eq("event"), any(LDContext.class));
+    }
+
+    @Test
+    public void asyncEvaluationsStartedInsideTheScopeDoNotGenerateEvents() throws Exception {
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            assertTrue(provider.getBooleanEvaluationAsync("bool-flag", false, context).get().getValue());
+        }
+        verify(mockedLdClient, never()).boolVariationDetail(anyString(), any(LDContext.class), anyBoolean());
+    }
+
+    @Test
+    public void otherThreadsAreNotAffected() throws Exception {
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            var thread = new Thread(() -> provider.getBooleanEvaluation("bool-flag", false, context));
+            thread.start();
+            thread.join();
+        }
+        verify(mockedLdClient, times(1)).boolVariationDetail(eq("bool-flag"), any(LDContext.class), eq(false));
+    }
+
+    @Test
+    public void evaluationsWithADeadlineInsideTheScopeDoNotGenerateEvents() {
+        var provider = new Provider(mockedLdClient,
+            new ProviderOptions.Builder().evaluationDeadline(Duration.ofSeconds(5)).build());
+        try (EventFreeScope scope = provider.withoutEvents()) {
+            assertTrue(provider.getBooleanEvaluation("bool-flag", false, context).getValue());
+        }
+        verify(mockedLdClient, never()).boolVariationDetail(anyString(), any(LDContext.class), anyBoolean());
+        provider.shutdown();
+    }
+}
@@ -0,0 +1,124 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.FlagChangeEvent;
+import com.launchdarkly.sdk.server.interfaces.FlagChangeListener;
+import com.launchdarkly.sdk.server.interfaces.FlagTracker;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ImmutableContext;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class FlagChangeRouterTest {
+    private final FlagChangeRouter router = new FlagChangeRouter(LDLogger.none());
+
+    @Test
+    public void exactSubscriptionsOnlySeeTheirFlag() {
+        List<String> seen = new ArrayList<>();
+        router.subscribe("checkout", seen::add);
+
+        router.flagChanged("checkout");
+        router.flagChanged("checkout-v2");
+        router.flagChanged("search");
+
+        assertEquals(List.of("checkout"), seen);
+    }
+
+    @Test
+    public void aClosedRouterRejectsSubscriptions() {
+        List<String> seen = new ArrayList<>();
+        router.subscribe("checkout", seen::add);
+        router.subscribePrefix("check", seen::add);
+
+        router.close();
+        router.flagChanged("checkout");
+
+        assertTrue(seen.isEmpty());
+        assertThrows(IllegalStateException.class, () -> router.subscribe("checkout", seen::add));
+        assertThrows(IllegalStateException.class, () -> router.subscribePrefix("check", seen::add));
+    }
+
+    @Test
+    public void resubscribingAfterTheLastSubscriptionClosesStillNotifies() {
+        List<String> seen = new ArrayList<>();
+        router.subscribe("checkout", seen::add).close();
+        router.subscribe("checkout", seen::add);
+
+        router.flagChanged("checkout");
+
+        assertEquals(List.of("checkout"), seen);
+    }
+
+    @Test
+    public void prefixSubscriptionsSeeEveryMatchingFlag() {
+        List<String> checkout = new ArrayList<>();
+        List<String> everything = new ArrayList<>();
+        router.subscribePrefix("checkout-", checkout::add);
+        router.subscribePrefix("", everything::add);
+
+        router.flagChanged("checkout-button");
+        router.flagChanged("checkout-");
+        router.flagChanged("checkout");
+        router.flagChanged("search");
+
+        assertEquals(List.of("checkout-button", "checkout-"), checkout);
+        assertEquals(List.of("checkout-button", "checkout-", "checkout", "search"), everything);
+    }
+
+    @Test
+    public void closedSubscriptionsAreNotNotified() {
+        List<String> seen = new ArrayList<>();
+        var exact = router.subscribe("flag", seen::add);
+        var prefix = router.subscribePrefix("fl", seen::add);
+
+        exact.close();
+        prefix.close();
+        prefix.close();
+        router.flagChanged("flag");
+
+        assertTrue(seen.isEmpty());
+    }
+
+    @Test
+    public void aFailingListenerDoesNotStopOthers() {
+        List<String> seen = new ArrayList<>();
+        router.subscribe("flag", key -> {
+            throw new RuntimeException("listener failure");
+        });
+        router.subscribe("flag", seen::add);
+
+        router.flagChanged("flag");
+        assertEquals(List.of("flag"), seen);
+    }
+
+    @Test
+    public void theProviderRoutesClientFlagChanges() throws Exception {
+        LDClientInterface mockedLdClient = mock(LDClientInterface.class);
+        FlagTracker tracker = mock(FlagTracker.class);
+        when(mockedLdClient.getFlagTracker()).thenReturn(tracker);
+        DataSourceStatusProvider dsp = mock(DataSourceStatusProvider.class);
+        when(dsp.getStatus()).thenReturn(new DataSourceStatusProvider.Status(
+            DataSourceStatusProvider.State.VALID, null, null));
+        when(mockedLdClient.getDataSourceStatusProvider()).thenReturn(dsp);
+        when(mockedLdClient.isInitialized()).thenReturn(true);
+
+        var provider = new Provider(mockedLdClient);
+        List<String> seen = new ArrayList<>();
+        provider.subscribePrefix("beta-", seen::add);
+        provider.initialize(new ImmutableContext());
+
+        var captor = ArgumentCaptor.forClass(FlagChangeListener.class);
+        verify(tracker).addFlagChangeListener(captor.capture());
+        captor.getValue().onFlagChange(new FlagChangeEvent("beta-search"));
+        captor.getValue().onFlagChange(new FlagChangeEvent("search"));
+
+        assertEquals(List.of("beta-search"), seen);
+    }
+}
@@ -0,0 +1,99 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.integrations.TestData;
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.Value;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests in this suite use a real client instance with a test data source.
+ */
+public class FlagSnapshotTest {
+    private final TestData testData = TestData.dataSource();
+    private final Provider provider;
+
+    {
+        testData.update(testData.flag("bool-flag").booleanFlag()
+            .ifMatch("country", LDValue.of("gb")).thenReturn(true)
+            .fallthroughVariation(false));
+        testData.update(testData.flag("string-flag").variations(LDValue.of("a"), LDValue.of("b"))
+            .fallthroughVariation(1));
+        testData.update(testData.flag("number-flag").variations(LDValue.of(3)).fallthroughVariation(0));
+        testData.update(testData.flag("object-flag")
+            .variations(LDValue.buildObject().put("limit", 10).build()).fallthroughVariation(0));
+        provider = new Provider("sdk-key", new LDConfig.Builder()
+            .dataSource(testData)
+            .events(Components.noEvents())
+            .build());
+    }
+
+    private final ImmutableContext context = new ImmutableContext("user-key", Map.of("country", new Value("gb")));
+
+    @AfterEach
+    public void tearDown() {
+        provider.shutdown();
+    }
+
+    @Test
+    public void itEvaluatesEveryTypeFromTheSnapshot() {
+        var snapshot = provider.snapshot(context);
+        assertTrue(snapshot.isValid());
+        assertEquals(Set.of("bool-flag", "string-flag", "number-flag", "object-flag"), snapshot.getFlagKeys());
+
+        var bool = snapshot.getBooleanEvaluation("bool-flag", false);
+        assertTrue(bool.getValue());
+        assertEquals("0", bool.getVariant());
+        assertEquals("RULE_MATCH", bool.getReason());
+
+        assertEquals("b", snapshot.getStringEvaluation("string-flag", "").getValue());
+        assertEquals(3, snapshot.getIntegerEvaluation("number-flag", 0).getValue());
+        assertEquals(3.0, snapshot.getDoubleEvaluation("number-flag", 0.0).getValue());
+        assertEquals(10, snapshot.getObjectEvaluation("object-flag", new Value()).getValue()
+            .asStructure().getValue("limit").asInteger());
+    }
+
+    @Test
+    public void theSnapshotIsNotAffectedByLaterUpdates() {
+        var snapshot = provider.snapshot(context);
+        testData.update(testData.flag("string-flag").variations(LDValue.of("a"), LDValue.of("b"))
+            .fallthroughVariation(0));
+
+        assertEquals("b", snapshot.getStringEvaluation("string-flag", "").getValue());
+        assertEquals("a", provider.snapshot(context).getStringEvaluation("string-flag", "").getValue());
+    }
+
+    @Test
+    public void itReportsMissingFlagsAndTypeMismatches() {
+        var snapshot = provider.snapshot(context);
+
+        var missing = snapshot.getStringEvaluation("missing-flag", "default");
+        assertEquals("default", missing.getValue());
+        assertEquals(ErrorCode.FLAG_NOT_FOUND, missing.getErrorCode());
+
+        var mismatch = snapshot.getBooleanEvaluation("string-flag", false);
+        assertFalse(mismatch.getValue());
+        assertEquals(ErrorCode.TYPE_MISMATCH, mismatch.getErrorCode());
+    }
+
+    @Test
+    public void aNullDefaultIsReportedAsATypeMismatch() {
+        var snapshot = provider.snapshot(context);
+
+        var bool = snapshot.getBooleanEvaluation("bool-flag", null);
+        assertNull(bool.getValue());
+        assertEquals(ErrorCode.TYPE_MISMATCH, bool.getErrorCode());
+        assertEquals(ErrorCode.TYPE_MISMATCH, snapshot.getIntegerEvaluation("number-flag", null).getErrorCode());
+        assertEquals(ErrorCode.TYPE_MISMATCH, snapshot.getDoubleEvaluation("number-flag", null).getErrorCode());
+        assertEquals(ErrorCode.TYPE_MISMATCH, snapshot.getStringEvaluation("string-flag", null).getErrorCode());
+    }
+}
@@ -0,0 +1,109 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import dev.openfeature.sdk.ProviderEvaluation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlagUsageAggregatorTest {
+    private static ProviderEvaluation<Boolean> result(String variant, String reason) {
+        return ProviderEvaluation.<Boolean>builder().value(true).variant(variant).reason(reason).build();
+    }
+
+    private static long countFor(FlagUsageSnapshot snapshot, String flagKey, String variant) {
+        return snapshot.getEntries().stream()
+            .filter(entry -> entry.getFlagKey().equals(flagKey) && variant.equals(entry.getVariant()))
+            .mapToLong(FlagUsageSnapshot.Entry::getCount)
+            .sum();
+    }
+
+    @Test
+    public void itCountsEvaluationsByFlagVariantAndReason() {
+        var aggregator = new FlagUsageAggregator(100, null, null, LDLogger.none());
+        aggregator.record("a", result("0", "FALLTHROUGH"));
+        aggregator.record("a", result("0", "FALLTHROUGH"));
+        aggregator.record("a", result("1", "TARGETING_MATCH"));
+        aggregator.record("b", result("0", "OFF"));
+
+        var snapshot = aggregator.snapshot();
+        assertEquals(3, snapshot.getEntries().size());
+        assertEquals(2, countFor(snapshot, "a", "0"));
+        assertEquals(1, countFor(snapshot, "a", "1"));
+        assertEquals(1, countFor(snapshot, "b", "0"));
+        assertEquals(0, snapshot.getUntrackedEvaluations());
+    }
+
+    @Test
+    public void combinationsBeyondTheLimitAreOnlyCountedInTotal() {
+        var aggregator = new FlagUsageAggregator(2, null, null, LDLogger.none());
+        aggregator.record("a", result("0", "OFF"));
+        aggregator.record("b", result("0", "OFF"));
+        aggregator.record("c", result("0", "OFF"));
+        aggregator.record("c", result("0", "OFF"));
+        aggregator.record("a", result("0", "OFF"));
+
+        var snapshot = aggregator.snapshot();
+        assertEquals(2, snapshot.getEntries().size());
+        assertEquals(2, countFor(snapshot, "a", "0"));
+        assertEquals(2, snapshot.getUntrackedEvaluations());
+    }
+
+    @Test
+    public void itReportsFlagsWhichHaveNotBeenEvaluated() {
+        var aggregator = new FlagUsageAggregator(100, null, null, LDLogger.none());
+        aggregator.record("used", result("0", "OFF"));
+
+        var snapshot = aggregator.snapshot();
+        assertEquals(List.of("unused"),
+            snapshot.getFlagsNotEvaluatedSince(Instant.now().minusSeconds(60), List.of("used", "unused")));
+        assertEquals(List.of("unused", "used"),
+            snapshot.getFlagsNotEvaluatedSince(Instant.now().plusSeconds(60), List.of("unused", "used")));
+    }
+
+    @Test
+    public void lastEvaluatedTimesAreTruncatedToTheSecond() {
+        var aggregator = new FlagUsageAggregator(100, null, null, LDLogger.none());
+        Instant before = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        aggregator.record("a", result("0", "OFF"));
+        aggregator.record("a", result("0", "OFF"));
+
+        Instant last = aggregator.snapshot().getLastEvaluated().get("a");
+        assertEquals(0, last.getNano());
+        assertFalse(last.isBefore(before));
+        assertFalse(last.isAfter(Instant.now()));
+    }
+
+    @Test
+    public void itExportsPeriodicallyAndOnClose() {
+        List<FlagUsageSnapshot> exported = new CopyOnWriteArrayList<>();
+        var aggregator = new FlagUsageAggregator(100, exported::add, Duration.ofMillis(50), LDLogger.none());
+        aggregator.record("a", result("0", "OFF"));
+
+        await().until(() -> !exported.isEmpty());
+        assertEquals(1, countFor(exported.get(0), "a", "0"));
+
+        int exportsBeforeClose = exported.size();
+        aggregator.close();
+        await().until(() -> exported.size() > exportsBeforeClose);
+    }
+
+    @Test
+    public void aFailingSinkDoesNotStopExport() {
+        List<FlagUsageSnapshot> exported = new CopyOnWriteArrayList<>();
+        var aggregator = new FlagUsageAggregator(100, snapshot -> {
+            exported.add(snapshot);
+            throw new RuntimeException("sink failure");
+        }, Duration.ofMillis(20), LDLogger.none());
+
+        await().until(() -> exported.size() >= 2);
+        aggregator.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.FeatureFlagsState;
+import com.launchdarkly.sdk.server.FlagsStateOption;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlagsStateVariationsTest {
+    @Test
+    public void itReadsTheVariationOfEachFlag() {
+        FeatureFlagsState state = FeatureFlagsState.builder(FlagsStateOption.WITH_REASONS)
+            .add("bool-flag", LDValue.of(true), 1, EvaluationReason.fallthrough(), 3, false, null)
+            .add("object-flag", LDValue.buildObject().put("variation", 7).put("nested", LDValue.arrayOf(
+                LDValue.of("}"), LDValue.of("\"quoted\""))).build(), 2, EvaluationReason.ruleMatch(0, "rule"), 1,
+                true, null)
+            .add("off-flag", LDValue.ofNull(), null, EvaluationReason.off(), 1, false, null)
+            .build();
+
+        assertEquals(Map.of("bool-flag", 1, "object-flag", 2, "off-flag", EvaluationDetail.NO_VARIATION),
+            FlagsStateVariations.read(state));
+    }
+
+    @Test
+    public void itReadsEscapedFlagKeys() {
+        FeatureFlagsState state = FeatureFlagsState.builder()
+            .add("quote\"d\\flagé", LDValue.of("value"), 4, EvaluationReason.fallthrough(), 1, false, null)
+            .build();
+
+        assertEquals(Map.of("quote\"d\\flagé", 4), FlagsStateVariations.read(state));
+    }
+
+    @Test
+    public void itSkipsWhitespaceAndMetadataInAnyOrder() {
+        String json = "{ \"$valid\" : true , \"$flagsState\" : { \"flag\" : { \"reason\" : { \"kind\" : \"OFF\" } ,"
+            + " \"variation\" : 0 } } , \"flag\" : [ 1 , { } ] }";
+
+        assertEquals(Map.of("flag", 0), FlagsStateVariations.read(json));
+    }
+}
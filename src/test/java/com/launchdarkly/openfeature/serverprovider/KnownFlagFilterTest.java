@@ -0,0 +1,144 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.FeatureFlagsState;
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.integrations.TestData;
+import com.launchdarkly.sdk.server.interfaces.DataStoreStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+import org.junit.jupiter.api.Test;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Most tests in this suite use a real client instance, so that the known flags are read from flag data.
+ */
+public class KnownFlagFilterTest {
+    private final TestData td = TestData.dataSource();
+
+    private Provider makeProvider() throws Exception {
+        td.update(td.flag("flagA").valueForAll(LDValue.of("a")));
+        var provider = new Provider("fake-key",
+            new LDConfig.Builder().dataSource(td).events(Components.noEvents()).build(),
+            new ProviderOptions.Builder().unknownFlagFilter(true).build());
+        provider.initialize(new ImmutableContext());
+        return provider;
+    }
+
+    @Test
+    public void itRejectsUnknownFlagKeys() throws Exception {
+        var provider = makeProvider();
+
+        ProviderEvaluation<String> result = provider.getStringEvaluation("flagB", "default",
+            new ImmutableContext("user-key"));
+
+        assertEquals("default", result.getValue());
+        assertEquals(ErrorCode.FLAG_NOT_FOUND, result.getErrorCode());
+        assertEquals(1, provider.getMetrics().getUnknownFlagEvaluations());
+        assertEquals(1L, provider.getMetrics().getUnknownFlagKeyCounts().get("flagB"));
+        provider.shutdown();
+    }
+
+    @Test
+    public void itEvaluatesKnownFlagKeys() throws Exception {
+        var provider = makeProvider();
+
+        ProviderEvaluation<String> result = provider.getStringEvaluation("flagA", "default",
+            new ImmutableContext("user-key"));
+
+        assertEquals("a", result.getValue());
+        assertNull(result.getErrorCode());
+        assertEquals(0, provider.getMetrics().getUnknownFlagEvaluations());
+        provider.shutdown();
+    }
+
+    @Test
+    public void itTracksAddedFlags() throws Exception {
+        var provider = makeProvider();
+
+        td.update(td.flag("flagB").valueForAll(LDValue.of("b")));
+
+        await().until(() -> "b".equals(provider.getStringEvaluation("flagB", "default",
+            new ImmutableContext("user-key")).getValue()));
+        provider.shutdown();
+    }
+
+    private static FeatureFlagsState listing(String... flagKeys) {
+        var builder = FeatureFlagsState.builder();
+        for (String flagKey : flagKeys) {
+            builder.add(flagKey, LDValue.of(true), 0, EvaluationReason.fallthrough(), 1, false, null);
+        }
+        return builder.build();
+    }
+
+    private static LDClientInterface clientWithStore(boolean persistent) {
+        var client = mock(LDClientInterface.class);
+        var storeStatus = mock(DataStoreStatusProvider.class);
+        when(storeStatus.isStatusMonitoringEnabled()).thenReturn(persistent);
+        when(client.getDataStoreStatusProvider()).thenReturn(storeStatus);
+        return client;
+    }
+
+    @Test
+    public void aKeyMissingFromTheSetIsConfirmedWithTheClient() {
+        var client = clientWithStore(true);
+        when(client.allFlagsState(KnownFlagFilter.LISTING_CONTEXT)).thenReturn(listing("flagA"));
+        when(client.isFlagKnown("flagB")).thenReturn(true);
+        var filter = new KnownFlagFilter(LDLogger.none(), new ProviderMetrics());
+        filter.populate(client);
+
+        // flagB was added without a change notification, as a shared flag store reader would see it.
+        assertTrue(filter.isKnown("flagB", client));
+        assertFalse(filter.isKnown("flagC", client));
+    }
+
+    @Test
+    public void aConfirmedMissIsNotConfirmedAgainUntilItExpires() {
+        var client = clientWithStore(true);
+        when(client.allFlagsState(KnownFlagFilter.LISTING_CONTEXT)).thenReturn(listing("flagA"));
+        var filter = new KnownFlagFilter(LDLogger.none(), new ProviderMetrics());
+        filter.populate(client);
+
+        assertFalse(filter.isKnown("flagC", client));
+        assertFalse(filter.isKnown("flagC", client));
+        verify(client, times(1)).isFlagKnown("flagC");
+
+        when(client.isFlagKnown("flagC")).thenReturn(true);
+        await().until(() -> filter.isKnown("flagC", client));
+    }
+
+    @Test
+    public void anInMemoryStoreIsNotReadToConfirmAMiss() {
+        var client = clientWithStore(false);
+        when(client.allFlagsState(KnownFlagFilter.LISTING_CONTEXT)).thenReturn(listing("flagA"));
+        var filter = new KnownFlagFilter(LDLogger.none(), new ProviderMetrics());
+        filter.populate(client);
+
+        assertFalse(filter.isKnown("flagB", client));
+        verify(client, never()).isFlagKnown(any());
+    }
+
+    @Test
+    public void aChangeDuringPopulationIsNotLost() {
+        var client = mock(LDClientInterface.class);
+        var filter = new KnownFlagFilter(LDLogger.none(), new ProviderMetrics());
+        // flagB is deleted after the listing was taken, but before it was applied.
+        when(client.allFlagsState(KnownFlagFilter.LISTING_CONTEXT)).thenAnswer(invocation -> {
+            filter.flagChanged("flagB", client);
+            return listing("flagA", "flagB");
+        });
+        when(client.isFlagKnown("flagA")).thenReturn(true);
+        filter.populate(client);
+
+        assertTrue(filter.isKnown("flagA", client));
+        assertFalse(filter.isKnown("flagB", client));
+    }
+}
@@ -0,0 +1,164 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.FlagTracker;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderEvaluation;
+import dev.openfeature.sdk.Value;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class LastKnownGoodFallbackTest {
+    LDClientInterface mockedLdClient = mock(LDClientInterface.class);
+    AtomicBoolean slow = new AtomicBoolean();
+
+    {
+        when(mockedLdClient.getFlagTracker()).thenReturn(mock(FlagTracker.class));
+        DataSourceStatusProvider dsp = mock(DataSourceStatusProvider.class);
+        when(dsp.getStatus()).thenReturn(new DataSourceStatusProvider.Status(
+            DataSourceStatusProvider.State.VALID, null, null));
+        when(mockedLdClient.getDataSourceStatusProvider()).thenReturn(dsp);
+        when(mockedLdClient.isInitialized()).thenReturn(true);
+        when(mockedLdClient.boolVariationDetail("the-key", LDContext.create("user-key"), false))
+            .thenAnswer(invocation -> {
+                if (slow.get()) {
+                    Thread.sleep(500);
+                }
+                return EvaluationDetail.fromValue(true, 1, EvaluationReason.fallthrough());
+            });
+    }
+
+    private Provider providerWithDeadline(int failureThreshold) {
+        return providerWithDeadline(failureThreshold, Duration.ofMinutes(1));
+    }
+
+    private Provider providerWithDeadline(int failureThreshold, Duration openDuration) {
+        return new Provider(mockedLdClient, new ProviderOptions.Builder()
+            .evaluationDeadline(Duration.ofMillis(50))
+            .circuitBreaker(failureThreshold, openDuration)
+            .build());
+    }
+
+    @Test
+    public void itReturnsTheLastKnownGoodResultWhenTheDeadlineIsExceeded() {
+        var provider = providerWithDeadline(10);
+        var context = new ImmutableContext("user-key");
+
+        ProviderEvaluation<Boolean> fresh = provider.getBooleanEvaluation("the-key", false, context);
+        assertTrue(fresh.getValue());
+        assertEquals("FALLTHROUGH", fresh.getReason());
+
+        slow.set(true);
+        ProviderEvaluation<Boolean> fallback = provider.getBooleanEvaluation("the-key", false, context);
+        assertTrue(fallback.getValue());
+        assertEquals("1", fallback.getVariant());
+        assertEquals("STALE", fallback.getReason());
+        assertNull(fallback.getErrorCode());
+
+        assertEquals(1, provider.getMetrics().getDeadlinesExceeded());
+        assertEquals(1, provider.getMetrics().getLastKnownGoodServed());
+    }
+
+    @Test
+    public void itReturnsAnErrorWhenThereIsNoLastKnownGoodResult() {
+        var provider = providerWithDeadline(10);
+        slow.set(true);
+
+        ProviderEvaluation<Boolean> result = provider.getBooleanEvaluation("the-key", false,
+            new ImmutableContext("user-key"));
+        assertFalse(result.getValue());
+        assertEquals(ErrorCode.GENERAL, result.getErrorCode());
+    }
+
+    @Test
+    public void theCircuitBreakerStopsCallingTheClient() {
+        var provider = providerWithDeadline(2);
+        var context = new ImmutableContext("user-key");
+        provider.getBooleanEvaluation("the-key", false, context);
+
+        slow.set(true);
+        provider.getBooleanEvaluation("the-key", false, context);
+        provider.getBooleanEvaluation("the-key", false, context);
+        assertEquals(1, provider.getMetrics().getCircuitBreakerOpened());
+
+        clearInvocations(mockedLdClient);
+        ProviderEvaluation<Boolean> result = provider.getBooleanEvaluation("the-key", false, context);
+        assertTrue(result.getValue());
+        assertEquals("STALE", result.getReason());
+        verify(mockedLdClient, never()).boolVariationDetail(any(), any(), anyBoolean());
+        assertEquals(1, provider.getMetrics().getCircuitBreakerRejected());
+    }
+
+    @Test
+    public void anInterruptedTrialEvaluationDoesNotKeepTheCircuitOpen() throws Exception {
+        var provider = providerWithDeadline(1, Duration.ofMillis(100));
+        var context = new ImmutableContext("user-key");
+        slow.set(true);
+        provider.getBooleanEvaluation("the-key", false, context);
+        assertEquals(1, provider.getMetrics().getCircuitBreakerOpened());
+
+        Thread.sleep(150);
+        Thread.currentThread().interrupt();
+        ProviderEvaluation<Boolean> interrupted = provider.getBooleanEvaluation("the-key", false, context);
+        assertTrue(Thread.interrupted());
+        assertEquals(ErrorCode.GENERAL, interrupted.getErrorCode());
+
+        slow.set(false);
+        await().until(() -> "FALLTHROUGH".equals(provider.getBooleanEvaluation("the-key", false, context).getReason()));
+    }
+
+    @Test
+    public void theCircuitBreakerRequiresAnOpenDuration() {
+        var builder = new ProviderOptions.Builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.circuitBreaker(5, null));
+        assertThrows(IllegalArgumentException.class, () -> builder.circuitBreaker(5, Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    public void resultsAreNotSharedBetweenValueTypes() {
+        when(mockedLdClient.doubleVariationDetail("the-key", LDContext.create("user-key"), 0.0))
+            .thenReturn(EvaluationDetail.fromValue(1.5, 1, EvaluationReason.fallthrough()));
+        when(mockedLdClient.intVariationDetail("the-key", LDContext.create("user-key"), 0))
+            .thenAnswer(invocation -> {
+                Thread.sleep(500);
+                return EvaluationDetail.fromValue(1, 1, EvaluationReason.fallthrough());
+            });
+        var provider = providerWithDeadline(10);
+        var context = new ImmutableContext("user-key");
+        assertEquals(1.5, provider.getDoubleEvaluation("the-key", 0.0, context).getValue());
+
+        ProviderEvaluation<Integer> result = provider.getIntegerEvaluation("the-key", 0, context);
+        assertEquals(0, result.getValue());
+        assertEquals(ErrorCode.GENERAL, result.getErrorCode());
+        assertEquals(0, provider.getMetrics().getLastKnownGoodServed());
+    }
+
+    @Test
+    public void resultsAreNotSharedBetweenContextsWithDifferentAttributes() {
+        when(mockedLdClient.boolVariationDetail("the-key",
+            LDContext.builder("user-key").set("plan", "gold").build(), false))
+            .thenAnswer(invocation -> {
+                Thread.sleep(500);
+                return EvaluationDetail.fromValue(false, 0, EvaluationReason.fallthrough());
+            });
+        var provider = providerWithDeadline(10);
+        assertTrue(provider.getBooleanEvaluation("the-key", false, new ImmutableContext("user-key")).getValue());
+
+        ProviderEvaluation<Boolean> result = provider.getBooleanEvaluation("the-key", false,
+            new ImmutableContext("user-key", Map.of("plan", new Value("gold"))));
+        assertFalse(result.getValue());
+        assertEquals(ErrorCode.GENERAL, result.getErrorCode());
+    }
+}
@@ -86,4 +86,34 @@ public class LdValueConverterTest {
         Structure nested = ofStructure.getValue("structKey").asStructure();
         assertEquals("bValue", nested.getValue("bKey").asString());
     }
+
+    @Test
+    public void itConvertsValuesWhichAreTooDeeplyNestedToNull() {
+        var converter = new LDValueConverter(LDLogger.none(), new ConversionLimits(2, 100, 1000));
+        LDValue twoDeep = LDValue.buildObject().put("a", LDValue.buildObject().put("b", "c").build()).build();
+        LDValue threeDeep = LDValue.arrayOf(twoDeep);
+
+        assertEquals("c", converter.toValue(twoDeep).asStructure().getValue("a").asStructure()
+            .getValue("b").asString());
+        assertTrue(converter.toValue(threeDeep).isNull());
+    }
+
+    @Test
+    public void itConvertsValuesWithTooManyElementsToNull() {
+        var converter = new LDValueConverter(LDLogger.none(), new ConversionLimits(10, 3, 1000));
+
+        assertEquals(3, converter.toValue(LDValue.arrayOf(LDValue.of(1), LDValue.of(2), LDValue.of(3)))
+            .asList().size());
+        assertTrue(converter.toValue(LDValue.arrayOf(LDValue.arrayOf(LDValue.of(1), LDValue.of(2), LDValue.of(3))))
+            .isNull());
+    }
+
+    @Test
+    public void itConvertsValuesWhichAreTooLargeToNull() {
+        var converter = new LDValueConverter(LDLogger.none(), new ConversionLimits(10, 100, 10));
+
+        assertEquals("0123456789", converter.toValue(LDValue.of("0123456789")).asString());
+        assertTrue(converter.toValue(LDValue.of("0123456789a")).isNull());
+        assertTrue(converter.toValue(LDValue.buildObject().put("key", "0123456").build()).isNull());
+    }
 }
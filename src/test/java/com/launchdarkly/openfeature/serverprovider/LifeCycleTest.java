@@ -31,7 +31,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class DelayedDataSource implements DataSource {
@@ -221,4 +223,38 @@ public class LifeCycleTest {
 
         assertTrue(gotErrorEvent.get(1000, TimeUnit.MILLISECONDS));
     }
+
+    @Test
+    public void itBecomesReadyFromAStreamingConnection() throws Exception {
+        try (var server = new LocalStreamingServer(LocalStreamingServer.flagsPayload(10, 5), Duration.ofMillis(50))) {
+            var provider = new Provider("fake-key", server.configBuilder(true).startWait(Duration.ZERO).build());
+            provider.initialize(new ImmutableContext());
+
+            assertEquals(ProviderState.READY, provider.getState());
+            assertFalse(provider.getBooleanEvaluation("flag-0", true, new ImmutableContext("user-0")).getValue());
+            assertTrue(provider.getBooleanEvaluation("flag-9", false, new ImmutableContext("user-99")).getValue());
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    public void itBecomesReadyFromPolling() throws Exception {
+        try (var server = new LocalStreamingServer(LocalStreamingServer.flagsPayload(10, 5), Duration.ofMillis(50))) {
+            var provider = new Provider("fake-key", server.configBuilder(false).startWait(Duration.ZERO).build());
+            provider.initialize(new ImmutableContext());
+
+            assertEquals(ProviderState.READY, provider.getState());
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    public void itErrorsWhenTheStreamingConnectionIsUnauthorized() throws Exception {
+        try (var server = new LocalStreamingServer(LocalStreamingServer.flagsPayload(1, 0), Duration.ZERO, 401)) {
+            var provider = new Provider("fake-key", server.configBuilder(true).startWait(Duration.ZERO).build());
+            assertThrows(RuntimeException.class, () -> provider.initialize(new ImmutableContext()));
+            assertEquals(ProviderState.ERROR, provider.getState());
+            provider.shutdown();
+        }
+    }
 }
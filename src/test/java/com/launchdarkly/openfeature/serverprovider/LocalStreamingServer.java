@@ -0,0 +1,172 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.LDConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-process stand-in for the LaunchDarkly streaming and polling services.
+ * <p>
+ * The streaming endpoint sends a single {@code put} event with the configured payload and then holds the
+ * connection open until the server is closed. The polling endpoint returns the payload. Both wait for the configured
+ * delay before responding, and either can be made to fail with an HTTP status instead.
+ */
+class LocalStreamingServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private final byte[] streamEvent;
+    private final byte[] pollResponse;
+    private final Duration delay;
+    private final int errorStatus;
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    /**
+     * @param payload     the JSON flag and segment data, as produced by {@link #flagsPayload(int, int)}
+     * @param delay       how long to wait before responding to each request
+     * @param errorStatus an HTTP status to respond with instead of data, or zero to respond normally
+     */
+    LocalStreamingServer(String payload, Duration delay, int errorStatus) throws IOException {
+        this.streamEvent = ("event: put\ndata: {\"path\":\"/\",\"data\":" + payload + "}\n\n")
+            .getBytes(StandardCharsets.UTF_8);
+        this.pollResponse = payload.getBytes(StandardCharsets.UTF_8);
+        this.delay = delay;
+        this.errorStatus = errorStatus;
+        this.executor = Executors.newCachedThreadPool(new DaemonThreadFactory("LocalStreamingServer"));
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/all", this::handleStream);
+        server.createContext("/sdk/latest-all", this::handlePoll);
+        server.start();
+    }
+
+    LocalStreamingServer(String payload, Duration delay) throws IOException {
+        this(payload, delay, 0);
+    }
+
+    URI getUri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * A client configuration which uses this server for streaming and polling, with events disabled.
+     *
+     * @param streaming true to use the streaming endpoint, false to poll
+     */
+    LDConfig.Builder configBuilder(boolean streaming) {
+        return new LDConfig.Builder()
+            .serviceEndpoints(Components.serviceEndpoints().streaming(getUri()).polling(getUri()).events(getUri()))
+            .dataSource(streaming
+                ? Components.streamingDataSource().initialReconnectDelay(Duration.ofMillis(100))
+                : Components.pollingDataSource())
+            .events(Components.noEvents())
+            .diagnosticOptOut(true);
+    }
+
+    private boolean respondAfterDelay(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            if (closed.await(delay.toMillis(), TimeUnit.MILLISECONDS)) {
+                exchange.close();
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+            return false;
+        }
+        if (errorStatus != 0) {
+            exchange.sendResponseHeaders(errorStatus, -1);
+            exchange.close();
+            return false;
+        }
+        return true;
+    }
+
+    private void handleStream(HttpExchange exchange) throws IOException {
+        if (!respondAfterDelay(exchange)) {
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(streamEvent);
+            body.flush();
+            closed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client disconnected.
+        }
+    }
+
+    private void handlePoll(HttpExchange exchange) throws IOException {
+        if (!respondAfterDelay(exchange)) {
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, pollResponse.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(pollResponse);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Build a flag data payload in the format used by the streaming and polling services.
+     * <p>
+     * Each flag is a boolean flag with an attribute rule and {@code targetsPerFlag} individually targeted context
+     * keys, so the payload size grows with both arguments.
+     *
+     * @param flagCount      the number of flags
+     * @param targetsPerFlag the number of individual targets in each flag
+     * @return the payload JSON
+     */
+    static String flagsPayload(int flagCount, int targetsPerFlag) {
+        StringBuilder json = new StringBuilder("{\"flags\":{");
+        for (int i = 0; i < flagCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String key = "flag-" + i;
+            json.append('"').append(key).append("\":{\"key\":\"").append(key).append("\",\"version\":1,\"on\":true,")
+                .append("\"variations\":[true,false],\"offVariation\":1,\"fallthrough\":{\"variation\":0},")
+                .append("\"salt\":\"").append(key).append("\",\"prerequisites\":[],\"targets\":[{\"variation\":1,")
+                .append("\"values\":[");
+            for (int target = 0; target < targetsPerFlag; target++) {
+                if (target > 0) {
+                    json.append(',');
+                }
+                json.append("\"user-").append(target).append('"');
+            }
+            json.append("]}],\"rules\":[{\"id\":\"rule-").append(i).append("\",\"variation\":1,\"clauses\":[")
+                .append("{\"attribute\":\"country\",\"op\":\"in\",\"values\":[\"gb\",\"de\"],\"negate\":false}]}],")
+                .append("\"trackEvents\":false,\"trackEventsFallthrough\":false,\"deleted\":false}");
+        }
+        return json.append("},\"segments\":{}}").toString();
+    }
+}
@@ -0,0 +1,183 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.DataKind;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.FullDataSet;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.ItemDescriptor;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.KeyedItems;
+import com.launchdarkly.sdk.server.subsystems.DataStoreTypes.SerializedItemDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedFileDataStoreTest {
+    private static final DataKind KIND = new DataKind("test",
+        item -> String.valueOf(item.getItem()), serialized -> new ItemDescriptor(1, serialized));
+
+    @TempDir
+    Path tempDir;
+
+    private static FullDataSet<SerializedItemDescriptor> dataSet(String key, SerializedItemDescriptor item) {
+        return dataSet(Collections.singletonList(new AbstractMap.SimpleEntry<>(key, item)));
+    }
+
+    private static FullDataSet<SerializedItemDescriptor> dataSet(
+        List<Map.Entry<String, SerializedItemDescriptor>> itemEntries) {
+        KeyedItems<SerializedItemDescriptor> items = new KeyedItems<>(itemEntries);
+        Map.Entry<DataKind, KeyedItems<SerializedItemDescriptor>> kindEntry = new AbstractMap.SimpleEntry<>(KIND, items);
+        return new FullDataSet<>(Collections.singletonList(kindEntry));
+    }
+
+    @Test
+    public void aReaderSeesDataFromTheWriter() throws Exception {
+        Path file = tempDir.resolve("flags.bin");
+        try (var writer = new MappedFileDataStore(file, true, LDLogger.none());
+             var reader = new MappedFileDataStore(file, false, LDLogger.none())) {
+            assertFalse(reader.isInitialized());
+
+            writer.init(dataSet("a", new SerializedItemDescriptor(1, false, "{\"v\":1}")));
+            assertTrue(reader.isInitialized());
+            assertEquals("{\"v\":1}", reader.get(KIND, "a").getSerializedItem());
+
+            assertTrue(writer.upsert(KIND, "a", new SerializedItemDescriptor(2, false, "{\"v\":2}")));
+            assertEquals(2, reader.get(KIND, "a").getVersion());
+            assertEquals("{\"v\":2}", reader.get(KIND, "a").getSerializedItem());
+
+            assertTrue(writer.upsert(KIND, "b", new SerializedItemDescriptor(1, true, null)));
+            assertTrue(reader.get(KIND, "b").isDeleted());
+        }
+    }
+
+    @Test
+    public void theWriterIgnoresOlderVersions() throws Exception {
+        Path file = tempDir.resolve("flags.bin");
+        try (var writer = new MappedFileDataStore(file, true, LDLogger.none())) {
+            writer.init(dataSet("a", new SerializedItemDescriptor(5, false, "five")));
+            assertFalse(writer.upsert(KIND, "a", new SerializedItemDescriptor(4, false, "four")));
+            assertEquals("five", writer.get(KIND, "a").getSerializedItem());
+        }
+    }
+
+    @Test
+    public void readersCannotWrite() throws Exception {
+        Path file = tempDir.resolve("flags.bin");
+        try (var writer = new MappedFileDataStore(file, true, LDLogger.none());
+             var reader = new MappedFileDataStore(file, false, LDLogger.none())) {
+            writer.init(dataSet("a", new SerializedItemDescriptor(1, false, "one")));
+            assertFalse(reader.upsert(KIND, "a", new SerializedItemDescriptor(2, false, "two")));
+            assertEquals("one", reader.get(KIND, "a").getSerializedItem());
+        }
+    }
+
+    @Test
+    public void theFileGrowsForLargeDataSets() throws Exception {
+        Path file = tempDir.resolve("flags.bin");
+        String large = "x".repeat(3 * 1024 * 1024);
+        try (var writer = new MappedFileDataStore(file, true, LDLogger.none());
+             var reader = new MappedFileDataStore(file, false, LDLogger.none())) {
+            writer.init(dataSet("a", new SerializedItemDescriptor(1, false, "small")));
+            assertEquals("small", reader.get(KIND, "a").getSerializedItem());
+
+            writer.upsert(KIND, "a", new SerializedItemDescriptor(2, false, large));
+            assertEquals(large.length(), reader.get(KIND, "a").getSerializedItem().length());
+        }
+    }
+
+    @Test
+    public void aReaderUsesTheLastDataWhileAWriteIsStalled() throws Exception {
+        Path file = tempDir.resolve("flags.bin");
+        try (var writer = new MappedFileDataStore(file, true, LDLogger.none());
+             var reader = new MappedFileDataStore(file, false, LDLogger.none());
+             var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            writer.init(dataSet("a", new SerializedItemDescriptor(1, false, "one")));
+            assertEquals("one", reader.get(KIND, "a").getSerializedItem());
+
+            // Leave an odd sequence number, as a writer which stopped part way through a write would.
+            var header = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16).order(ByteOrder.nativeOrder());
+            header.putLong(8, header.getLong(8) + 1);
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertEquals("one", reader.get(KIND, "a").getSerializedItem()));
+        }
+    }
+
+    @Test
+    public void aReaderDoesNotWaitForAWriterWhichHasGone() throws Exception {
+        Path file = tempDir.resolve("flags.bin");
+        try (var reader = new MappedFileDataStore(file, false, LDLogger.none());
+             var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                 StandardOpenOption.WRITE)) {
+            var writer = new MappedFileDataStore(file, true, LDLogger.none());
+            writer.init(dataSet("a", new SerializedItemDescriptor(1, false, "one")));
+            assertEquals("one", reader.get(KIND, "a").getSerializedItem());
+
+            // Leave an odd sequence number, then release the writer's lock, as a writer which died would.
+            var header = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16).order(ByteOrder.nativeOrder());
+            header.putLong(8, header.getLong(8) + 1);
+            writer.close();
+
+            assertTimeoutPreemptively(Duration.ofMillis(500), () -> {
+                assertEquals("one", reader.get(KIND, "a").getSerializedItem());
+                assertEquals("one", reader.get(KIND, "a").getSerializedItem());
+                assertTrue(reader.isInitialized());
+            });
+        }
+    }
+
+    @Test
+    public void replacedItemsDoNotGrowTheFile() throws Exception {
+        Path file = tempDir.resolve("flags.bin");
+        String value = "x".repeat(1024);
+        try (var writer = new MappedFileDataStore(file, true, LDLogger.none());
+             var reader = new MappedFileDataStore(file, false, LDLogger.none())) {
+            writer.init(dataSet("a", new SerializedItemDescriptor(1, false, value)));
+            long size = Files.size(file);
+
+            for (int version = 2; version <= 10_000; version++) {
+                assertTrue(writer.upsert(KIND, "a", new SerializedItemDescriptor(version, false, value)));
+            }
+
+            assertEquals(size, Files.size(file));
+            assertEquals(10_000, reader.get(KIND, "a").getVersion());
+        }
+    }
+
+    @Test
+    public void aReaderFindsEveryItemAsTheIndexGrows() throws Exception {
+        Path file = tempDir.resolve("flags.bin");
+        List<Map.Entry<String, SerializedItemDescriptor>> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(new AbstractMap.SimpleEntry<>("key-" + i, new SerializedItemDescriptor(1, false, "value-" + i)));
+        }
+        try (var writer = new MappedFileDataStore(file, true, LDLogger.none());
+             var reader = new MappedFileDataStore(file, false, LDLogger.none())) {
+            writer.init(dataSet(items));
+            for (int i = 1000; i < 3000; i++) {
+                assertTrue(writer.upsert(KIND, "key-" + i, new SerializedItemDescriptor(1, false, "value-" + i)));
+            }
+
+            for (int i = 0; i < 3000; i++) {
+                assertEquals("value-" + i, reader.get(KIND, "key-" + i).getSerializedItem());
+            }
+            assertNull(reader.get(KIND, "key-3000"));
+            int count = 0;
+            for (var ignored : reader.getAll(KIND).getItems()) {
+                count++;
+            }
+            assertEquals(3000, count);
+        }
+    }
+}
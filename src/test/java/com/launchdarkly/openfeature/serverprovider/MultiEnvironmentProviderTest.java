@@ -0,0 +1,169 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.FlagTracker;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ErrorCode;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderState;
+import dev.openfeature.sdk.Value;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests in this suite use real, offline, client instances.
+ */
+public class MultiEnvironmentProviderTest {
+    private static ImmutableContext contextFor(String environment) {
+        return new ImmutableContext("user-key", Map.of("environment", new Value(environment)));
+    }
+
+    private MultiEnvironmentProvider.Builder builder() {
+        return new MultiEnvironmentProvider.Builder(environment -> "sdk-key-" + environment)
+            .config(new LDConfig.Builder().offline(true).build());
+    }
+
+    @Test
+    public void itCreatesEnvironmentsLazily() throws Exception {
+        var provider = builder().build();
+        provider.initialize(new ImmutableContext());
+        assertEquals(ProviderState.READY, provider.getState());
+        assertTrue(provider.getLoadedEnvironments().isEmpty());
+
+        provider.getBooleanEvaluation("flag", false, contextFor("a"));
+        provider.getBooleanEvaluation("flag", false, contextFor("b"));
+        assertEquals(List.of("a", "b"), provider.getLoadedEnvironments());
+
+        await().until(() -> provider.getEnvironmentState("a") == ProviderState.READY);
+        provider.shutdown();
+    }
+
+    @Test
+    public void itEvictsTheLeastRecentlyUsedEnvironment() {
+        var provider = builder().maxEnvironments(2).build();
+
+        provider.getBooleanEvaluation("flag", false, contextFor("a"));
+        provider.getBooleanEvaluation("flag", false, contextFor("b"));
+        provider.getBooleanEvaluation("flag", false, contextFor("a"));
+        provider.getBooleanEvaluation("flag", false, contextFor("c"));
+
+        assertEquals(List.of("a", "c"), provider.getLoadedEnvironments());
+        provider.shutdown();
+    }
+
+    @Test
+    public void itEvictsIdleEnvironments() {
+        var provider = builder().idleTimeout(Duration.ofMillis(100)).build();
+
+        provider.getBooleanEvaluation("flag", false, contextFor("a"));
+        assertEquals(List.of("a"), provider.getLoadedEnvironments());
+
+        await().until(() -> provider.getLoadedEnvironments().isEmpty());
+        provider.shutdown();
+    }
+
+    @Test
+    public void itRequiresAnEnvironmentAttribute() {
+        var provider = builder().build();
+
+        var result = provider.getBooleanEvaluation("flag", false, new ImmutableContext("user-key"));
+        assertFalse(result.getValue());
+        assertEquals(ErrorCode.INVALID_CONTEXT, result.getErrorCode());
+        assertTrue(provider.getLoadedEnvironments().isEmpty());
+        provider.shutdown();
+    }
+
+    @Test
+    public void creatingAnEnvironmentDoesNotBlockOtherEnvironments() throws Exception {
+        var creating = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var config = new LDConfig.Builder().offline(true).build();
+        var provider = new MultiEnvironmentProvider("environment", environment -> {
+            if (environment.equals("slow")) {
+                creating.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new Provider("sdk-key-" + environment, config);
+        }, 10, Duration.ofMinutes(30), Duration.ofMinutes(1));
+
+        var slow = new Thread(() -> provider.getBooleanEvaluation("flag", false, contextFor("slow")));
+        slow.start();
+        creating.await();
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> provider.getBooleanEvaluation("flag", false, contextFor("fast")));
+
+        release.countDown();
+        slow.join();
+        assertEquals(List.of("fast", "slow"), provider.getLoadedEnvironments());
+        provider.shutdown();
+    }
+
+    @Test
+    public void itDoesNotCreateEnvironmentsAfterShutdown() {
+        var provider = builder().build();
+        provider.shutdown();
+
+        var result = provider.getBooleanEvaluation("flag", false, contextFor("a"));
+        assertFalse(result.getValue());
+        assertEquals(ErrorCode.PROVIDER_NOT_READY, result.getErrorCode());
+        assertTrue(provider.getLoadedEnvironments().isEmpty());
+    }
+
+    @Test
+    public void itReturnsAnErrorForAnEnvironmentWithoutAnSdkKey() {
+        var provider = new MultiEnvironmentProvider.Builder(environment -> null)
+            .config(new LDConfig.Builder().offline(true).build())
+            .build();
+
+        var result = provider.getBooleanEvaluation("flag", false, contextFor("unknown"));
+        assertFalse(result.getValue());
+        assertEquals(ErrorCode.GENERAL, result.getErrorCode());
+        assertTrue(provider.getLoadedEnvironments().isEmpty());
+        provider.shutdown();
+    }
+
+    @Test
+    public void itShutsDownAnEnvironmentWhichDoesNotInitialize() throws Exception {
+        var client = mock(LDClientInterface.class);
+        when(client.getLogger()).thenReturn(LDLogger.none());
+        when(client.getFlagTracker()).thenReturn(mock(FlagTracker.class));
+        var dsp = mock(DataSourceStatusProvider.class);
+        when(dsp.getStatus()).thenReturn(new DataSourceStatusProvider.Status(
+            DataSourceStatusProvider.State.INITIALIZING, null, null));
+        when(dsp.waitFor(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(invocation.<Duration>getArgument(1).toMillis());
+            return false;
+        });
+        when(client.getDataSourceStatusProvider()).thenReturn(dsp);
+        when(client.boolVariationDetail(anyString(), any(LDContext.class), anyBoolean()))
+            .thenReturn(EvaluationDetail.fromValue(false, EvaluationDetail.NO_VARIATION,
+                EvaluationReason.error(EvaluationReason.ErrorKind.CLIENT_NOT_READY)));
+        var provider = new MultiEnvironmentProvider("environment", environment -> new Provider(client), 10,
+            Duration.ofMinutes(30), Duration.ofMillis(100));
+
+        provider.getBooleanEvaluation("flag", false, contextFor("a"));
+        assertEquals(List.of("a"), provider.getLoadedEnvironments());
+
+        await().until(() -> provider.getLoadedEnvironments().isEmpty());
+        await().untilAsserted(() -> verify(client).close());
+        provider.shutdown();
+    }
+}
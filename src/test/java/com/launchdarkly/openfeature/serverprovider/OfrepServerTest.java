@@ -0,0 +1,195 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.Components;
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import com.launchdarkly.sdk.server.integrations.TestData;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests in this suite use a real client instance, and make requests to the server over the loopback interface.
+ */
+public class OfrepServerTest {
+    private static final String CONTEXT_BODY =
+        "{\"context\":{\"targetingKey\":\"user-key\",\"email\":\"a@example.com\"}}";
+
+    private final TestData td = TestData.dataSource();
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private Provider provider;
+    private OfrepServer server;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        td.update(td.flag("bool-flag").booleanFlag().variationForAll(true));
+        td.update(td.flag("string-flag").valueForAll(LDValue.of("value")));
+        provider = new Provider("fake-key",
+            new LDConfig.Builder().dataSource(td).events(Components.noEvents()).build());
+        provider.initialize(new ImmutableContext());
+        server = new OfrepServer.Builder(provider)
+            .address(new InetSocketAddress("127.0.0.1", 0))
+            .start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+        provider.shutdown();
+    }
+
+    private HttpResponse<String> post(String path, String body, String ifNoneMatch) throws Exception {
+        return post(server, path, body, ifNoneMatch);
+    }
+
+    private HttpResponse<String> post(OfrepServer server, String path, String body, String ifNoneMatch)
+        throws Exception {
+        var request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .header("Content-Type", "application/json");
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void itEvaluatesASingleFlag() throws Exception {
+        var response = post("/ofrep/v1/evaluate/flags/bool-flag", CONTEXT_BODY, null);
+
+        assertEquals(200, response.statusCode());
+        var body = LDValue.parse(response.body());
+        assertEquals("bool-flag", body.get("key").stringValue());
+        assertTrue(body.get("value").booleanValue());
+        assertEquals("0", body.get("variant").stringValue());
+        assertEquals("FALLTHROUGH", body.get("reason").stringValue());
+    }
+
+    @Test
+    public void anUnknownFlagIsNotFound() throws Exception {
+        var response = post("/ofrep/v1/evaluate/flags/missing-flag", CONTEXT_BODY, null);
+
+        assertEquals(404, response.statusCode());
+        var body = LDValue.parse(response.body());
+        assertEquals("missing-flag", body.get("key").stringValue());
+        assertEquals("FLAG_NOT_FOUND", body.get("errorCode").stringValue());
+    }
+
+    @Test
+    public void aMalformedRequestIsRejected() throws Exception {
+        var response = post("/ofrep/v1/evaluate/flags/bool-flag", "{\"context\":", null);
+
+        assertEquals(400, response.statusCode());
+        assertEquals("PARSE_ERROR", LDValue.parse(response.body()).get("errorCode").stringValue());
+    }
+
+    @Test
+    public void itEvaluatesEveryFlagInBulk() throws Exception {
+        var response = post("/ofrep/v1/evaluate/flags", CONTEXT_BODY, null);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("ETag").isPresent());
+        Map<String, LDValue> values = new HashMap<>();
+        for (LDValue flag : LDValue.parse(response.body()).get("flags").values()) {
+            values.put(flag.get("key").stringValue(), flag.get("value"));
+        }
+        assertEquals(Map.of("bool-flag", LDValue.of(true), "string-flag", LDValue.of("value")), values);
+    }
+
+    @Test
+    public void bulkResponsesAreNotModifiedUntilAFlagChanges() throws Exception {
+        String etag = post("/ofrep/v1/evaluate/flags", CONTEXT_BODY, null).headers().firstValue("ETag").get();
+
+        var unchanged = post("/ofrep/v1/evaluate/flags", CONTEXT_BODY, etag);
+        assertEquals(304, unchanged.statusCode());
+        assertEquals("", unchanged.body());
+
+        var otherContext = post("/ofrep/v1/evaluate/flags", "{\"context\":{\"targetingKey\":\"other\"}}", etag);
+        assertEquals(200, otherContext.statusCode());
+
+        td.update(td.flag("string-flag").valueForAll(LDValue.of("updated")));
+        await().until(() -> post("/ofrep/v1/evaluate/flags", CONTEXT_BODY, etag).statusCode() == 200);
+        var changed = post("/ofrep/v1/evaluate/flags", CONTEXT_BODY, etag);
+        assertNotEquals(etag, changed.headers().firstValue("ETag").get());
+        assertTrue(changed.body().contains("updated"));
+    }
+
+    @Test
+    public void onlyPostIsAllowed() throws Exception {
+        var request = HttpRequest.newBuilder(
+            URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/ofrep/v1/evaluate/flags")).GET().build();
+
+        assertEquals(405, http.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void ifNoneMatchAcceptsAListOfTagsOrAWildcard() throws Exception {
+        String etag = post("/ofrep/v1/evaluate/flags", CONTEXT_BODY, null).headers().firstValue("ETag").get();
+
+        assertEquals(304, post("/ofrep/v1/evaluate/flags", CONTEXT_BODY, "\"other\", W/" + etag).statusCode());
+        assertEquals(304, post("/ofrep/v1/evaluate/flags", CONTEXT_BODY, "*").statusCode());
+        assertEquals(200, post("/ofrep/v1/evaluate/flags", CONTEXT_BODY, "\"other\"").statusCode());
+    }
+
+    @Test
+    public void ifNoneMatchHeadersAreParsed() {
+        assertFalse(OfrepServer.matchesAny(null, "\"a\""));
+        assertTrue(OfrepServer.matchesAny(List.of("\"b\"", "\"c\" ,\"a\""), "\"a\""));
+        assertTrue(OfrepServer.matchesAny(List.of("W/\"a\""), "\"a\""));
+        assertFalse(OfrepServer.matchesAny(List.of("\"ab\""), "\"a\""));
+    }
+
+    @Test
+    public void aRequestBodyOverTheLimitIsRejected() throws Exception {
+        try (OfrepServer limited = new OfrepServer.Builder(provider)
+            .address(new InetSocketAddress("127.0.0.1", 0))
+            .maxRequestBodySize(CONTEXT_BODY.length())
+            .start()) {
+            assertEquals(200, post(limited, "/ofrep/v1/evaluate/flags/bool-flag", CONTEXT_BODY, null).statusCode());
+
+            var response = post(limited, "/ofrep/v1/evaluate/flags/bool-flag", CONTEXT_BODY + " ", null);
+            assertEquals(413, response.statusCode());
+            assertEquals("GENERAL", LDValue.parse(response.body()).get("errorCode").stringValue());
+            assertEquals(413, post(limited, "/ofrep/v1/evaluate/flags", CONTEXT_BODY + " ", null).statusCode());
+        }
+    }
+
+    @Test
+    public void anUnexpectedErrorIsAnInternalServerError() throws Exception {
+        var client = mock(LDClientInterface.class);
+        when(client.getLogger()).thenReturn(LDLogger.none());
+        var failing = mock(Provider.class);
+        when(failing.getLdClient()).thenReturn(client);
+        when(failing.subscribePrefix(anyString(), any())).thenReturn(mock(FlagSubscription.class));
+        when(failing.getState()).thenReturn(ProviderState.READY);
+        when(failing.snapshot(any())).thenThrow(new IllegalStateException("failed"));
+
+        try (OfrepServer broken = new OfrepServer.Builder(failing)
+            .address(new InetSocketAddress("127.0.0.1", 0))
+            .start()) {
+            var response = post(broken, "/ofrep/v1/evaluate/flags", CONTEXT_BODY, null);
+
+            assertEquals(500, response.statusCode());
+            assertFalse(response.headers().firstValue("ETag").isPresent());
+            assertEquals("GENERAL", LDValue.parse(response.body()).get("errorCode").stringValue());
+        }
+    }
+}
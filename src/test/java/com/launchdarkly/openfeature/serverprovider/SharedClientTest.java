@@ -0,0 +1,141 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.LDConfig;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests in this suite use a real client instance and the public constructor.
+ */
+public class SharedClientTest {
+    private final LDConfig config = new LDConfig.Builder().offline(true).build();
+    private final ProviderOptions sharedOptions = new ProviderOptions.Builder().sharedClient(true).build();
+
+    @Test
+    public void providersWithTheSameKeyShareAClient() throws Exception {
+        var first = new Provider("shared-key-1", config, sharedOptions);
+        var second = new Provider("shared-key-1", config, sharedOptions);
+        assertSame(first.getLdClient(), second.getLdClient());
+
+        first.initialize(new ImmutableContext());
+        second.initialize(new ImmutableContext());
+        assertEquals(ProviderState.READY, second.getState());
+
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    public void providersWithDifferentKeysDoNotShareAClient() {
+        var first = new Provider("shared-key-2", config, sharedOptions);
+        var second = new Provider("shared-key-3", config, sharedOptions);
+        assertNotSame(first.getLdClient(), second.getLdClient());
+
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    public void providersWhichDoNotOptInDoNotShareAClient() {
+        var first = new Provider("shared-key-4", config, sharedOptions);
+        var second = new Provider("shared-key-4", config);
+        assertNotSame(first.getLdClient(), second.getLdClient());
+
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    public void providersWithDifferentConfigurationsDoNotShareAClient() {
+        var first = new Provider("shared-key-8", config, sharedOptions);
+        var second = new Provider("shared-key-8", new LDConfig.Builder().offline(true).build(), sharedOptions);
+        assertNotSame(first.getLdClient(), second.getLdClient());
+
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    public void providersWithDifferentClientOptionsDoNotShareAClient() {
+        var first = new Provider("shared-key-9", config, sharedOptions);
+        var second = new Provider("shared-key-9", config,
+            new ProviderOptions.Builder().sharedClient(true).readCoalescing(Duration.ofMillis(100)).build());
+        var third = new Provider("shared-key-9", config,
+            new ProviderOptions.Builder().sharedClient(true).attributePruning(true).build());
+        assertNotSame(first.getLdClient(), second.getLdClient());
+        assertNotSame(first.getLdClient(), third.getLdClient());
+        assertNotSame(second.getLdClient(), third.getLdClient());
+
+        first.shutdown();
+        second.shutdown();
+        third.shutdown();
+    }
+
+    @Test
+    public void providersWithEqualClientOptionsShareAClient() {
+        var pruning = new ProviderOptions.Builder().sharedClient(true).attributePruning(true);
+        var first = new Provider("shared-key-10", config, pruning.build());
+        var second = new Provider("shared-key-10", config, pruning.build());
+        assertSame(first.getLdClient(), second.getLdClient());
+
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    public void theClientIsReleasedWhenTheLastProviderShutsDown() {
+        var first = new Provider("shared-key-5", config, sharedOptions);
+        var second = new Provider("shared-key-5", config, sharedOptions);
+        var client = first.getLdClient();
+
+        first.shutdown();
+        var third = new Provider("shared-key-5", config, sharedOptions);
+        assertSame(client, third.getLdClient());
+
+        second.shutdown();
+        third.shutdown();
+        var fourth = new Provider("shared-key-5", config, sharedOptions);
+        assertNotSame(client, fourth.getLdClient());
+        fourth.shutdown();
+    }
+
+    @Test
+    public void creatingAClientDoesNotBlockOtherKeys() throws Exception {
+        var creating = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var slowClient = mock(LDClientInterface.class);
+        var slowKey = new SharedClientRegistry.Key("shared-key-6", config, sharedOptions);
+        var slow = new Thread(() -> SharedClientRegistry.acquire(slowKey, () -> {
+            creating.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new SharedClientRegistry.SharedClient(slowClient, null);
+        }));
+        slow.start();
+        creating.await();
+
+        var fastClient = mock(LDClientInterface.class);
+        var fastKey = new SharedClientRegistry.Key("shared-key-7", config, sharedOptions);
+        var fastShared = new SharedClientRegistry.SharedClient(fastClient, null);
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+            () -> assertSame(fastShared, SharedClientRegistry.acquire(fastKey, () -> fastShared)));
+
+        release.countDown();
+        slow.join();
+        SharedClientRegistry.release(slowClient);
+        SharedClientRegistry.release(fastClient);
+        verify(slowClient).close();
+        verify(fastClient).close();
+    }
+}
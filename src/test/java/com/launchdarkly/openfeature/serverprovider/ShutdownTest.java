@@ -0,0 +1,102 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.EvaluationDetail;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ImmutableContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ShutdownTest {
+    private final LDClientInterface mockedLdClient = mock(LDClientInterface.class);
+    private final CountDownLatch closeBlocker = new CountDownLatch(1);
+
+    {
+        when(mockedLdClient.getLogger()).thenReturn(LDLogger.none());
+        when(mockedLdClient.boolVariationDetail(anyString(), any(LDContext.class), anyBoolean()))
+            .thenReturn(EvaluationDetail.fromValue(true, 0, EvaluationReason.fallthrough()));
+    }
+
+    private void blockClose() throws Exception {
+        doAnswer(invocation -> closeBlocker.await(10, TimeUnit.SECONDS)).when(mockedLdClient).close();
+    }
+
+    private void evaluateAndTrack(Provider provider) {
+        provider.getBooleanEvaluation("flag", false, new ImmutableContext("user-key"));
+        provider.getBooleanEvaluation("flag", false, new ImmutableContext("user-key"));
+        provider.track("event", new ImmutableContext("user-key"), null);
+    }
+
+    @Test
+    public void itReportsSubmittedEventsWhenTheClientClosesInTime() throws Exception {
+        var provider = new Provider(mockedLdClient);
+        evaluateAndTrack(provider);
+
+        var result = provider.shutdownAsync(Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+        assertTrue(result.isCompleted());
+        assertEquals(3, result.getEventsSubmitted());
+        assertEquals(0, result.getEventsRejected());
+        verify(mockedLdClient).close();
+    }
+
+    @Test
+    public void itGivesUpWhenTheDeadlinePasses() throws Exception {
+        blockClose();
+        var provider = new Provider(mockedLdClient);
+        evaluateAndTrack(provider);
+
+        long start = System.nanoTime();
+        var result = provider.shutdownAsync(Duration.ofMillis(100)).get(5, TimeUnit.SECONDS);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertFalse(result.isCompleted());
+        assertEquals(3, result.getEventsSubmitted());
+        assertEquals(0, result.getEventsRejected());
+        closeBlocker.countDown();
+    }
+
+    @Test
+    public void shutdownIsBoundedByTheConfiguredTimeout() throws Exception {
+        blockClose();
+        var provider = new Provider(mockedLdClient,
+            new ProviderOptions.Builder().shutdownTimeout(Duration.ofMillis(100)).build());
+
+        long start = System.nanoTime();
+        provider.shutdown();
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        closeBlocker.countDown();
+    }
+
+    @Test
+    public void trackCallsAfterShutdownBeganAreDropped() throws Exception {
+        blockClose();
+        var provider = new Provider(mockedLdClient);
+        var result = provider.shutdownAsync(Duration.ofMillis(200));
+
+        provider.track("event", new ImmutableContext("user-key"), null);
+        verify(mockedLdClient, never()).track(anyString(), any(LDContext.class));
+        assertEquals(1, provider.getMetrics().getDroppedEvents());
+        assertEquals(1, result.get(5, TimeUnit.SECONDS).getEventsRejected());
+        closeBlocker.countDown();
+    }
+
+    @Test
+    public void onlyTheFirstShutdownClosesTheClient() throws Exception {
+        var provider = new Provider(mockedLdClient);
+
+        var first = provider.shutdownAsync(Duration.ofSeconds(5));
+        var second = provider.shutdownAsync(Duration.ofSeconds(5));
+        provider.shutdown();
+        assertSame(first, second);
+        first.get(5, TimeUnit.SECONDS);
+        verify(mockedLdClient, times(1)).close();
+    }
+}
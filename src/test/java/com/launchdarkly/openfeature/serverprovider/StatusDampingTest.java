@@ -0,0 +1,101 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.FlagTracker;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderState;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StatusDampingTest {
+    private final LDClientInterface mockedLdClient = mock(LDClientInterface.class);
+    private final DataSourceStatusProvider dsp = mock(DataSourceStatusProvider.class);
+
+    {
+        when(mockedLdClient.getFlagTracker()).thenReturn(mock(FlagTracker.class));
+        when(dsp.getStatus()).thenReturn(status(DataSourceStatusProvider.State.VALID));
+        when(mockedLdClient.getDataSourceStatusProvider()).thenReturn(dsp);
+        when(mockedLdClient.isInitialized()).thenReturn(true);
+    }
+
+    private static DataSourceStatusProvider.Status status(DataSourceStatusProvider.State state) {
+        return new DataSourceStatusProvider.Status(state, Instant.now(), null);
+    }
+
+    private DataSourceStatusProvider.StatusListener initialize(Provider provider) throws Exception {
+        provider.initialize(new ImmutableContext());
+        var captor = ArgumentCaptor.forClass(DataSourceStatusProvider.StatusListener.class);
+        verify(dsp).addStatusListener(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    public void aBriefInterruptionIsNotReported() throws Exception {
+        var provider = new Provider(mockedLdClient,
+            new ProviderOptions.Builder().staleDwellTime(Duration.ofMillis(200)).build());
+        var listener = initialize(provider);
+
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.INTERRUPTED));
+        assertEquals(ProviderState.READY, provider.getState());
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.VALID));
+
+        Thread.sleep(400);
+        assertEquals(ProviderState.READY, provider.getState());
+        assertEquals(1, provider.getMetrics().getSuppressedStaleTransitions());
+        provider.shutdown();
+    }
+
+    @Test
+    public void aLongInterruptionIsReportedOnce() throws Exception {
+        var provider = new Provider(mockedLdClient,
+            new ProviderOptions.Builder().staleDwellTime(Duration.ofMillis(100)).build());
+        var listener = initialize(provider);
+
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.INTERRUPTED));
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.INTERRUPTED));
+        await().until(() -> provider.getState() == ProviderState.STALE);
+
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.INTERRUPTED));
+        assertEquals(2, provider.getMetrics().getCoalescedInterruptions());
+
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.VALID));
+        assertEquals(ProviderState.READY, provider.getState());
+        assertEquals(0, provider.getMetrics().getSuppressedStaleTransitions());
+        provider.shutdown();
+    }
+
+    @Test
+    public void withoutDampingInterruptionsAreReportedImmediately() throws Exception {
+        var provider = new Provider(mockedLdClient);
+        var listener = initialize(provider);
+
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.INTERRUPTED));
+        assertEquals(ProviderState.STALE, provider.getState());
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.VALID));
+        assertEquals(ProviderState.READY, provider.getState());
+        assertEquals(0, provider.getMetrics().getSuppressedStaleTransitions());
+    }
+
+    @Test
+    public void aPendingInterruptionDoesNotOverwriteAnError() throws Exception {
+        var provider = new Provider(mockedLdClient,
+            new ProviderOptions.Builder().staleDwellTime(Duration.ofMillis(100)).build());
+        var listener = initialize(provider);
+
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.INTERRUPTED));
+        listener.dataSourceStatusChanged(status(DataSourceStatusProvider.State.OFF));
+        assertEquals(ProviderState.ERROR, provider.getState());
+
+        Thread.sleep(300);
+        assertEquals(ProviderState.ERROR, provider.getState());
+        provider.shutdown();
+    }
+}
@@ -107,4 +107,36 @@ public class ValueConverterTest {
         assertEquals("bKey", valueList.get(1).keys().iterator().next());
         assertEquals("bValue", valueList.get(1).values().iterator().next().stringValue());
     }
+
+    @Test
+    public void itConvertsValuesWhichAreTooDeeplyNestedToNull() {
+        var converter = new ValueConverter(LDLogger.none(), new ConversionLimits(2, 100, 1000));
+        Value twoDeep = new Value(List.of(new Value(List.of(new Value("a")))));
+        Value threeDeep = new Value(List.of(twoDeep));
+
+        assertEquals(LDValue.buildArray().add(LDValue.buildArray().add("a").build()).build(),
+            converter.toLdValue(twoDeep));
+        assertTrue(converter.toLdValue(threeDeep).isNull());
+    }
+
+    @Test
+    public void itConvertsValuesWithTooManyElementsToNull() {
+        var converter = new ValueConverter(LDLogger.none(), new ConversionLimits(10, 3, 1000));
+        Value three = new Value(List.of(new Value(1), new Value(2), new Value(3)));
+        Value nested = new Value(new ImmutableStructure(new HashMap<String, Value>() {{
+            put("list", three);
+        }}));
+
+        assertEquals(3, converter.toLdValue(three).size());
+        assertTrue(converter.toLdValue(nested).isNull());
+    }
+
+    @Test
+    public void itConvertsValuesWhichAreTooLargeToNull() {
+        var converter = new ValueConverter(LDLogger.none(), new ConversionLimits(10, 100, 10));
+
+        assertEquals("0123456789", converter.toLdValue(new Value("0123456789")).stringValue());
+        assertTrue(converter.toLdValue(new Value("0123456789a")).isNull());
+        assertTrue(converter.toLdValue(new Value(List.of(new Value("012345"), new Value("012345")))).isNull());
+    }
 }
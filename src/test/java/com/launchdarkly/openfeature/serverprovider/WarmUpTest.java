@@ -0,0 +1,95 @@
+package com.launchdarkly.openfeature.serverprovider;
+
+import com.launchdarkly.logging.LDLogger;
+import com.launchdarkly.sdk.EvaluationReason;
+import com.launchdarkly.sdk.LDContext;
+import com.launchdarkly.sdk.LDValue;
+import com.launchdarkly.sdk.server.FeatureFlagsState;
+import com.launchdarkly.sdk.server.FlagsStateOption;
+import com.launchdarkly.sdk.server.interfaces.DataSourceStatusProvider;
+import com.launchdarkly.sdk.server.interfaces.FlagTracker;
+import com.launchdarkly.sdk.server.interfaces.LDClientInterface;
+import dev.openfeature.sdk.ImmutableContext;
+import dev.openfeature.sdk.ProviderState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WarmUpTest {
+    private final LDClientInterface mockedLdClient = mock(LDClientInterface.class);
+
+    {
+        when(mockedLdClient.getFlagTracker()).thenReturn(mock(FlagTracker.class));
+        DataSourceStatusProvider dsp = mock(DataSourceStatusProvider.class);
+        when(dsp.getStatus()).thenReturn(new DataSourceStatusProvider.Status(
+            DataSourceStatusProvider.State.VALID, null, null));
+        when(mockedLdClient.getDataSourceStatusProvider()).thenReturn(dsp);
+        when(mockedLdClient.isInitialized()).thenReturn(true);
+        when(mockedLdClient.getLogger()).thenReturn(LDLogger.none());
+        when(mockedLdClient.allFlagsState(any(LDContext.class), any(FlagsStateOption[].class)))
+            .thenReturn(FeatureFlagsState.builder(FlagsStateOption.WITH_REASONS)
+                .add("flag-a", LDValue.of(true), 0, EvaluationReason.fallthrough(), 1, false, null)
+                .add("flag-b", LDValue.of("b"), 1, EvaluationReason.fallthrough(), 1, false, null)
+                .build());
+    }
+
+    private final List<ImmutableContext> contexts = List.of(
+        new ImmutableContext("user-a"), new ImmutableContext("user-b"));
+
+    @Test
+    public void itEvaluatesEachContextOncePerIterationWithoutEvents() {
+        var provider = new Provider(mockedLdClient);
+        provider.warmUp(contexts, List.of("flag-a", "flag-b"), 10);
+
+        verify(mockedLdClient, times(20)).allFlagsState(any(LDContext.class), any(FlagsStateOption[].class));
+        verify(mockedLdClient, never()).boolVariationDetail(anyString(), any(LDContext.class), anyBoolean());
+        verify(mockedLdClient, never()).jsonValueVariationDetail(anyString(), any(LDContext.class), any(LDValue.class));
+    }
+
+    @Test
+    public void itDerivesFlagKeysFromTheFlagData() {
+        var provider = new Provider(mockedLdClient,
+            new ProviderOptions.Builder().flagUsageTracking(100).evaluationProfiling(10).build());
+        provider.warmUp(null, null, 5);
+
+        verify(mockedLdClient, atLeast(5)).allFlagsState(any(LDContext.class), any(FlagsStateOption[].class));
+        assertTrue(provider.getFlagUsage().getEntries().isEmpty());
+        assertTrue(provider.getEvaluationProfile().getFlags().isEmpty());
+    }
+
+    @Test
+    public void itIsNotShortCircuitedByTheDegradedModePolicy() {
+        var provider = new Provider(mockedLdClient, new ProviderOptions.Builder()
+            .degradedModePolicy(DegradedModePolicy.SHORT_CIRCUIT_UNTIL_READY).build());
+        assertEquals(ProviderState.NOT_READY, provider.getState());
+
+        provider.warmUp(contexts, List.of("flag-a"), 3);
+        verify(mockedLdClient, times(6)).allFlagsState(any(LDContext.class), any(FlagsStateOption[].class));
+    }
+
+    @Test
+    public void aSyntheticKeyIsNotCountedAsAnUnknownFlag() {
+        when(mockedLdClient.allFlagsState(any(LDContext.class), any(FlagsStateOption[].class)))
+            .thenReturn(FeatureFlagsState.builder(FlagsStateOption.WITH_REASONS).build());
+        var provider = new Provider(mockedLdClient, new ProviderOptions.Builder().unknownFlagFilter(true).build());
+
+        provider.warmUp(null, null, 3);
+        assertEquals(0, provider.getMetrics().getUnknownFlagEvaluations());
+        assertTrue(provider.getMetrics().getUnknownFlagKeyCounts().isEmpty());
+    }
+
+    @Test
+    public void itCanWarmUpBeforeReportingReady() throws Exception {
+        var provider = new Provider(mockedLdClient,
+            new ProviderOptions.Builder().warmUpBeforeReady(contexts, 4).build());
+        provider.initialize(new ImmutableContext());
+
+        assertEquals(ProviderState.READY, provider.getState());
+        verify(mockedLdClient, atLeast(8)).allFlagsState(any(LDContext.class), any(FlagsStateOption[].class));
+        verify(mockedLdClient, never()).boolVariationDetail(anyString(), any(LDContext.class), anyBoolean());
+    }
+}